@@ -2,6 +2,9 @@ package main.java.com.furniview3d;
 
 import main.java.com.furniview3d.auth.LoginForm;
 import main.java.com.furniview3d.auth.UserManager;
+import main.java.com.furniview3d.controller.AutoSaveManager;
+import main.java.com.furniview3d.controller.DesignChange;
+import main.java.com.furniview3d.controller.DesignEventBus;
 import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Room;
 import main.java.com.furniview3d.model.Furniture;
@@ -11,6 +14,7 @@ import main.java.com.furniview3d.ui.design2d.Design2DPanel;
 import main.java.com.furniview3d.ui.design3d.Design3DPanel;
 import main.java.com.furniview3d.ui.management.ManagementPanel;
 import main.java.com.furniview3d.ui.room.RoomSetupPanel;
+import main.java.com.furniview3d.util.DesignLoadService;
 import main.java.com.furniview3d.util.FileManager;
 import main.java.com.furniview3d.util.SwingUtils;
 
@@ -19,16 +23,17 @@ import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class FurniView3DApp extends JFrame {
     private static final long serialVersionUID = 1L;
     private static final String APP_TITLE = "FurniView3D - Furniture Design Tool";
     private static final int DEFAULT_WIDTH = 1280;
     private static final int DEFAULT_HEIGHT = 800;
+    private static final int LOAD_DIALOG_DELAY_MS = 250;
 
     // Singleton instance
     private static FurniView3DApp instance;
@@ -39,9 +44,7 @@ public class FurniView3DApp extends JFrame {
     private Map<String, JPanel> panels;
     private JPanel contentPanel;
     private JMenuBar menuBar;
-
-    // List of design change listeners
-    private List<DesignChangeListener> designChangeListeners = new ArrayList<>();
+    private CompletableFuture<Design> pendingLoad;
 
     private FurniView3DApp(String username) {
         this.currentUserId = username;
@@ -64,6 +67,9 @@ public class FurniView3DApp extends JFrame {
     }
 
     public static void shutdown() {
+        // Don't lose edits made since the last autosave
+        AutoSaveManager.getInstance().flush();
+
         if (instance != null) {
             instance.dispose();
             instance = null;
@@ -214,12 +220,7 @@ public class FurniView3DApp extends JFrame {
         contentPanel.removeAll();
         JPanel panel = panels.get(panelName);
         if (panel != null) {
-            // If this is the design3D panel, update it with the current design
-            if (panelName.equals("design3D") && panel instanceof Design3DPanel) {
-                Design3DPanel design3DPanel = (Design3DPanel) panel;
-                design3DPanel.updateDesignInfo();
-            }
-
+            // Panels catch up with design changes made while they were hidden once they are showing
             contentPanel.add(panel, BorderLayout.CENTER);
             contentPanel.revalidate();
             contentPanel.repaint();
@@ -232,6 +233,11 @@ public class FurniView3DApp extends JFrame {
         return currentDesign;
     }
 
+    /**
+     * Shows a design in all panels. Panels reload it completely, so changes to the open design
+     * should be posted to the DesignEventBus instead of passing the same design again.
+     * @param design The design to show, or null
+     */
     public void setCurrentDesign(Design design) {
         this.currentDesign = design;
 
@@ -242,24 +248,7 @@ public class FurniView3DApp extends JFrame {
             setTitle(APP_TITLE + " - " + currentUserId);
         }
 
-        // Notify all panels that implement DesignChangeListener
-        notifyDesignChangeListeners();
-    }
-
-    public void addDesignChangeListener(DesignChangeListener listener) {
-        if (!designChangeListeners.contains(listener)) {
-            designChangeListeners.add(listener);
-        }
-    }
-
-    public void removeDesignChangeListener(DesignChangeListener listener) {
-        designChangeListeners.remove(listener);
-    }
-
-    private void notifyDesignChangeListeners() {
-        for (DesignChangeListener listener : designChangeListeners) {
-            listener.onDesignChanged(currentDesign);
-        }
+        DesignEventBus.getInstance().post(null, DesignChange.replaced(design));
     }
 
     public String getCurrentUserId() {
@@ -302,26 +291,85 @@ public class FurniView3DApp extends JFrame {
         );
 
         if (selectedDesign != null) {
-            try {
-                Design design = FileManager.loadDesign(selectedDesign);
+            openDesignAsync(selectedDesign);
+        }
+    }
 
-                // Create a new Room object if it's null
-                if (design.getRoom() == null) {
-                    design.setRoom(new Room());
-                }
+    /**
+     * Opens a saved design without blocking the window, showing progress while it loads.
+     * A newer request replaces one that is still loading.
+     * @param filename The filename (without extension)
+     */
+    public void openDesignAsync(String filename) {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
 
-                // Ensure furniture list isn't null
-                if (design.getFurnitureList() == null) {
-                    design.setFurnitureList(new ArrayList<>());
-                }
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        CompletableFuture<Design> load = DesignLoadService.getInstance().loadDesign(filename, progressBar::setValue);
+        pendingLoad = load;
 
-                // Update app state with loaded design
-                setCurrentDesign(design);
-                this.showPanel("design2D");
-            } catch (IOException | ClassNotFoundException e) {
-                SwingUtils.showErrorDialog(this, "Error loading design: " + e.getMessage());
+        // Only show the dialog for loads that take long enough to notice
+        JDialog dialog = createLoadDialog(filename, progressBar, load);
+        Timer showTimer = new Timer(LOAD_DIALOG_DELAY_MS, e -> {
+            if (!load.isDone()) {
+                dialog.setVisible(true);
             }
-        }
+        });
+        showTimer.setRepeats(false);
+        showTimer.start();
+
+        load.whenComplete((design, error) -> SwingUtilities.invokeLater(() -> {
+            showTimer.stop();
+            dialog.dispose();
+            if (pendingLoad == load) {
+                pendingLoad = null;
+            }
+
+            if (load.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                SwingUtils.showErrorDialog(this, "Error loading design: " + error.getMessage());
+                return;
+            }
+
+            // Update app state with loaded design
+            setCurrentDesign(design);
+            showPanel("design2D");
+        }));
+    }
+
+    private JDialog createLoadDialog(String filename, JProgressBar progressBar, CompletableFuture<Design> load) {
+        JDialog dialog = new JDialog(this, "Opening Design", false);
+        dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                load.cancel(false);
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        panel.setBackground(SwingUtils.BACKGROUND_COLOR);
+
+        JLabel label = new JLabel("Loading " + filename + "...");
+        label.setFont(SwingUtils.BODY_FONT);
+        progressBar.setStringPainted(true);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.setBackground(SwingUtils.BACKGROUND_COLOR);
+        buttonPanel.add(SwingUtils.createSecondaryButton("Cancel", e -> load.cancel(false)));
+
+        panel.add(label, BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        dialog.setContentPane(panel);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        return dialog;
     }
 
     private void saveDesign() {
@@ -339,17 +387,10 @@ public class FurniView3DApp extends JFrame {
         try {
             String fileName = currentDesign.getName().replaceAll("\\s+", "_").toLowerCase();
             FileManager.saveDesign(currentDesign, fileName);
-
-            // Make sure the design is properly updated in the app state
-            // This ensures the current design reference stays valid
-            Design savedDesign = FileManager.loadDesign(fileName);
-            if (savedDesign != null) {
-                this.currentDesign = savedDesign;
-                setTitle(APP_TITLE + " - " + currentDesign.getName() + " - " + currentUserId);
-            }
+            setTitle(APP_TITLE + " - " + currentDesign.getName() + " - " + currentUserId);
 
             SwingUtils.showInfoDialog(this, "Design saved successfully.");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             SwingUtils.showErrorDialog(this, "Error saving design: " + e.getMessage());
         }
     }
@@ -370,16 +411,12 @@ public class FurniView3DApp extends JFrame {
                 String fileName = newName.replaceAll("\\s+", "_").toLowerCase();
                 FileManager.saveDesign(currentDesign, fileName);
 
-                // Reload the design to ensure it's fresh
-                Design savedDesign = FileManager.loadDesign(fileName);
-                if (savedDesign != null) {
-                    this.currentDesign = savedDesign;
-                    setTitle(APP_TITLE + " - " + currentDesign.getName() + " - " + currentUserId);
-                    notifyDesignChangeListeners();
-                }
+                // The name has changed, so refresh the title and the panels
+                setTitle(APP_TITLE + " - " + currentDesign.getName() + " - " + currentUserId);
+                DesignEventBus.getInstance().post(null, DesignChange.detailsChanged(currentDesign));
 
                 SwingUtils.showInfoDialog(this, "Design saved successfully.");
-            } catch (IOException | ClassNotFoundException e) {
+            } catch (IOException e) {
                 SwingUtils.showErrorDialog(this, "Error saving design: " + e.getMessage());
             }
         }
@@ -409,6 +446,12 @@ public class FurniView3DApp extends JFrame {
 
     private void logout() {
         if (SwingUtils.showConfirmDialog(this, "Are you sure you want to log out?")) {
+            // Save edits made since the last autosave, then let go of the design and the panels
+            AutoSaveManager.getInstance().flush();
+            disposePanels();
+            setCurrentDesign(null);
+            DesignEventBus.getInstance().flush();
+
             dispose();
             instance = null;
             UserManager.getInstance().logout();
@@ -420,6 +463,17 @@ public class FurniView3DApp extends JFrame {
         }
     }
 
+    // Unregisters the panels from the singletons that would otherwise keep them alive
+    private void disposePanels() {
+        for (JPanel panel : panels.values()) {
+            if (panel instanceof Design2DPanel) {
+                ((Design2DPanel) panel).dispose();
+            } else if (panel instanceof Design3DPanel) {
+                ((Design3DPanel) panel).dispose();
+            }
+        }
+    }
+
     public JPanel getPanel(String panelName) {
         return panels.get(panelName);
     }
@@ -427,9 +481,4 @@ public class FurniView3DApp extends JFrame {
     public void addPanel(String panelName, JPanel panel) {
         panels.put(panelName, panel);
     }
-
-    // Interface for design change notifications
-    public interface DesignChangeListener {
-        void onDesignChanged(Design design);
-    }
 }
\ No newline at end of file
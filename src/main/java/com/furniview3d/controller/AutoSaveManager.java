@@ -0,0 +1,304 @@
+package main.java.com.furniview3d.controller;
+
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.util.DesignJournal;
+import main.java.com.furniview3d.util.DesignSnapshot;
+import main.java.com.furniview3d.util.FileManager;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the open design in the background while it is being edited.
+ * Change notifications only mark the design as dirty; at most once per interval the changes
+ * are captured on the event dispatch thread and written to disk on a separate thread.
+ * After a first full save only the changed records are appended to the design's journal,
+ * until the journal is large enough to be compacted by another full save.
+ */
+public class AutoSaveManager implements DesignEventBus.Listener {
+
+    public static final int DEFAULT_INTERVAL_MS = 10000;
+    private static final String UNTITLED_DESIGN = "Untitled Design";
+
+    private static AutoSaveManager instance;
+
+    private final Timer timer;
+    private final ExecutorService writer;
+    private final List<AutoSaveListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Accessed on the event dispatch thread only
+    private Design design;
+    private boolean dirty;
+    private boolean writeInProgress;
+    private DesignJournal journal; // what has been written for the design, null until its first full save
+    private boolean enabled = true;
+
+    // Written on the writer thread; flush reads them after waiting for the writer
+    private Design writtenDesign;
+    private long writtenRevision;
+
+    private volatile LocalDateTime lastAutoSaveTime;
+
+    /**
+     * Interface for autosave listeners, always called on the event dispatch thread
+     */
+    public interface AutoSaveListener {
+        void onAutoSaved(Design design, String fileName, LocalDateTime time);
+
+        void onAutoSaveFailed(Design design, String fileName, Exception error);
+    }
+
+    // Private constructor for singleton pattern
+    private AutoSaveManager() {
+        timer = new Timer(DEFAULT_INTERVAL_MS, e -> saveIfDirty());
+        timer.setRepeats(true);
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "design-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        DesignEventBus.getInstance().subscribe(null, this);
+    }
+
+    // Singleton instance getter
+    public static synchronized AutoSaveManager getInstance() {
+        if (instance == null) {
+            instance = new AutoSaveManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets how often pending changes are written
+     * @param intervalMillis The autosave interval in milliseconds
+     */
+    public void setInterval(int intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Autosave interval must be positive");
+        }
+        timer.setDelay(intervalMillis);
+        timer.setInitialDelay(intervalMillis);
+    }
+
+    public int getInterval() {
+        return timer.getDelay();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            timer.stop();
+        } else if (dirty) {
+            timer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the time of the last successful autosave
+     * @return The time, or null if nothing has been autosaved yet
+     */
+    public LocalDateTime getLastAutoSaveTime() {
+        return lastAutoSaveTime;
+    }
+
+    public void addAutoSaveListener(AutoSaveListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeAutoSaveListener(AutoSaveListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void onDesignChange(DesignChange change) {
+        if (change.isReplaced() && change.getDesign() == null) {
+            // The design was closed; whoever closed it has flushed its changes
+            design = null;
+            dirty = false;
+            journal = null;
+            timer.stop();
+            return;
+        }
+        markDirty(change.getDesign());
+    }
+
+    /**
+     * Records that a design has changed; the write happens on the next timer tick
+     */
+    private void markDirty(Design changed) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> markDirty(changed));
+            return;
+        }
+        if (changed == null) {
+            return;
+        }
+
+        if (changed != design) {
+            // Switching designs is not an edit
+            design = changed;
+            dirty = false;
+            journal = null;
+            return;
+        }
+
+        dirty = true;
+        if (enabled && !timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Writes the pending changes of the design in the background. Changes are appended to
+     * the design's journal while it is small, otherwise a full snapshot is written.
+     * Only a copy of the design is taken here; it is diffed or encoded on the writer thread.
+     */
+    private void saveIfDirty() {
+        if (!dirty || design == null) {
+            timer.stop();
+            return;
+        }
+        if (writeInProgress) {
+            return; // Picked up again on the next tick
+        }
+        if (design.getName() == null || design.getName().equals(UNTITLED_DESIGN)) {
+            return; // Needs a name from an explicit save first
+        }
+
+        Design savedDesign = design;
+        Design copy = savedDesign.copy();
+        String fileName = FileManager.getFileNameForDesign(savedDesign.getName());
+        DesignJournal target = journal;
+        // The journal is only changed on this thread once the write has finished
+        boolean appendToJournal = target != null && target.getFileName().equals(fileName)
+                && !target.needsCompaction();
+        dirty = false;
+
+        writeInProgress = true;
+        writer.execute(() -> {
+            DesignJournal.Delta delta = null;
+            if (appendToJournal) {
+                try {
+                    delta = target.diff(copy);
+                } catch (IOException e) {
+                    System.err.println("Error creating autosave delta: " + e.getMessage());
+                }
+            }
+            boolean unchanged = delta != null && delta.isEmpty(); // Edits cancelled each other out
+
+            DesignJournal baseline = null;
+            boolean written = false;
+            Exception error = null;
+            try {
+                if (unchanged) {
+                    written = true;
+                } else if (delta != null) {
+                    written = FileManager.appendToJournal(delta, fileName);
+                } else {
+                    DesignSnapshot snapshot = FileManager.createSnapshot(copy);
+                    try {
+                        baseline = new DesignJournal(fileName, snapshot, copy);
+                    } catch (IOException e) {
+                        System.err.println("Design cannot be journaled, saving in full: " + e.getMessage());
+                    }
+                    FileManager.saveSnapshot(snapshot, fileName);
+                    written = true;
+                }
+                if (written) {
+                    writtenDesign = savedDesign;
+                    writtenRevision = copy.getRevision();
+                    if (!unchanged) {
+                        lastAutoSaveTime = LocalDateTime.now();
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error creating autosave snapshot: " + e.getMessage());
+            } catch (IOException e) {
+                System.err.println("Error autosaving design: " + e.getMessage());
+                error = e;
+            }
+
+            boolean success = written;
+            Exception failure = error;
+            LocalDateTime time = lastAutoSaveTime;
+            DesignJournal.Delta pendingDelta = delta;
+            DesignJournal newBaseline = baseline;
+            SwingUtilities.invokeLater(() -> {
+                writeInProgress = false;
+                if (!success) {
+                    // Retry on the next tick with a full save
+                    journal = null;
+                    dirty = true;
+                    if (failure != null) {
+                        for (AutoSaveListener listener : listeners) {
+                            listener.onAutoSaveFailed(savedDesign, fileName, failure);
+                        }
+                    }
+                    return;
+                }
+
+                savedDesign.markSaved(copy.getRevision());
+                if (pendingDelta != null) {
+                    if (journal == target) {
+                        target.apply(pendingDelta);
+                    }
+                } else if (design == savedDesign) {
+                    journal = newBaseline;
+                }
+
+                if (!unchanged) {
+                    for (AutoSaveListener listener : listeners) {
+                        listener.onAutoSaved(savedDesign, fileName, time);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Writes any pending changes in full before the application exits or the user logs out.
+     * Called on the EDT and blocks until the write has finished.
+     */
+    public void flush() {
+        DesignEventBus.getInstance().flush(); // Changes posted during the last frame
+        timer.stop();
+
+        // Let a write that is already running finish first
+        try {
+            writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Error waiting for autosave: " + e.getMessage());
+        }
+
+        // The outcome of that write only reaches dirty and the design later on the EDT, so
+        // compare the design's revision with what is known to be on disk instead
+        if (!enabled || design == null
+                || design.getName() == null || design.getName().equals(UNTITLED_DESIGN)) {
+            return;
+        }
+        if (!design.isModified() || (design == writtenDesign && design.getRevision() == writtenRevision)) {
+            return;
+        }
+        try {
+            DesignSnapshot snapshot = FileManager.createSnapshot(design);
+            FileManager.saveSnapshot(snapshot, FileManager.getFileNameForDesign(design.getName()));
+            design.markSaved(snapshot.getRevision());
+            journal = null;
+            dirty = false;
+            lastAutoSaveTime = LocalDateTime.now();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error autosaving design: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,540 @@
+package main.java.com.furniview3d.controller;
+
+import main.java.com.furniview3d.model.Furniture;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Search index over the furniture catalog. Every item gets a slot number in catalog order;
+ * lookups by ID go through a hash map, types and materials are kept as bitsets of slots, and
+ * the words of names, types and materials are kept in sorted dictionaries with the slots they
+ * occur in. Search terms shorter than three letters match the start of a word. Longer terms
+ * match anywhere in a word: each dictionary also maps every three-letter sequence to the words
+ * containing it, so only a handful of words have to be checked, never the items themselves.
+ *
+ * Results are ranked by where the query matched: names starting with it come first, then
+ * names with a word starting with it, names containing it, and last items that only match
+ * by type or material. Within a rank items keep their catalog order. Result lists are views
+ * over slot numbers and are meant to be read before the catalog is changed again. A search
+ * that only narrows the previous one, like typing more letters of the last word, starts from
+ * the previous result instead of the whole catalog.
+ *
+ * Searches may run on any thread; the catalog is only changed on the event dispatch thread,
+ * which is also where result lists are read.
+ */
+public class CatalogIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private Furniture[] items = new Furniture[64]; // by slot, null for removed items
+    private String[] names = new String[64];       // lower case text the slot was indexed with
+    private String[] others = new String[64];      // type and material
+    private String[] types = new String[64];
+    private String[] materials = new String[64];
+    private int slotCount;
+    private int modCount; // changes whenever an item is added, changed or removed
+    private final BitSet live = new BitSet();
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    private final Dictionary firstWords = new Dictionary(); // first word of each name
+    private final Dictionary nameWords = new Dictionary();
+    private final Dictionary otherWords = new Dictionary(); // words of the type and material
+    private final Map<String, BitSet> byType = new LinkedHashMap<>();
+    private final Map<String, BitSet> byMaterial = new LinkedHashMap<>(); // lower case material
+
+    /**
+     * The slots a word occurs in, in no particular order
+     */
+    private static class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+
+        void addTo(BitSet set) {
+            for (int i = 0; i < size; i++) {
+                set.set(slots[i]);
+            }
+        }
+    }
+
+    /**
+     * The words of one field with the slots they occur in, and the words each three-letter
+     * sequence occurs in
+     */
+    private static class Dictionary {
+        private final TreeMap<String, Postings> words = new TreeMap<>();
+        private final Map<Long, Set<String>> wordsByGram = new HashMap<>();
+
+        void add(String word, int slot) {
+            Postings postings = words.get(word);
+            if (postings == null) {
+                postings = new Postings();
+                words.put(word, postings);
+                for (long gram : grams(word)) {
+                    wordsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(word);
+                }
+            }
+            postings.add(slot);
+        }
+
+        void remove(String word, int slot) {
+            Postings postings = words.get(word);
+            if (postings == null) {
+                return;
+            }
+            postings.remove(slot);
+            if (postings.size == 0) {
+                words.remove(word);
+                for (long gram : grams(word)) {
+                    Set<String> gramWords = wordsByGram.get(gram);
+                    if (gramWords != null && gramWords.remove(word) && gramWords.isEmpty()) {
+                        wordsByGram.remove(gram);
+                    }
+                }
+            }
+        }
+
+        // Marks the slots with a word starting with the term
+        void addPrefixMatches(String term, BitSet result) {
+            for (Postings postings : words.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                postings.addTo(result);
+            }
+        }
+
+        // Marks the slots with a word containing the term, found through its rarest sequence
+        void addSubstringMatches(String term, BitSet result) {
+            Set<String> rarest = null;
+            for (long gram : grams(term)) {
+                Set<String> gramWords = wordsByGram.get(gram);
+                if (gramWords == null) {
+                    return;
+                }
+                if (rarest == null || gramWords.size() < rarest.size()) {
+                    rarest = gramWords;
+                }
+            }
+            if (rarest == null) {
+                return;
+            }
+            for (String word : rarest) {
+                if (word.contains(term)) {
+                    words.get(word).addTo(result);
+                }
+            }
+        }
+
+        void clear() {
+            words.clear();
+            wordsByGram.clear();
+        }
+    }
+
+    /**
+     * A read-only list of found items, best first. Also remembers what was searched for, so
+     * that a narrower search can start from it.
+     */
+    public static class SearchResult extends AbstractList<Furniture> implements RandomAccess {
+        private final Furniture[] items;
+        private final int[] slots;
+
+        // What the result was found with, or null if it cannot be narrowed
+        private CatalogIndex index;
+        private int modCount;
+        private List<String> terms;
+        private String type;
+        private String material;
+        private BitSet matched;
+        private BitSet[] ranks; // the matched slots in each rank but the last
+
+        SearchResult(Furniture[] items, int[] slots) {
+            this.items = items;
+            this.slots = slots;
+        }
+
+        @Override
+        public Furniture get(int index) {
+            return items[slots[index]];
+        }
+
+        @Override
+        public int size() {
+            return slots.length;
+        }
+    }
+
+    /**
+     * Replaces the contents of the index
+     * @param furnitureList The catalog in display order
+     */
+    public synchronized void rebuild(List<Furniture> furnitureList) {
+        clear();
+        for (Furniture furniture : furnitureList) {
+            add(furniture);
+        }
+    }
+
+    public synchronized void clear() {
+        modCount++;
+        Arrays.fill(items, 0, slotCount, null);
+        slotCount = 0;
+        live.clear();
+        slotById.clear();
+        firstWords.clear();
+        nameWords.clear();
+        otherWords.clear();
+        byType.clear();
+        byMaterial.clear();
+    }
+
+    /**
+     * Adds an item after all others, or re-indexes it if it is already in the index
+     * @param furniture The item
+     */
+    public synchronized void add(Furniture furniture) {
+        modCount++;
+        Integer existing = slotById.get(furniture.getId());
+        if (existing != null) {
+            if (isIndexedAs(existing, furniture)) {
+                items[existing] = furniture; // Only dimensions or color changed; common words have long postings
+                return;
+            }
+            unindex(existing);
+            index(existing, furniture);
+            return;
+        }
+
+        if (slotCount == items.length) {
+            int capacity = slotCount * 2;
+            items = Arrays.copyOf(items, capacity);
+            names = Arrays.copyOf(names, capacity);
+            others = Arrays.copyOf(others, capacity);
+            types = Arrays.copyOf(types, capacity);
+            materials = Arrays.copyOf(materials, capacity);
+        }
+        int slot = slotCount++;
+        slotById.put(furniture.getId(), slot);
+        index(slot, furniture);
+    }
+
+    /**
+     * Re-indexes an item after its name, type or material changed, keeping its position
+     * @param furniture The item
+     */
+    public synchronized void update(Furniture furniture) {
+        add(furniture);
+    }
+
+    /**
+     * Removes an item
+     * @param furnitureId The ID of the item
+     * @return The removed item, or null if it was not in the index
+     */
+    public synchronized Furniture remove(String furnitureId) {
+        Integer slot = slotById.remove(furnitureId);
+        if (slot == null) {
+            return null;
+        }
+        modCount++;
+        Furniture furniture = items[slot];
+        unindex(slot);
+        items[slot] = null;
+        return furniture;
+    }
+
+    public synchronized Furniture get(String furnitureId) {
+        Integer slot = slotById.get(furnitureId);
+        return slot != null ? items[slot] : null;
+    }
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Gets the types of the indexed items
+     * @return The types in the order they were first seen
+     */
+    public synchronized Set<String> getTypes() {
+        byType.values().removeIf(BitSet::isEmpty);
+        return Collections.unmodifiableSet(byType.keySet());
+    }
+
+    /**
+     * Gets the materials of the indexed items
+     * @return The materials in lower case, in the order they were first seen
+     */
+    public synchronized Set<String> getMaterials() {
+        byMaterial.values().removeIf(BitSet::isEmpty);
+        return Collections.unmodifiableSet(byMaterial.keySet());
+    }
+
+    /**
+     * Gets the items of one type
+     * @param type The type, compared exactly
+     * @return The items in catalog order
+     */
+    public synchronized List<Furniture> getByType(String type) {
+        BitSet slots = byType.get(type);
+        return slots != null ? new SearchResult(items, toSlots(slots, null)) : Collections.emptyList();
+    }
+
+    /**
+     * Finds the items matching a query, ranked as described in the class comment
+     * @param query Words that must all occur in the name, type or material, in any case;
+     *              empty to list every item that passes the filters
+     * @param type Only items of this type, or null for any
+     * @param material Only items of this material in any case, or null for any
+     * @return The matching items, best first
+     */
+    public SearchResult search(String query, String type, String material) {
+        return search(query, type, material, null);
+    }
+
+    /**
+     * Finds the items matching a query, starting from an earlier result if the query only
+     * narrows it down
+     * @param query Words that must all occur in the name, type or material, in any case
+     * @param type Only items of this type, or null for any
+     * @param material Only items of this material in any case, or null for any
+     * @param previous The result of an earlier search, or null
+     * @return The matching items, best first
+     */
+    public synchronized SearchResult search(String query, String type, String material, SearchResult previous) {
+        String materialKey = material != null ? material.toLowerCase(Locale.ROOT) : null;
+        List<String> terms = splitWords(query == null ? "" : query.toLowerCase(Locale.ROOT));
+
+        BitSet match;
+        BitSet[] ranks = null;
+        int firstTerm = 0; // terms before this one were already applied to the previous result
+        if (isNarrowing(previous, terms, type, materialKey)) {
+            match = (BitSet) previous.matched.clone();
+            while (firstTerm < previous.terms.size() && terms.get(firstTerm).equals(previous.terms.get(firstTerm))) {
+                firstTerm++;
+            }
+            if (firstTerm > 0 && previous.ranks != null) {
+                ranks = new BitSet[previous.ranks.length];
+                for (int i = 0; i < ranks.length; i++) {
+                    ranks[i] = (BitSet) previous.ranks[i].clone();
+                }
+            }
+        } else {
+            match = (BitSet) live.clone();
+            if (type != null) {
+                match.and(byType.getOrDefault(type, new BitSet()));
+            }
+            if (materialKey != null) {
+                match.and(byMaterial.getOrDefault(materialKey, new BitSet()));
+            }
+        }
+
+        // Ranks come from the first term: 0 name starts with it, 1 a name word does, 2 the name
+        // contains it, 3 only the type or material matches
+        for (int i = firstTerm; i < terms.size() && !match.isEmpty(); i++) {
+            String term = terms.get(i);
+            boolean isSubstring = term.length() >= GRAM_LENGTH;
+            BitSet termMatch = new BitSet(slotCount);
+            if (i == 0) {
+                ranks = new BitSet[] { new BitSet(slotCount), new BitSet(slotCount), new BitSet(slotCount) };
+                firstWords.addPrefixMatches(term, ranks[0]);
+                nameWords.addPrefixMatches(term, ranks[1]);
+                if (isSubstring) {
+                    nameWords.addSubstringMatches(term, ranks[2]);
+                }
+                termMatch.or(isSubstring ? ranks[2] : ranks[1]);
+            } else if (isSubstring) {
+                nameWords.addSubstringMatches(term, termMatch);
+            } else {
+                nameWords.addPrefixMatches(term, termMatch);
+            }
+            if (isSubstring) {
+                otherWords.addSubstringMatches(term, termMatch);
+            } else {
+                otherWords.addPrefixMatches(term, termMatch);
+            }
+            match.and(termMatch);
+        }
+
+        SearchResult result = new SearchResult(items, toSlots(match, ranks));
+        result.index = this;
+        result.modCount = modCount;
+        result.terms = terms;
+        result.type = type;
+        result.material = materialKey;
+        result.matched = match;
+        result.ranks = ranks;
+        return result;
+    }
+
+    // Checks if every item matching the terms is in an earlier result from the same catalog
+    private boolean isNarrowing(SearchResult previous, List<String> terms, String type, String materialKey) {
+        if (previous == null || previous.index != this || previous.modCount != modCount
+                || !Objects.equals(previous.type, type) || !Objects.equals(previous.material, materialKey)
+                || previous.terms.size() > terms.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.terms.size(); i++) {
+            String oldTerm = previous.terms.get(i);
+            String newTerm = terms.get(i);
+            // A longer term matches fewer words, unless it turns a word start search into a
+            // search anywhere in the words
+            if (!newTerm.startsWith(oldTerm)
+                    || (oldTerm.length() < GRAM_LENGTH && newTerm.length() >= GRAM_LENGTH)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(int slot, Furniture furniture) {
+        String name = lowerCase(furniture.getName());
+        String type = furniture.getType() != null ? furniture.getType() : "";
+        String material = lowerCase(furniture.getMaterial());
+        String other = type.toLowerCase(Locale.ROOT) + " " + material;
+
+        items[slot] = furniture;
+        names[slot] = name;
+        others[slot] = other;
+        types[slot] = type;
+        materials[slot] = material;
+        live.set(slot);
+
+        List<String> nameTerms = splitWords(name);
+        if (!nameTerms.isEmpty()) {
+            firstWords.add(nameTerms.get(0), slot);
+        }
+        for (String word : nameTerms) {
+            nameWords.add(word, slot);
+        }
+        for (String word : splitWords(other)) {
+            otherWords.add(word, slot);
+        }
+        byType.computeIfAbsent(type, key -> new BitSet()).set(slot);
+        byMaterial.computeIfAbsent(material, key -> new BitSet()).set(slot);
+    }
+
+    private boolean isIndexedAs(int slot, Furniture furniture) {
+        String type = furniture.getType() != null ? furniture.getType() : "";
+        return lowerCase(furniture.getName()).equals(names[slot])
+                && type.equals(types[slot])
+                && lowerCase(furniture.getMaterial()).equals(materials[slot]);
+    }
+
+    // Removes a slot from everything it was indexed under, using the text it was indexed with
+    private void unindex(int slot) {
+        live.clear(slot);
+        List<String> nameTerms = splitWords(names[slot]);
+        if (!nameTerms.isEmpty()) {
+            firstWords.remove(nameTerms.get(0), slot);
+        }
+        for (String word : nameTerms) {
+            nameWords.remove(word, slot);
+        }
+        for (String word : splitWords(others[slot])) {
+            otherWords.remove(word, slot);
+        }
+        BitSet typeSlots = byType.get(types[slot]);
+        if (typeSlots != null) {
+            typeSlots.clear(slot);
+        }
+        BitSet materialSlots = byMaterial.get(materials[slot]);
+        if (materialSlots != null) {
+            materialSlots.clear(slot);
+        }
+    }
+
+    // Lists the set slots, ordered by the first rank they are in and then by slot. Leaves
+    // each rank holding only the listed slots it ranks first.
+    private static int[] toSlots(BitSet slots, BitSet[] ranks) {
+        int[] result = new int[slots.cardinality()];
+        int count = 0;
+        BitSet remaining = slots;
+        if (ranks != null) {
+            remaining = (BitSet) slots.clone();
+            for (BitSet rank : ranks) {
+                rank.and(remaining);
+                remaining.andNot(rank);
+                count = addSlots(rank, result, count);
+            }
+        }
+        addSlots(remaining, result, count);
+        return result;
+    }
+
+    private static int addSlots(BitSet slots, int[] result, int count) {
+        // Reading whole words is several times faster than nextSetBit for large results
+        long[] words = slots.toLongArray();
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                result[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return count;
+    }
+
+    // Splits lower case text into words of letters and digits
+    private static List<String> splitWords(String text) {
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // The distinct three-letter sequences of a word, each packed into a long
+    private static long[] grams(String word) {
+        if (word.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] grams = new long[word.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) word.charAt(i) << 32) | ((long) word.charAt(i + 1) << 16) | word.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int count = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (count == 0 || grams[count - 1] != grams[i]) {
+                grams[count++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, count);
+    }
+
+    private static String lowerCase(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : "";
+    }
+}
\ No newline at end of file
@@ -3,13 +3,21 @@ package main.java.com.furniview3d.controller;
 import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Furniture;
 import main.java.com.furniview3d.render.Renderer2D;
+import main.java.com.furniview3d.util.CollisionDetector;
+import main.java.com.furniview3d.util.FurnitureSpatialIndex;
 
 import java.awt.Color;
 import java.awt.Point;
+import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Design2DController {
+/**
+ * Edits the design shown in the 2D view. Changes made here are drawn at once and posted to the
+ * DesignEventBus for the other views; changes posted by others are drawn once per frame while
+ * the 2D view is showing. Listeners added here are told about selection changes.
+ */
+public class Design2DController implements DesignEventBus.Listener {
 
     private Design currentDesign;
     private Renderer2D renderer;
@@ -19,13 +27,27 @@ public class Design2DController {
     private int panX = 0;
     private int panY = 0;
 
+    // Furniture by floor position, rebuilt whenever the design changed other than through this controller
+    private final FurnitureSpatialIndex spatialIndex = new FurnitureSpatialIndex();
+    private long indexedRevision = -1;
+
     public Design2DController(Renderer2D renderer) {
         this.renderer = renderer;
+        DesignEventBus.getInstance().subscribe(renderer, this);
+    }
+
+    /**
+     * Stops receiving design changes from the DesignEventBus, so the controller and its
+     * renderer can be garbage collected
+     */
+    public void dispose() {
+        DesignEventBus.getInstance().unsubscribe(this);
     }
 
     public void setCurrentDesign(Design design) {
         this.currentDesign = design;
         this.selectedFurniture = null;
+        this.indexedRevision = -1;
 
         if (renderer != null) {
             renderer.setDesign(design);
@@ -37,6 +59,46 @@ public class Design2DController {
         notifyListeners();
     }
 
+    /**
+     * Draws changes made to the design outside this controller
+     * @param change The changes since the last call
+     */
+    @Override
+    public void onDesignChange(DesignChange change) {
+        if (change.isReplaced() || change.getDesign() != currentDesign) {
+            setCurrentDesign(change.getDesign());
+            return;
+        }
+        if (currentDesign == null) {
+            return;
+        }
+
+        if (indexedRevision < 0) {
+            syncSpatialIndex();
+        }
+        for (Furniture furniture : change.getRemoved()) {
+            spatialIndex.remove(furniture);
+            renderer.furnitureRemoved(furniture);
+            if (furniture == selectedFurniture) {
+                selectedFurniture = null;
+                notifyListeners();
+            }
+        }
+        for (Furniture furniture : change.getAdded()) {
+            furnitureChanged(furniture);
+        }
+        for (Furniture furniture : change.getMoved()) {
+            furnitureChanged(furniture);
+        }
+        for (Furniture furniture : change.getRestyled()) {
+            renderer.furnitureChanged(furniture);
+        }
+        indexedRevision = currentDesign.getRevision();
+        if (change.isRoomChanged()) {
+            renderer.repaint();
+        }
+    }
+
     public Design getCurrentDesign() {
         return currentDesign;
     }
@@ -44,47 +106,54 @@ public class Design2DController {
     public void selectFurniture(Point point) {
         if (currentDesign == null || currentDesign.getFurnitureList().isEmpty()) {
             selectedFurniture = null;
+            renderer.setSelectedFurniture(null);
             notifyListeners();
             return;
         }
 
-        // Convert screen coordinates to model coordinates
-        double roomWidth = currentDesign.getRoom().getWidth() * 100;
-        double roomLength = currentDesign.getRoom().getLength() * 100;
-
-        int screenCenterX = renderer.getWidth() / 2;
-        int screenCenterY = renderer.getHeight() / 2;
-
-        int roomTopLeftX = screenCenterX - (int)(roomWidth * scaleFactor / 2) + panX;
-        int roomTopLeftY = screenCenterY - (int)(roomLength * scaleFactor / 2) + panY;
-
-        // Check each furniture to see if point is within its bounds
-        for (Furniture furniture : currentDesign.getFurnitureList()) {
-            double furnitureX = furniture.getPosX() * 100;
-            double furnitureY = furniture.getPosY() * 100;
-            double furnitureWidth = furniture.getWidth() * 100;
-            double furnitureLength = furniture.getLength() * 100;
-
-            // Convert to screen coordinates
-            int screenX = roomTopLeftX + (int)(furnitureX * scaleFactor);
-            int screenY = roomTopLeftY + (int)(furnitureY * scaleFactor);
-            int screenWidth = (int)(furnitureWidth * scaleFactor);
-            int screenHeight = (int)(furnitureLength * scaleFactor);
-
-            // Simple bounding box check
-            if (point.x >= screenX && point.x <= screenX + screenWidth &&
-                    point.y >= screenY && point.y <= screenY + screenHeight) {
-                selectedFurniture = furniture;
-                notifyListeners();
-                return;
-            }
-        }
+        // Convert screen coordinates to room coordinates the same way the renderer draws them
+        Point2D.Double roomPoint = renderer.screenToRoom(point);
 
-        // If no furniture was clicked, deselect
-        selectedFurniture = null;
+        // Topmost item whose rotated outline contains the point, or null to deselect
+        selectedFurniture = roomPoint != null ? findFurnitureAt(roomPoint.x, roomPoint.y) : null;
+        renderer.setSelectedFurniture(selectedFurniture);
         notifyListeners();
     }
 
+    /**
+     * Finds the topmost furniture item at a point of the room
+     * @param x The X coordinate in meters
+     * @param y The Y coordinate in meters
+     * @return The furniture drawn on top at that point, or null if there is none
+     */
+    public Furniture findFurnitureAt(double x, double y) {
+        if (currentDesign == null) {
+            return null;
+        }
+        syncSpatialIndex();
+        return spatialIndex.findTopmostAt(x, y);
+    }
+
+    /**
+     * Rebuilds the spatial index if the design was changed without going through this controller
+     */
+    private void syncSpatialIndex() {
+        if (indexedRevision != currentDesign.getRevision()) {
+            spatialIndex.rebuild(currentDesign.getFurnitureList());
+            indexedRevision = currentDesign.getRevision();
+        }
+    }
+
+    /**
+     * Updates the spatial index and redraws the item for a change made by this controller
+     * @param furniture The furniture that was added, moved or rotated
+     */
+    private void furnitureChanged(Furniture furniture) {
+        spatialIndex.update(furniture);
+        indexedRevision = currentDesign.getRevision();
+        renderer.furnitureChanged(furniture);
+    }
+
     public Furniture getSelectedFurniture() {
         return selectedFurniture;
     }
@@ -94,9 +163,12 @@ public class Design2DController {
             return;
         }
 
+        syncSpatialIndex();
         currentDesign.addFurniture(furniture);
+        furnitureChanged(furniture);
         selectedFurniture = furniture;
-        renderer.repaint();
+        renderer.setSelectedFurniture(furniture);
+        post(DesignChange.furnitureAdded(currentDesign, furniture));
         notifyListeners();
     }
 
@@ -105,13 +177,23 @@ public class Design2DController {
             return;
         }
 
-        if (selectedFurniture != null && selectedFurniture.getId().equals(furnitureId)) {
+        boolean wasSelected = selectedFurniture != null && selectedFurniture.getId().equals(furnitureId);
+        if (wasSelected) {
             selectedFurniture = null;
         }
 
-        currentDesign.removeFurniture(furnitureId);
-        renderer.repaint();
-        notifyListeners();
+        syncSpatialIndex();
+        Furniture furniture = currentDesign.getFurnitureById(furnitureId);
+        if (furniture != null) {
+            currentDesign.removeFurniture(furniture);
+            spatialIndex.remove(furniture);
+            indexedRevision = currentDesign.getRevision();
+            renderer.furnitureRemoved(furniture);
+            post(DesignChange.furnitureRemoved(currentDesign, furniture));
+        }
+        if (wasSelected) {
+            notifyListeners();
+        }
     }
 
     public void moveFurniture(String furnitureId, double newX, double newY) {
@@ -121,10 +203,11 @@ public class Design2DController {
 
         Furniture furniture = currentDesign.getFurnitureById(furnitureId);
         if (furniture != null) {
+            syncSpatialIndex();
             furniture.setPosX(newX);
             furniture.setPosY(newY);
-            renderer.repaint();
-            notifyListeners();
+            furnitureChanged(furniture);
+            post(DesignChange.furnitureMoved(currentDesign, furniture));
         }
     }
 
@@ -135,10 +218,11 @@ public class Design2DController {
 
         Furniture furniture = currentDesign.getFurnitureById(furnitureId);
         if (furniture != null) {
+            syncSpatialIndex();
             furniture.setPosX(furniture.getPosX() + deltaX);
             furniture.setPosY(furniture.getPosY() + deltaY);
-            renderer.repaint();
-            notifyListeners();
+            furnitureChanged(furniture);
+            post(DesignChange.furnitureMoved(currentDesign, furniture));
         }
     }
 
@@ -149,9 +233,10 @@ public class Design2DController {
 
         Furniture furniture = currentDesign.getFurnitureById(furnitureId);
         if (furniture != null) {
+            syncSpatialIndex();
             furniture.setRotation(angle);
-            renderer.repaint();
-            notifyListeners();
+            furnitureChanged(furniture);
+            post(DesignChange.furnitureMoved(currentDesign, furniture));
         }
     }
 
@@ -163,8 +248,8 @@ public class Design2DController {
         Furniture furniture = currentDesign.getFurnitureById(furnitureId);
         if (furniture != null) {
             furniture.setColor(color);
-            renderer.repaint();
-            notifyListeners();
+            renderer.furnitureChanged(furniture);
+            post(DesignChange.furnitureRestyled(currentDesign, furniture));
         }
     }
 
@@ -225,26 +310,33 @@ public class Design2DController {
     }
 
     public boolean checkFurnitureCollision(Furniture furniture) {
-        if (currentDesign == null) {
-            return false;
-        }
-
-        for (Furniture other : currentDesign.getFurnitureList()) {
-            // Skip checking against itself
-            if (other.getId().equals(furniture.getId())) {
-                continue;
-            }
+        return !findCollisions(furniture).isEmpty();
+    }
 
-            // Simplified collision check (bounding box)
-            if (furniture.getPosX() < other.getPosX() + other.getWidth() &&
-                    furniture.getPosX() + furniture.getWidth() > other.getPosX() &&
-                    furniture.getPosY() < other.getPosY() + other.getLength() &&
-                    furniture.getPosY() + furniture.getLength() > other.getPosY()) {
-                return true;
-            }
+    /**
+     * Finds the items overlapping a furniture item in its current position and rotation.
+     * Only the grid cells around the item are searched, so this is cheap enough to call on
+     * every drag step.
+     * @param furniture The furniture to check
+     * @return The other items whose footprints overlap it
+     */
+    public List<Furniture> findCollisions(Furniture furniture) {
+        if (currentDesign == null || furniture == null) {
+            return new ArrayList<>();
         }
+        syncSpatialIndex();
+        return spatialIndex.findOverlapping(furniture);
+    }
 
-        return false;
+    /**
+     * Finds every pair of overlapping furniture in the design
+     * @return The overlapping pairs
+     */
+    public List<CollisionDetector.Overlap> findAllOverlaps() {
+        if (currentDesign == null) {
+            return new ArrayList<>();
+        }
+        return CollisionDetector.findOverlaps(currentDesign.getFurnitureList());
     }
 
     public void addListener(Design2DListener listener) {
@@ -255,6 +347,11 @@ public class Design2DController {
         listeners.remove(listener);
     }
 
+    // Tells the other views about a change already drawn here
+    private void post(DesignChange change) {
+        DesignEventBus.getInstance().post(this, change);
+    }
+
     private void notifyListeners() {
         for (Design2DListener listener : listeners) {
             listener.onDesign2DChanged(currentDesign, selectedFurniture);
@@ -265,6 +362,9 @@ public class Design2DController {
         return scaleFactor;
     }
 
+    /**
+     * Interface for listeners of the selection; design changes are delivered by the DesignEventBus
+     */
     public interface Design2DListener {
         void onDesign2DChanged(Design design, Furniture selectedFurniture);
     }
@@ -79,11 +79,6 @@ public class Design3DController {
             }
 
             notifyListeners();
-
-            // Update app that selection changed
-            if (app != null) {
-                app.setCurrentDesign(currentDesign);
-            }
         } catch (Exception e) {
             System.err.println("Error in selectFurniture: " + e.getMessage());
             e.printStackTrace();
@@ -150,17 +145,13 @@ public class Design3DController {
             if (furniture != null && color != null) {
                 furniture.setColor(color);
 
-                // Update the 3D view by refreshing the design
+                // Update only this item's node in the 3D view
                 if (renderer != null) {
-                    renderer.setDesign(currentDesign);
-                }
-
-                // Notify app that design changed
-                if (app != null) {
-                    app.setCurrentDesign(currentDesign);
+                    renderer.updateFurniture(furniture);
                 }
 
-                notifyListeners();
+                // Tell the other views about the change
+                DesignEventBus.getInstance().post(null, DesignChange.furnitureRestyled(currentDesign, furniture));
             }
         } catch (Exception e) {
             System.err.println("Error in changeFurnitureColor: " + e.getMessage());
@@ -186,17 +177,13 @@ public class Design3DController {
                 furniture.setLength(Math.max(0.1, originalLength * scaleY));
                 furniture.setHeight(Math.max(0.1, originalHeight * scaleZ));
 
-                // Update the 3D view
+                // Update only this item's node in the 3D view
                 if (renderer != null) {
-                    renderer.setDesign(currentDesign);
-                }
-
-                // Notify app that design changed
-                if (app != null) {
-                    app.setCurrentDesign(currentDesign);
+                    renderer.updateFurniture(furniture);
                 }
 
-                notifyListeners();
+                // Tell the other views about the change
+                DesignEventBus.getInstance().post(null, DesignChange.furnitureMoved(currentDesign, furniture));
             }
         } catch (Exception e) {
             System.err.println("Error in scaleFurniture: " + e.getMessage());
@@ -228,17 +215,13 @@ public class Design3DController {
                 furniture.setPosX(newX);
                 furniture.setPosY(newY);
 
-                // Update the 3D view
+                // Update only this item's node in the 3D view
                 if (renderer != null) {
-                    renderer.setDesign(currentDesign);
-                }
-
-                // Notify app that design changed
-                if (app != null) {
-                    app.setCurrentDesign(currentDesign);
+                    renderer.updateFurniture(furniture);
                 }
 
-                notifyListeners();
+                // Tell the other views about the change
+                DesignEventBus.getInstance().post(null, DesignChange.furnitureMoved(currentDesign, furniture));
             }
         } catch (Exception e) {
             System.err.println("Error in moveFurniture: " + e.getMessage());
@@ -256,17 +239,13 @@ public class Design3DController {
             if (furniture != null) {
                 furniture.setRotation(angle);
 
-                // Update the 3D view
+                // Update only this item's node in the 3D view
                 if (renderer != null) {
-                    renderer.setDesign(currentDesign);
+                    renderer.updateFurniture(furniture);
                 }
 
-                // Notify app that design changed
-                if (app != null) {
-                    app.setCurrentDesign(currentDesign);
-                }
-
-                notifyListeners();
+                // Tell the other views about the change
+                DesignEventBus.getInstance().post(null, DesignChange.furnitureMoved(currentDesign, furniture));
             }
         } catch (Exception e) {
             System.err.println("Error in rotateFurniture: " + e.getMessage());
@@ -0,0 +1,229 @@
+package main.java.com.furniview3d.controller;
+
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Furniture;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * What changed in a design since a listener last heard about it. Changes posted to the
+ * DesignEventBus are merged into one DesignChange per listener, so a listener that was not
+ * showing while an item was dragged sees it once as moved, and an item added and removed
+ * again in between is not reported at all.
+ */
+public class DesignChange {
+    private Design design;
+    private boolean replaced;       // a different design, or everything must be read again
+    private boolean roomChanged;
+    private boolean detailsChanged; // name or description
+    private final Set<Furniture> added = newFurnitureSet();
+    private final Set<Furniture> removed = newFurnitureSet();
+    private final Set<Furniture> moved = newFurnitureSet();
+    private final Set<Furniture> restyled = newFurnitureSet();
+
+    private DesignChange(Design design) {
+        this.design = design;
+    }
+
+    /**
+     * Reports that another design is shown, or that the design may have changed in any way
+     * @param design The design now shown, or null
+     * @return The change
+     */
+    public static DesignChange replaced(Design design) {
+        DesignChange change = new DesignChange(design);
+        change.replaced = true;
+        return change;
+    }
+
+    /**
+     * Reports a change to the room's size, shape, name or colors
+     * @param design The design whose room changed
+     * @return The change
+     */
+    public static DesignChange roomChanged(Design design) {
+        DesignChange change = new DesignChange(design);
+        change.roomChanged = true;
+        return change;
+    }
+
+    /**
+     * Reports a change to the design's name or description
+     * @param design The design that changed
+     * @return The change
+     */
+    public static DesignChange detailsChanged(Design design) {
+        DesignChange change = new DesignChange(design);
+        change.detailsChanged = true;
+        return change;
+    }
+
+    public static DesignChange furnitureAdded(Design design, Furniture furniture) {
+        DesignChange change = new DesignChange(design);
+        change.added.add(furniture);
+        return change;
+    }
+
+    public static DesignChange furnitureRemoved(Design design, Furniture furniture) {
+        DesignChange change = new DesignChange(design);
+        change.removed.add(furniture);
+        return change;
+    }
+
+    /**
+     * Reports that an item was moved, rotated or resized
+     * @param design The design containing the item
+     * @param furniture The item
+     * @return The change
+     */
+    public static DesignChange furnitureMoved(Design design, Furniture furniture) {
+        DesignChange change = new DesignChange(design);
+        change.moved.add(furniture);
+        return change;
+    }
+
+    /**
+     * Reports that an item's color or shading changed
+     * @param design The design containing the item
+     * @param furniture The item
+     * @return The change
+     */
+    public static DesignChange furnitureRestyled(Design design, Furniture furniture) {
+        DesignChange change = new DesignChange(design);
+        change.restyled.add(furniture);
+        return change;
+    }
+
+    public Design getDesign() {
+        return design;
+    }
+
+    /**
+     * Checks if the listener has to read the whole design again, because another design is
+     * shown or the change was not described in detail. The furniture sets are empty then.
+     * @return true for a full update
+     */
+    public boolean isReplaced() {
+        return replaced;
+    }
+
+    public boolean isRoomChanged() {
+        return roomChanged;
+    }
+
+    public boolean isDetailsChanged() {
+        return detailsChanged;
+    }
+
+    public Set<Furniture> getAdded() {
+        return Collections.unmodifiableSet(added);
+    }
+
+    public Set<Furniture> getRemoved() {
+        return Collections.unmodifiableSet(removed);
+    }
+
+    public Set<Furniture> getMoved() {
+        return Collections.unmodifiableSet(moved);
+    }
+
+    public Set<Furniture> getRestyled() {
+        return Collections.unmodifiableSet(restyled);
+    }
+
+    /**
+     * Checks if furniture was added or removed, which changes the item count
+     * @return true if the set of items changed
+     */
+    public boolean isFurnitureListChanged() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+
+    /**
+     * Checks if an item is part of the change
+     * @param furniture The item
+     * @return true if it was added, removed, moved or restyled, or the whole design changed
+     */
+    public boolean affects(Furniture furniture) {
+        return replaced || added.contains(furniture) || removed.contains(furniture)
+                || moved.contains(furniture) || restyled.contains(furniture);
+    }
+
+    /**
+     * Creates a copy that can be merged with later changes without affecting this one
+     * @return The copy
+     */
+    DesignChange copy() {
+        DesignChange copy = new DesignChange(design);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Folds a later change into this one
+     * @param later The change that happened after this one
+     */
+    void merge(DesignChange later) {
+        if (later.replaced || (later.design != design && !replaced)) {
+            // Details of another design mean nothing to a listener showing this one
+            design = later.design;
+            replaced = true;
+            roomChanged = false;
+            detailsChanged = false;
+            added.clear();
+            removed.clear();
+            moved.clear();
+            restyled.clear();
+            return;
+        }
+        if (replaced) {
+            return; // Already reading everything again; late details of another design are dropped
+        }
+
+        roomChanged |= later.roomChanged;
+        detailsChanged |= later.detailsChanged;
+        for (Furniture furniture : later.added) {
+            if (removed.remove(furniture)) {
+                moved.add(furniture); // Removed and put back, possibly somewhere else
+            } else {
+                added.add(furniture);
+            }
+        }
+        for (Furniture furniture : later.removed) {
+            moved.remove(furniture);
+            restyled.remove(furniture);
+            if (!added.remove(furniture)) {
+                removed.add(furniture); // Items added and removed again are never reported
+            }
+        }
+        for (Furniture furniture : later.moved) {
+            if (!added.contains(furniture)) {
+                moved.add(furniture);
+            }
+        }
+        for (Furniture furniture : later.restyled) {
+            if (!added.contains(furniture)) {
+                restyled.add(furniture);
+            }
+        }
+    }
+
+    private static Set<Furniture> newFurnitureSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    @Override
+    public String toString() {
+        return "DesignChange{" +
+                "replaced=" + replaced +
+                ", roomChanged=" + roomChanged +
+                ", detailsChanged=" + detailsChanged +
+                ", added=" + added.size() +
+                ", removed=" + removed.size() +
+                ", moved=" + moved.size() +
+                ", restyled=" + restyled.size() +
+                '}';
+    }
+}
\ No newline at end of file
@@ -236,16 +236,7 @@ public class DesignController {
      * @return true if the design has been modified, false otherwise
      */
     public boolean isDesignModified() {
-        if (lastSavedFileName == null) {
-            return true; // Not saved yet
-        }
-
-        try {
-            Design savedDesign = FileManager.loadDesign(lastSavedFileName);
-            return !savedDesign.getLastModified().equals(currentDesign.getLastModified());
-        } catch (Exception e) {
-            return true; // Error loading saved design, assume modified
-        }
+        return currentDesign.isModified();
     }
 
     /**
@@ -0,0 +1,165 @@
+package main.java.com.furniview3d.controller;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers design changes to the panels and services that show or save the design.
+ * Changes are not delivered as they are posted: each listener collects them in one merged
+ * DesignChange, which is handed over at most once per frame on the event dispatch thread.
+ * Listeners tied to a component only receive changes while the component is showing; a panel
+ * that is shown again gets everything it missed as a single change.
+ */
+public class DesignEventBus {
+    public static final int FRAME_MS = 16;
+
+    private static DesignEventBus instance;
+
+    // Accessed on the event dispatch thread only
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final Timer frameTimer;
+
+    /**
+     * Interface for design change listeners, always called on the event dispatch thread
+     */
+    public interface Listener {
+        void onDesignChange(DesignChange change);
+    }
+
+    /**
+     * A listener with the changes it has not received yet
+     */
+    private static class Subscriber {
+        private final Component component; // only delivered to while showing, or null for always
+        private final Listener listener;
+        private final HierarchyListener showingListener;
+        private DesignChange pending;
+
+        Subscriber(Component component, Listener listener, HierarchyListener showingListener) {
+            this.component = component;
+            this.listener = listener;
+            this.showingListener = showingListener;
+        }
+
+        boolean isShowing() {
+            return component == null || component.isShowing();
+        }
+    }
+
+    // Private constructor for singleton pattern
+    private DesignEventBus() {
+        frameTimer = new Timer(FRAME_MS, e -> flush());
+        frameTimer.setRepeats(false);
+    }
+
+    // Singleton instance getter
+    public static synchronized DesignEventBus getInstance() {
+        if (instance == null) {
+            instance = new DesignEventBus();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a listener. May be called on any thread.
+     * @param component The panel the listener updates; changes are held back while it is not
+     *                  showing. Null to receive changes whether anything is showing or not.
+     * @param listener The listener
+     */
+    public void subscribe(Component component, Listener listener) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> subscribe(component, listener));
+            return;
+        }
+
+        HierarchyListener showingListener = null;
+        if (component != null) {
+            showingListener = e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && component.isShowing()) {
+                    scheduleFlush(); // Catch up with what was missed while hidden
+                }
+            };
+            component.addHierarchyListener(showingListener);
+        }
+        subscribers.add(new Subscriber(component, listener, showingListener));
+    }
+
+    /**
+     * Removes a listener; changes it has not received yet are dropped
+     * @param listener The listener
+     */
+    public void unsubscribe(Listener listener) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> unsubscribe(listener));
+            return;
+        }
+
+        subscribers.removeIf(subscriber -> {
+            if (subscriber.listener != listener) {
+                return false;
+            }
+            if (subscriber.component != null) {
+                subscriber.component.removeHierarchyListener(subscriber.showingListener);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Queues a change for every listener but the one that made it. May be called on any thread.
+     * @param source The listener that made the change and has already applied it, or null
+     * @param change The change
+     */
+    public void post(Object source, DesignChange change) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> post(source, change));
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.listener == source) {
+                continue;
+            }
+            if (subscriber.pending == null) {
+                subscriber.pending = change.copy();
+            } else {
+                subscriber.pending.merge(change);
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Delivers the queued changes to every showing listener now instead of on the next frame.
+     * Must be called on the event dispatch thread.
+     */
+    public void flush() {
+        frameTimer.stop();
+
+        // Listeners may subscribe or post while being called
+        for (Subscriber subscriber : subscribers.toArray(new Subscriber[0])) {
+            DesignChange change = subscriber.pending;
+            if (change == null || !subscriber.isShowing()) {
+                continue;
+            }
+            subscriber.pending = null;
+            try {
+                subscriber.listener.onDesignChange(change);
+            } catch (RuntimeException e) {
+                System.err.println("Error delivering design change: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,48 @@
 package main.java.com.furniview3d.controller;
 
 import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.util.CatalogStore;
+import main.java.com.furniview3d.util.CatalogTransfer;
 
+import javax.swing.SwingUtilities;
 import java.awt.Color;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class FurnitureController {
 
     private static final String CATALOG_FILE = "furniture_catalog.dat";
+    private static final String CATALOG_LOG_FILE = "furniture_catalog.log"; // changes since the catalog file was written
+
+    // Runs searches one after another, so a burst of keystrokes never occupies more than one core
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Runs imports and exports one after another, so two imports never interleave their batches
+    private static final ExecutorService TRANSFER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-transfer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private List<Furniture> furnitureCatalog;
-    private Map<String, List<Furniture>> furnitureByType;
+    private final CatalogIndex catalogIndex; // IDs, types, materials and search text of the catalog
+    private final CatalogStore catalogStore;
     private List<FurnitureChangeListener> listeners;
 
     // Default furniture types
@@ -28,14 +52,10 @@ public class FurnitureController {
 
     public FurnitureController() {
         furnitureCatalog = new ArrayList<>();
-        furnitureByType = new HashMap<>();
+        catalogIndex = new CatalogIndex();
+        catalogStore = new CatalogStore(Paths.get(CATALOG_FILE), Paths.get(CATALOG_LOG_FILE));
         listeners = new ArrayList<>();
 
-        // Initialize the type lists
-        for (String type : DEFAULT_TYPES) {
-            furnitureByType.put(type, new ArrayList<>());
-        }
-
         // Load the furniture catalog from file
         loadCatalog();
 
@@ -47,34 +67,35 @@ public class FurnitureController {
 
     private void initializeDefaultFurniture() {
         // Add some default furniture to the catalog
+        List<Furniture> defaults = new ArrayList<>();
 
         // Chairs
-        addFurniture(createFurniture("Dining Chair", "Chair", 0.5, 0.5, 0.9,
+        defaults.add(createFurniture("Dining Chair", "Chair", 0.5, 0.5, 0.9,
                 new Color(120, 81, 45), "wood"));
-        addFurniture(createFurniture("Office Chair", "Chair", 0.6, 0.6, 1.0,
+        defaults.add(createFurniture("Office Chair", "Chair", 0.6, 0.6, 1.0,
                 new Color(40, 40, 40), "leather"));
 
         // Tables
-        addFurniture(createFurniture("Dining Table", "Table", 1.6, 0.9, 0.75,
+        defaults.add(createFurniture("Dining Table", "Table", 1.6, 0.9, 0.75,
                 new Color(110, 85, 60), "wood"));
-        addFurniture(createFurniture("Coffee Table", "Table", 1.2, 0.6, 0.45,
+        defaults.add(createFurniture("Coffee Table", "Table", 1.2, 0.6, 0.45,
                 new Color(100, 70, 40), "wood"));
 
         // Sofas
-        addFurniture(createFurniture("3-Seater Sofa", "Sofa", 2.0, 0.9, 0.8,
+        defaults.add(createFurniture("3-Seater Sofa", "Sofa", 2.0, 0.9, 0.8,
                 new Color(70, 70, 140), "fabric"));
-        addFurniture(createFurniture("Loveseat", "Sofa", 1.4, 0.9, 0.8,
+        defaults.add(createFurniture("Loveseat", "Sofa", 1.4, 0.9, 0.8,
                 new Color(170, 80, 90), "fabric"));
 
         // Beds
-        addFurniture(createFurniture("Queen Bed", "Bed", 1.6, 2.0, 0.5,
+        defaults.add(createFurniture("Queen Bed", "Bed", 1.6, 2.0, 0.5,
                 new Color(160, 120, 80), "wood"));
 
         // Cabinets
-        addFurniture(createFurniture("TV Cabinet", "Cabinet", 1.8, 0.5, 0.6,
+        defaults.add(createFurniture("TV Cabinet", "Cabinet", 1.8, 0.5, 0.6,
                 new Color(100, 90, 80), "wood"));
 
-        saveCatalog();
+        addAllFurniture(defaults);
     }
 
     public Furniture createFurniture(String name, String type, double width, double length,
@@ -85,57 +106,146 @@ public class FurnitureController {
         return furniture;
     }
 
+    /**
+     * Gets the catalog without copying it
+     * @return A read-only view of the catalog
+     */
     public List<Furniture> getFurnitureCatalog() {
-        return new ArrayList<>(furnitureCatalog);
+        return Collections.unmodifiableList(furnitureCatalog);
     }
 
     public List<Furniture> getFurnitureByType(String type) {
-        List<Furniture> result = furnitureByType.get(type);
-        if (result == null) {
-            return new ArrayList<>();
-        }
-        return new ArrayList<>(result);
+        return catalogIndex.getByType(type);
     }
 
     public String[] getFurnitureTypes() {
-        return furnitureByType.keySet().toArray(new String[0]);
+        Set<String> types = new LinkedHashSet<>();
+        Collections.addAll(types, DEFAULT_TYPES);
+        types.addAll(catalogIndex.getTypes());
+        return types.toArray(new String[0]);
+    }
+
+    /**
+     * Gets the materials used in the catalog
+     * @return The materials in lower case
+     */
+    public String[] getFurnitureMaterials() {
+        return catalogIndex.getMaterials().toArray(new String[0]);
     }
 
     public Furniture getFurnitureById(String id) {
-        for (Furniture furniture : furnitureCatalog) {
-            if (furniture.getId().equals(id)) {
-                return furniture;
+        return catalogIndex.get(id);
+    }
+
+    /**
+     * Searches the catalog by name, type and material
+     * @param query Words to look for in any case; words shorter than three letters match the
+     *              start of a word, longer ones match anywhere
+     * @param type Only furniture of this type, or null for all types
+     * @param material Only furniture of this material, or null for all materials
+     * @return The matching furniture, best matches first, as a read-only list
+     */
+    public List<Furniture> searchFurniture(String query, String type, String material) {
+        return catalogIndex.search(query, type, material);
+    }
+
+    /**
+     * Searches the catalog on a background thread
+     * @param query Words to look for, as for searchFurniture
+     * @param type Only furniture of this type, or null for all types
+     * @param material Only furniture of this material, or null for all materials
+     * @param previous The result of the search this one replaces, or null; searches that only
+     *                 narrow it down start from it instead of the whole catalog
+     * @return A future completed with the matching furniture; cancelling it before the search
+     *         has started skips the search
+     */
+    public CompletableFuture<CatalogIndex.SearchResult> searchFurnitureAsync(String query, String type, String material,
+                                                                             CatalogIndex.SearchResult previous) {
+        CompletableFuture<CatalogIndex.SearchResult> result = new CompletableFuture<>();
+        SEARCH_EXECUTOR.execute(() -> {
+            if (result.isDone()) {
+                return; // Superseded while waiting
             }
-        }
-        return null;
+            try {
+                result.complete(catalogIndex.search(query, type, material, previous));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
     }
 
     public void addFurniture(Furniture furniture) {
         // Add to main catalog
         furnitureCatalog.add(furniture);
 
-        // Add to type-specific list
-        String type = furniture.getType();
-        if (!furnitureByType.containsKey(type)) {
-            furnitureByType.put(type, new ArrayList<>());
-        }
-        furnitureByType.get(type).add(furniture);
+        // Add to the index
+        catalogIndex.add(furniture);
+
+        // Save the new item to file
+        saveChanges(Collections.singletonList(furniture));
 
         // Notify listeners
         notifyListeners();
     }
 
+    /**
+     * Adds many items at once, saving them in a single write and notifying listeners once.
+     * An item with the ID of one already in the catalog updates that item instead.
+     * @param furnitureList The items to add
+     */
+    public void addAllFurniture(List<Furniture> furnitureList) {
+        addAllFurniture(furnitureList, true);
+    }
+
+    // An import compacts and notifies listeners once, after the last of its batches
+    private void addAllFurniture(List<Furniture> furnitureList, boolean isImport) {
+        List<Furniture> changed = new ArrayList<>(furnitureList.size());
+        for (Furniture furniture : furnitureList) {
+            Furniture existing = catalogIndex.get(furniture.getId());
+            if (existing == null) {
+                furnitureCatalog.add(furniture);
+                catalogIndex.add(furniture);
+                changed.add(furniture);
+            } else {
+                // Update in place, like updateFurniture, so the item keeps its place in the catalog
+                existing.setName(furniture.getName());
+                existing.setType(furniture.getType());
+                existing.setWidth(furniture.getWidth());
+                existing.setLength(furniture.getLength());
+                existing.setHeight(furniture.getHeight());
+                existing.setColor(furniture.getColor());
+                existing.setMaterial(furniture.getMaterial());
+                existing.setImagePath(furniture.getImagePath());
+                existing.setModelPath(furniture.getModelPath());
+                catalogIndex.update(existing);
+                changed.add(existing);
+            }
+        }
+
+        logChanges(changed);
+        if (!isImport) {
+            compactIfNeeded();
+            notifyListeners();
+        }
+    }
+
     public boolean removeFurniture(String furnitureId) {
         Furniture furniture = getFurnitureById(furnitureId);
         if (furniture != null) {
             // Remove from main catalog
             furnitureCatalog.remove(furniture);
 
-            // Remove from type-specific list
-            List<Furniture> typeList = furnitureByType.get(furniture.getType());
-            if (typeList != null) {
-                typeList.remove(furniture);
+            // Remove from the index
+            catalogIndex.remove(furnitureId);
+
+            // Save the removal to file
+            try {
+                catalogStore.remove(furnitureId);
+            } catch (IOException e) {
+                System.err.println("Error saving furniture catalog: " + e.getMessage());
             }
+            compactIfNeeded();
 
             // Notify listeners
             notifyListeners();
@@ -166,9 +276,6 @@ public class FurnitureController {
                                 Color color, String material) {
         Furniture furniture = getFurnitureById(furnitureId);
         if (furniture != null) {
-            // Store the old type for list updates
-            String oldType = furniture.getType();
-
             // Update properties
             furniture.setName(name);
             furniture.setType(type);
@@ -178,67 +285,169 @@ public class FurnitureController {
             furniture.setColor(color);
             furniture.setMaterial(material);
 
-            // If type changed, update the type-based lists
-            if (!oldType.equals(type)) {
-                // Remove from old type list
-                List<Furniture> oldTypeList = furnitureByType.get(oldType);
-                if (oldTypeList != null) {
-                    oldTypeList.remove(furniture);
-                }
-
-                // Add to new type list
-                if (!furnitureByType.containsKey(type)) {
-                    furnitureByType.put(type, new ArrayList<>());
-                }
-                furnitureByType.get(type).add(furniture);
-            }
+            // Index the new name, type and material
+            catalogIndex.update(furniture);
 
             // Save changes to file
-            saveCatalog();
+            saveChanges(Collections.singletonList(furniture));
 
             // Notify listeners
             notifyListeners();
         }
     }
 
+    /**
+     * Writes the whole catalog to file, replacing the log of changes made since the last write.
+     * Changes are saved as they are made, so this is only needed to compact the log.
+     */
     public void saveCatalog() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(CATALOG_FILE))) {
-            out.writeObject(furnitureCatalog);
+        try {
+            catalogStore.writeSnapshot(furnitureCatalog);
         } catch (IOException e) {
             System.err.println("Error saving furniture catalog: " + e.getMessage());
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Imports furniture from a CSV or JSON Lines file on a background thread. Rows are read one
+     * at a time and added in batches on the event dispatch thread, so the file is never held in
+     * memory. Items with the ID of one already in the catalog update it. Listeners are notified
+     * once, when the import ends. Cancelling the future stops the import; batches already added
+     * stay in the catalog.
+     * @param file The file; see CatalogTransfer for the columns
+     * @param listener Receives progress on the event dispatch thread (may be null)
+     * @return A future completed with the number of items imported and the rows rejected
+     */
+    public CompletableFuture<CatalogTransfer.ImportResult> importCatalogAsync(Path file, TransferProgressListener listener) {
+        CompletableFuture<CatalogTransfer.ImportResult> result = new CompletableFuture<>();
+        TRANSFER_EXECUTOR.execute(() -> {
+            if (result.isDone()) {
+                return; // Cancelled while waiting
+            }
+            int[] lastPercent = {-1};
+            CatalogTransfer.ImportResult imported = null;
+            Exception error = null;
+            try {
+                imported = CatalogTransfer.importCatalog(file,
+                        batch -> runOnEventThread(() -> {
+                            if (!result.isCancelled()) {
+                                addAllFurniture(batch, true);
+                            }
+                        }),
+                        (bytesRead, totalBytes) -> {
+                            if (result.isCancelled()) {
+                                throw new InterruptedIOException("Import of " + file.getFileName() + " was cancelled");
+                            }
+                            reportProgress(listener, bytesRead, totalBytes, lastPercent);
+                        });
+            } catch (Exception e) {
+                error = e;
+            }
+
+            // Batches already added stay in the catalog, so this is done whether or not the import failed
+            try {
+                finishImport();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(imported);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Exports the catalog to a CSV or JSON Lines file on a background thread. Must be called on
+     * the event dispatch thread; the catalog is exported as it was at the time of the call.
+     * @param file The file; .csv files are written as CSV, anything else as JSON Lines
+     * @return A future completed with the number of items exported
+     */
+    public CompletableFuture<Integer> exportCatalogAsync(Path file) {
+        List<Furniture> catalog = new ArrayList<>(furnitureCatalog);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        TRANSFER_EXECUTOR.execute(() -> {
+            try {
+                CatalogTransfer.exportCatalog(file, catalog);
+                result.complete(catalog.size());
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Logs added or changed items as small records instead of rewriting the catalog file
+    private void saveChanges(Collection<Furniture> changed) {
+        logChanges(changed);
+        compactIfNeeded();
+    }
+
+    private void logChanges(Collection<Furniture> changed) {
+        try {
+            catalogStore.putAll(changed);
+        } catch (IOException e) {
+            System.err.println("Error saving furniture catalog: " + e.getMessage());
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (catalogStore.needsCompaction()) {
+            saveCatalog();
+        }
+    }
+
+    /**
+     * Notifies listeners of the imported furniture and compacts the log the import grew. Runs
+     * on the transfer thread, so only copying the catalog and its items happens on the event
+     * dispatch thread; the items are copied because they can be edited while they are written.
+     */
+    private void finishImport() throws IOException {
+        List<Furniture> snapshot = new ArrayList<>();
+        boolean[] compact = {false};
+        runOnEventThread(() -> {
+            notifyListeners();
+            if (catalogStore.needsCompaction()) {
+                catalogStore.beginSnapshot();
+                for (Furniture furniture : furnitureCatalog) {
+                    snapshot.add(furniture.copy());
+                }
+                compact[0] = true;
+            }
+        });
+
+        if (compact[0]) {
+            try {
+                catalogStore.writeSnapshot(snapshot);
+            } catch (IOException e) {
+                System.err.println("Error saving furniture catalog: " + e.getMessage());
+            }
+        }
+    }
+
     private void loadCatalog() {
-        File file = new File(CATALOG_FILE);
-        if (!file.exists()) {
+        if (!catalogStore.exists()) {
             System.out.println("catalog file not found");
             return; // No catalog file yet
         }
 
         System.out.println("catalog file found");
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(CATALOG_FILE))) {
-            furnitureCatalog = (List<Furniture>) in.readObject();
+        try {
+            furnitureCatalog = catalogStore.load();
 
-            // Rebuild the type map
-            furnitureByType.clear();
-            for (String type : DEFAULT_TYPES) {
-                furnitureByType.put(type, new ArrayList<>());
-            }
-
-            for (Furniture furniture : furnitureCatalog) {
-                String type = furniture.getType();
-                if (!furnitureByType.containsKey(type)) {
-                    furnitureByType.put(type, new ArrayList<>());
-                }
-                furnitureByType.get(type).add(furniture);
-            }
+            // Rebuild the index
+            catalogIndex.rebuild(furnitureCatalog);
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error loading furniture catalog: " + e.getMessage());
             // Start with an empty catalog
             furnitureCatalog = new ArrayList<>();
+            catalogIndex.clear();
         }
     }
 
@@ -259,4 +468,40 @@ public class FurnitureController {
     public interface FurnitureChangeListener {
         void onFurnitureCatalogChanged();
     }
+
+    /**
+     * Interface for receiving import progress, always called on the event dispatch thread
+     */
+    public interface TransferProgressListener {
+        void progressChanged(int percent);
+    }
+
+    private static void reportProgress(TransferProgressListener listener, long bytesRead, long totalBytes,
+                                       int[] lastPercent) {
+        if (listener == null || totalBytes <= 0) {
+            return;
+        }
+        int percent = (int) Math.min(100, bytesRead * 100 / totalBytes);
+        if (percent == lastPercent[0]) {
+            return; // Only publish whole-percent steps
+        }
+        lastPercent[0] = percent;
+        SwingUtilities.invokeLater(() -> listener.progressChanged(percent));
+    }
+
+    // Runs catalog changes made by a background thread on the event dispatch thread, like all others
+    private static void runOnEventThread(Runnable runnable) throws IOException {
+        if (SwingUtilities.isEventDispatchThread()) {
+            runnable.run();
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(runnable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while adding imported furniture");
+        } catch (InvocationTargetException e) {
+            throw new IOException("Error adding imported furniture: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
 }
\ No newline at end of file
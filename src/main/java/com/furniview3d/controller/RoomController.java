@@ -69,10 +69,8 @@ public class RoomController {
         room.setLength(length);
         room.setHeight(height);
 
-        // Notify app that design has changed
-        if (app != null) {
-            app.setCurrentDesign(currentDesign);
-        }
+        // Tell the views about the change
+        DesignEventBus.getInstance().post(null, DesignChange.roomChanged(currentDesign));
 
         notifyListeners();
     }
@@ -89,10 +87,8 @@ public class RoomController {
         Room room = currentDesign.getRoom();
         room.setShape(shape);
 
-        // Notify app that design has changed
-        if (app != null) {
-            app.setCurrentDesign(currentDesign);
-        }
+        // Tell the views about the change
+        DesignEventBus.getInstance().post(null, DesignChange.roomChanged(currentDesign));
 
         notifyListeners();
     }
@@ -105,10 +101,8 @@ public class RoomController {
         Room room = currentDesign.getRoom();
         room.setName(name);
 
-        // Notify app that design has changed
-        if (app != null) {
-            app.setCurrentDesign(currentDesign);
-        }
+        // Tell the views about the change
+        DesignEventBus.getInstance().post(null, DesignChange.roomChanged(currentDesign));
 
         notifyListeners();
     }
@@ -124,10 +118,8 @@ public class RoomController {
                 Room room = currentDesign.getRoom();
                 room.setColorScheme(scheme);
 
-                // Notify app that design has changed
-                if (app != null) {
-                    app.setCurrentDesign(currentDesign);
-                }
+                // Tell the views about the change
+                DesignEventBus.getInstance().post(null, DesignChange.roomChanged(currentDesign));
 
                 notifyListeners();
                 return true;
@@ -151,10 +143,8 @@ public class RoomController {
         scheme.setCeilingColor(ceilingColor);
         scheme.setAccentColor(accentColor);
 
-        // Notify app that design has changed
-        if (app != null) {
-            app.setCurrentDesign(currentDesign);
-        }
+        // Tell the views about the change
+        DesignEventBus.getInstance().post(null, DesignChange.roomChanged(currentDesign));
 
         notifyListeners();
     }
@@ -183,10 +173,8 @@ public class RoomController {
         Room room = new Room();
         currentDesign.setRoom(room);
 
-        // Notify app that design has changed
-        if (app != null) {
-            app.setCurrentDesign(currentDesign);
-        }
+        // Tell the views about the change
+        DesignEventBus.getInstance().post(null, DesignChange.roomChanged(currentDesign));
 
         notifyListeners();
         return room;
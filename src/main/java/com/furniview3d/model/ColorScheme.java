@@ -16,6 +16,7 @@ public class ColorScheme implements Serializable {
     private Color floorColor;
     private Color ceilingColor;
     private Color accentColor;
+    private transient Room owner; // room using this scheme
 
     // Constructors
     public ColorScheme() {
@@ -36,6 +37,13 @@ public class ColorScheme implements Serializable {
         this.accentColor = accentColor;
     }
 
+    // Restores a previously saved color scheme with its original ID
+    public ColorScheme(String id, String name, Color wallColor, Color floorColor, Color ceilingColor,
+                       Color accentColor) {
+        this(name, wallColor, floorColor, ceilingColor, accentColor);
+        this.id = id;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -47,6 +55,7 @@ public class ColorScheme implements Serializable {
 
     public void setName(String name) {
         this.name = name;
+        modified();
     }
 
     public Color getWallColor() {
@@ -55,6 +64,7 @@ public class ColorScheme implements Serializable {
 
     public void setWallColor(Color wallColor) {
         this.wallColor = wallColor;
+        modified();
     }
 
     public Color getFloorColor() {
@@ -63,6 +73,7 @@ public class ColorScheme implements Serializable {
 
     public void setFloorColor(Color floorColor) {
         this.floorColor = floorColor;
+        modified();
     }
 
     public Color getCeilingColor() {
@@ -71,6 +82,7 @@ public class ColorScheme implements Serializable {
 
     public void setCeilingColor(Color ceilingColor) {
         this.ceilingColor = ceilingColor;
+        modified();
     }
 
     public Color getAccentColor() {
@@ -79,6 +91,25 @@ public class ColorScheme implements Serializable {
 
     public void setAccentColor(Color accentColor) {
         this.accentColor = accentColor;
+        modified();
+    }
+
+    void setOwner(Room owner) {
+        this.owner = owner;
+    }
+
+    private void modified() {
+        if (owner != null) {
+            owner.modified();
+        }
+    }
+
+    /**
+     * Creates a copy of the color scheme with the same ID that belongs to no room
+     * @return The copy
+     */
+    public ColorScheme copy() {
+        return new ColorScheme(id, name, wallColor, floorColor, ceilingColor, accentColor);
     }
 
     // Utility methods
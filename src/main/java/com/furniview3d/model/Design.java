@@ -1,5 +1,7 @@
 package main.java.com.furniview3d.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -18,6 +20,10 @@ public class Design implements Serializable {
     private LocalDateTime lastModified;
     private String designerId; // ID of the designer who created this design
 
+    // Edit tracking, not saved with the design
+    private transient long revision;
+    private transient long savedRevision = -1; // revision last written to disk, -1 if never saved
+
     // Constructors
     public Design() {
         this.id = UUID.randomUUID().toString();
@@ -28,6 +34,7 @@ public class Design implements Serializable {
         this.createdAt = LocalDateTime.now();
         this.lastModified = LocalDateTime.now();
         this.designerId = "";
+        attach(room);
     }
 
     public Design(String name, String description, Room room, String designerId) {
@@ -39,6 +46,22 @@ public class Design implements Serializable {
         this.createdAt = LocalDateTime.now();
         this.lastModified = LocalDateTime.now();
         this.designerId = designerId;
+        attach(room);
+    }
+
+    // Restores a previously saved design with its original ID and timestamps
+    public Design(String id, String name, String description, Room room, List<Furniture> furnitureList,
+                  LocalDateTime createdAt, LocalDateTime lastModified, String designerId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.room = room;
+        this.furnitureList = furnitureList;
+        this.createdAt = createdAt;
+        this.lastModified = lastModified;
+        this.designerId = designerId;
+        attach(room);
+        attachAll(furnitureList);
     }
 
     // Getters and Setters
@@ -53,6 +76,7 @@ public class Design implements Serializable {
     public void setName(String name) {
         this.name = name;
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public String getDescription() {
@@ -62,6 +86,7 @@ public class Design implements Serializable {
     public void setDescription(String description) {
         this.description = description;
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public Room getRoom() {
@@ -70,7 +95,9 @@ public class Design implements Serializable {
 
     public void setRoom(Room room) {
         this.room = room;
+        attach(room);
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public List<Furniture> getFurnitureList() {
@@ -79,7 +106,9 @@ public class Design implements Serializable {
 
     public void setFurnitureList(List<Furniture> furnitureList) {
         this.furnitureList = furnitureList;
+        attachAll(furnitureList);
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public LocalDateTime getCreatedAt() {
@@ -96,22 +125,35 @@ public class Design implements Serializable {
 
     public void setDesignerId(String designerId) {
         this.designerId = designerId;
+        modified();
     }
 
     // Utility methods
     public void addFurniture(Furniture furniture) {
         furnitureList.add(furniture);
+        attach(furniture);
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public void removeFurniture(Furniture furniture) {
-        furnitureList.remove(furniture);
+        if (furnitureList.remove(furniture)) {
+            detach(furniture);
+        }
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public void removeFurniture(String furnitureId) {
-        furnitureList.removeIf(f -> f.getId().equals(furnitureId));
+        furnitureList.removeIf(f -> {
+            if (f.getId().equals(furnitureId)) {
+                detach(f);
+                return true;
+            }
+            return false;
+        });
         this.lastModified = LocalDateTime.now();
+        modified();
     }
 
     public Furniture getFurnitureById(String furnitureId) {
@@ -125,6 +167,86 @@ public class Design implements Serializable {
         return furnitureList.size();
     }
 
+    /**
+     * Gets a counter that advances with every change made through the setters of the design,
+     * its room, color scheme or furniture
+     * @return The current revision
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Records that the design was written to disk as it was at the given revision
+     * @param revision The revision that was saved, from getRevision() when the save started
+     */
+    public void markSaved(long revision) {
+        this.savedRevision = revision;
+    }
+
+    /**
+     * Checks if the design has changed since it was last saved or loaded
+     * @return true if there are unsaved changes or the design was never saved
+     */
+    public boolean isModified() {
+        return revision != savedRevision;
+    }
+
+    void modified() {
+        revision++;
+    }
+
+    /**
+     * Creates a copy of the design, its room and furniture that shares no objects with it.
+     * The copy has the same IDs and revision, so it can be saved in place of the design.
+     * @return The copy
+     */
+    public Design copy() {
+        List<Furniture> furnitureCopies = new ArrayList<>(furnitureList.size());
+        for (Furniture furniture : furnitureList) {
+            furnitureCopies.add(furniture.copy());
+        }
+        Design copy = new Design(id, name, description, room != null ? room.copy() : null, furnitureCopies,
+                createdAt, lastModified, designerId);
+        copy.revision = revision;
+        copy.savedRevision = savedRevision;
+        return copy;
+    }
+
+    private void attach(Room room) {
+        if (room != null) {
+            room.setOwner(this);
+        }
+    }
+
+    private void attach(Furniture furniture) {
+        if (furniture != null) {
+            furniture.setOwner(this);
+        }
+    }
+
+    private void attachAll(List<Furniture> furniture) {
+        if (furniture != null) {
+            for (Furniture item : furniture) {
+                attach(item);
+            }
+        }
+    }
+
+    private void detach(Furniture furniture) {
+        if (furniture != null && furniture.getOwner() == this) {
+            furniture.setOwner(null);
+        }
+    }
+
+    // Re-links the room and furniture after a design saved with Java serialization is read
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        savedRevision = -1;
+        attach(room);
+        attachAll(furnitureList);
+    }
+
     @Override
     public String toString() {
         return "Design{" +
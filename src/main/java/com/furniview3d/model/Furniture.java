@@ -19,6 +19,7 @@ public class Furniture implements Serializable {
     private double posX; // X position in the room
     private double posY; // Y position in the room
     private double rotation; // rotation in degrees
+    private transient Design owner; // design this item has been added to
 
     // Constructors
     public Furniture() {
@@ -54,6 +55,25 @@ public class Furniture implements Serializable {
         this.rotation = 0.0;
     }
 
+    // Restores a previously saved furniture item with its original ID and placement
+    public Furniture(String id, String name, String type, double width, double length, double height,
+                     Color color, String material, String imagePath, String modelPath,
+                     double posX, double posY, double rotation) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.width = width;
+        this.length = length;
+        this.height = height;
+        this.color = color;
+        this.material = material;
+        this.imagePath = imagePath;
+        this.modelPath = modelPath;
+        this.posX = posX;
+        this.posY = posY;
+        this.rotation = rotation;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -65,6 +85,7 @@ public class Furniture implements Serializable {
 
     public void setName(String name) {
         this.name = name;
+        modified();
     }
 
     public String getType() {
@@ -73,6 +94,7 @@ public class Furniture implements Serializable {
 
     public void setType(String type) {
         this.type = type;
+        modified();
     }
 
     public double getWidth() {
@@ -81,6 +103,7 @@ public class Furniture implements Serializable {
 
     public void setWidth(double width) {
         this.width = width;
+        modified();
     }
 
     public double getLength() {
@@ -89,6 +112,7 @@ public class Furniture implements Serializable {
 
     public void setLength(double length) {
         this.length = length;
+        modified();
     }
 
     public double getHeight() {
@@ -97,6 +121,7 @@ public class Furniture implements Serializable {
 
     public void setHeight(double height) {
         this.height = height;
+        modified();
     }
 
     public Color getColor() {
@@ -105,6 +130,7 @@ public class Furniture implements Serializable {
 
     public void setColor(Color color) {
         this.color = color;
+        modified();
     }
 
     public String getMaterial() {
@@ -113,6 +139,7 @@ public class Furniture implements Serializable {
 
     public void setMaterial(String material) {
         this.material = material;
+        modified();
     }
 
     public String getImagePath() {
@@ -121,6 +148,7 @@ public class Furniture implements Serializable {
 
     public void setImagePath(String imagePath) {
         this.imagePath = imagePath;
+        modified();
     }
 
     public String getModelPath() {
@@ -129,6 +157,7 @@ public class Furniture implements Serializable {
 
     public void setModelPath(String modelPath) {
         this.modelPath = modelPath;
+        modified();
     }
 
     public double getPosX() {
@@ -137,6 +166,7 @@ public class Furniture implements Serializable {
 
     public void setPosX(double posX) {
         this.posX = posX;
+        modified();
     }
 
     public double getPosY() {
@@ -145,6 +175,7 @@ public class Furniture implements Serializable {
 
     public void setPosY(double posY) {
         this.posY = posY;
+        modified();
     }
 
     public double getRotation() {
@@ -153,6 +184,25 @@ public class Furniture implements Serializable {
 
     public void setRotation(double rotation) {
         this.rotation = rotation;
+        modified();
+    }
+
+    /**
+     * Sets the design this item belongs to, whose revision is advanced by every change to the item
+     * @param owner The owning design, or null if the item has been removed
+     */
+    void setOwner(Design owner) {
+        this.owner = owner;
+    }
+
+    Design getOwner() {
+        return owner;
+    }
+
+    private void modified() {
+        if (owner != null) {
+            owner.modified();
+        }
     }
 
     // Utility methods
@@ -160,6 +210,15 @@ public class Furniture implements Serializable {
         return width * length;
     }
 
+    /**
+     * Creates a copy of the item with the same ID that belongs to no design
+     * @return The copy
+     */
+    public Furniture copy() {
+        return new Furniture(id, name, type, width, length, height, color, material, imagePath, modelPath,
+                posX, posY, rotation);
+    }
+
     @Override
     public String toString() {
         return "Furniture{" +
@@ -1,5 +1,7 @@
 package main.java.com.furniview3d.model;
 import java.awt.Color;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.UUID;
 
@@ -13,6 +15,7 @@ public class Room implements Serializable {
     private double height; // in meters
     private String shape; // "rectangular", "L-shaped", etc.
     private ColorScheme colorScheme;
+    private transient Design owner; // design this room belongs to
 
     // Constructors
     public Room() {
@@ -23,6 +26,7 @@ public class Room implements Serializable {
         this.height = 2.5;
         this.shape = "rectangular";
         this.colorScheme = new ColorScheme();
+        attach(colorScheme);
     }
 
     public Room(String name, double width, double length, double height, String shape, ColorScheme colorScheme) {
@@ -33,6 +37,14 @@ public class Room implements Serializable {
         this.height = height;
         this.shape = shape;
         this.colorScheme = colorScheme;
+        attach(colorScheme);
+    }
+
+    // Restores a previously saved room with its original ID
+    public Room(String id, String name, double width, double length, double height, String shape,
+                ColorScheme colorScheme) {
+        this(name, width, length, height, shape, colorScheme);
+        this.id = id;
     }
 
     // Getters and Setters
@@ -46,6 +58,7 @@ public class Room implements Serializable {
 
     public void setName(String name) {
         this.name = name;
+        modified();
     }
 
     public double getWidth() {
@@ -54,6 +67,7 @@ public class Room implements Serializable {
 
     public void setWidth(double width) {
         this.width = width;
+        modified();
     }
 
     public double getLength() {
@@ -62,6 +76,7 @@ public class Room implements Serializable {
 
     public void setLength(double length) {
         this.length = length;
+        modified();
     }
 
     public double getHeight() {
@@ -70,6 +85,7 @@ public class Room implements Serializable {
 
     public void setHeight(double height) {
         this.height = height;
+        modified();
     }
 
     public String getShape() {
@@ -78,6 +94,7 @@ public class Room implements Serializable {
 
     public void setShape(String shape) {
         this.shape = shape;
+        modified();
     }
 
     public ColorScheme getColorScheme() {
@@ -86,6 +103,30 @@ public class Room implements Serializable {
 
     public void setColorScheme(ColorScheme colorScheme) {
         this.colorScheme = colorScheme;
+        attach(colorScheme);
+        modified();
+    }
+
+    void setOwner(Design owner) {
+        this.owner = owner;
+    }
+
+    void modified() {
+        if (owner != null) {
+            owner.modified();
+        }
+    }
+
+    private void attach(ColorScheme colorScheme) {
+        if (colorScheme != null) {
+            colorScheme.setOwner(this);
+        }
+    }
+
+    // Re-links the color scheme after a design saved with Java serialization is read
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        attach(colorScheme);
     }
 
     // Utility methods
@@ -97,6 +138,14 @@ public class Room implements Serializable {
         return width * length * height;
     }
 
+    /**
+     * Creates a copy of the room and its color scheme with the same IDs that belongs to no design
+     * @return The copy
+     */
+    public Room copy() {
+        return new Room(id, name, width, length, height, shape, colorScheme != null ? colorScheme.copy() : null);
+    }
+
     @Override
     public String toString() {
         return "Room{" +
@@ -110,5 +159,3 @@ public class Room implements Serializable {
                 '}';
     }
 }
-
-
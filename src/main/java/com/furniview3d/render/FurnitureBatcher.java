@@ -0,0 +1,445 @@
+package main.java.com.furniview3d.render;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.input.PickResult;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Draws many furniture items with few scene graph nodes. Items that share a material are
+ * merged into the TriangleMesh of one MeshView, up to MAX_ITEMS_PER_BATCH items per mesh,
+ * instead of getting a Group and a Box each. Every item owns a fixed range of 8 points and
+ * 12 triangles in its batch, so a picked triangle maps straight back to a furniture ID.
+ * Changes only mark the batches they touch; flush uploads those batches and leaves the rest
+ * of the meshes alone. Must be used on the JavaFX application thread.
+ */
+public class FurnitureBatcher {
+    public static final int DEFAULT_THRESHOLD = 500; // item count from which renderers draw batched
+    public static final int MAX_ITEMS_PER_BATCH = 2048;
+
+    private static final int POINTS_PER_ITEM = 8 * 3;
+    private static final int FACES_PER_ITEM = 12;
+    private static final int FACE_VALUES_PER_ITEM = FACES_PER_ITEM * 6;
+
+    // The corners of a unit box, in the order used by BOX_FACES
+    private static final float[] BOX_CORNERS = {
+            -1, -1, -1,
+            1, -1, -1,
+            1, 1, -1,
+            -1, 1, -1,
+            -1, -1, 1,
+            1, -1, 1,
+            1, 1, 1,
+            -1, 1, 1
+    };
+
+    // Two triangles per side, wound so the front faces point out of the box
+    private static final int[] BOX_FACES = {
+            0, 2, 1, 2, 0, 3,   // back (-Z)
+            1, 6, 5, 6, 1, 2,   // right (+X)
+            5, 7, 4, 7, 5, 6,   // front (+Z)
+            4, 3, 0, 3, 4, 7,   // left (-X)
+            0, 1, 4, 1, 5, 4,   // top (-Y)
+            3, 6, 2, 6, 3, 7    // bottom (+Y)
+    };
+
+    // Faces and smoothing groups only depend on the item count, so every batch shares these
+    private static final int[] FACES = new int[MAX_ITEMS_PER_BATCH * FACE_VALUES_PER_ITEM];
+    private static final int[] SMOOTHING_GROUPS = new int[MAX_ITEMS_PER_BATCH * FACES_PER_ITEM];
+
+    static {
+        for (int item = 0; item < MAX_ITEMS_PER_BATCH; item++) {
+            for (int face = 0; face < FACES_PER_ITEM; face++) {
+                int offset = item * FACE_VALUES_PER_ITEM + face * 6;
+                for (int corner = 0; corner < 3; corner++) {
+                    FACES[offset + corner * 2] = item * 8 + BOX_FACES[face * 3 + corner];
+                    FACES[offset + corner * 2 + 1] = 0; // single texture coordinate
+                }
+                // One smoothing group per side keeps the box flat shaded
+                SMOOTHING_GROUPS[item * FACES_PER_ITEM + face] = 1 << (face / 2);
+            }
+        }
+    }
+
+    private final Group group = new Group();
+    private final double specularPower;
+    private final double minSize;
+
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<PhongMaterial, List<Batch>> batchesByMaterial = new IdentityHashMap<>();
+    private final Map<Node, Batch> batchesByView = new IdentityHashMap<>();
+    private final List<Batch> dirtyBatches = new ArrayList<>();
+
+    /**
+     * One furniture item in a batch
+     */
+    private static class Item {
+        private final String furnitureId;
+        private Batch batch;
+        private int index; // position of the item's points and triangles in its batch
+        private PhongMaterial material;
+        private java.awt.Color color;
+        private double specularPower;
+
+        Item(String furnitureId, double specularPower) {
+            this.furnitureId = furnitureId;
+            this.specularPower = specularPower;
+        }
+    }
+
+    /**
+     * One MeshView holding the boxes of items with the same material
+     */
+    private static class Batch {
+        private final PhongMaterial material;
+        private final TriangleMesh mesh = new TriangleMesh();
+        private final MeshView view = new MeshView(mesh);
+        private final List<Item> items = new ArrayList<>();
+        private float[] points = new float[POINTS_PER_ITEM * 16];
+        private int uploadedCount = -1;
+        private boolean isDirty;
+
+        // Bounding sphere of the uploaded boxes, for frustum culling
+        private double centerX;
+        private double centerY;
+        private double centerZ;
+        private double radius;
+
+        Batch(PhongMaterial material) {
+            this.material = material;
+            mesh.getTexCoords().setAll(0, 0);
+            view.setMaterial(material);
+        }
+    }
+
+    /**
+     * Creates an empty batcher; add its group to the scene
+     * @param specularPower The shininess of the furniture materials
+     * @param minSize The smallest size in meters used for each dimension
+     */
+    public FurnitureBatcher(double specularPower, double minSize) {
+        this.specularPower = specularPower;
+        this.minSize = minSize;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    public boolean contains(String furnitureId) {
+        return items.containsKey(furnitureId);
+    }
+
+    /**
+     * Gets the number of items drawn by the batcher
+     * @return The item count
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Gets the number of MeshViews the items are drawn with
+     * @return The batch count
+     */
+    public int getBatchCount() {
+        return batchesByView.size();
+    }
+
+    /**
+     * Adds an item, or updates the box of an item already in a batch. An item whose color
+     * changed moves to the batch of its new material. Call flush to show the change.
+     * @param furniture The furniture item
+     * @param room The room the item stands in, centered on the scene origin
+     */
+    public void update(Furniture furniture, Room room) {
+        Item item = items.get(furniture.getId());
+        java.awt.Color color = furniture.getColor();
+        if (item == null) {
+            item = new Item(furniture.getId(), specularPower);
+            items.put(item.furnitureId, item);
+            item.color = color;
+            item.material = MaterialCache.getInstance().acquire(color, java.awt.Color.WHITE, item.specularPower);
+            addToBatch(item);
+        } else if (color == null ? item.color != null : !color.equals(item.color)) {
+            item.color = color;
+            changeMaterial(item);
+        }
+        writeBox(item, furniture, room);
+    }
+
+    /**
+     * Changes how shiny one item looks, moving it to the batch of its new material
+     * @param furnitureId The ID of the item
+     * @param specularPower The new specular power
+     */
+    public void setSpecularPower(String furnitureId, double specularPower) {
+        Item item = items.get(furnitureId);
+        if (item != null && item.specularPower != specularPower) {
+            item.specularPower = specularPower;
+            changeMaterial(item);
+        }
+    }
+
+    /**
+     * Removes an item. Call flush to show the change.
+     * @param furnitureId The ID of the item
+     */
+    public void remove(String furnitureId) {
+        Item item = items.remove(furnitureId);
+        if (item != null) {
+            removeFromBatch(item);
+            MaterialCache.getInstance().release(item.material);
+        }
+    }
+
+    /**
+     * Removes every item whose ID is not in a set. Call flush to show the change.
+     * @param furnitureIds The IDs of the items to keep
+     */
+    public void retainAll(Set<String> furnitureIds) {
+        Iterator<Map.Entry<String, Item>> iterator = items.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Item item = iterator.next().getValue();
+            if (!furnitureIds.contains(item.furnitureId)) {
+                iterator.remove();
+                removeFromBatch(item);
+                MaterialCache.getInstance().release(item.material);
+            }
+        }
+    }
+
+    /**
+     * Uploads the batches changed since the last flush to their meshes
+     * @return The number of batches uploaded
+     */
+    public int flush() {
+        int uploaded = 0;
+        for (Batch batch : dirtyBatches) {
+            batch.isDirty = false;
+            if (batch.items.isEmpty()) {
+                continue; // already dropped from the scene
+            }
+            int count = batch.items.size();
+            batch.mesh.getPoints().setAll(batch.points, 0, count * POINTS_PER_ITEM);
+            if (count != batch.uploadedCount) {
+                batch.mesh.getFaces().setAll(FACES, 0, count * FACE_VALUES_PER_ITEM);
+                batch.mesh.getFaceSmoothingGroups().setAll(SMOOTHING_GROUPS, 0, count * FACES_PER_ITEM);
+                batch.uploadedCount = count;
+            }
+            updateBounds(batch);
+            uploaded++;
+        }
+        dirtyBatches.clear();
+        return uploaded;
+    }
+
+    /**
+     * Hides the batches that are completely outside a camera view
+     * @param frustum The camera view, in the coordinates of the batcher's parent
+     * @return The number of batches drawn
+     */
+    public int applyView(ViewFrustum frustum) {
+        int drawn = 0;
+        for (Batch batch : batchesByView.values()) {
+            boolean isInView = frustum.intersectsSphere(batch.centerX, batch.centerY, batch.centerZ, batch.radius);
+            batch.view.setVisible(isInView);
+            if (isInView) {
+                drawn++;
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Finds the furniture item a picked triangle belongs to
+     * @param pick The pick result of a mouse event
+     * @return The ID of the item, or null if the pick did not hit a batch
+     */
+    public String findFurnitureId(PickResult pick) {
+        if (pick == null) {
+            return null;
+        }
+        return findFurnitureId(pick.getIntersectedNode(), pick.getIntersectedFace());
+    }
+
+    /**
+     * Finds the furniture item a triangle of a batch belongs to
+     * @param node The picked node
+     * @param faceIndex The index of the picked triangle in the node's mesh
+     * @return The ID of the item, or null if the node is not a batch or the face is unknown
+     */
+    public String findFurnitureId(Node node, int faceIndex) {
+        Batch batch = node != null ? batchesByView.get(node) : null;
+        if (batch == null || faceIndex < 0) {
+            return null;
+        }
+        int index = faceIndex / FACES_PER_ITEM;
+        return index < batch.items.size() ? batch.items.get(index).furnitureId : null;
+    }
+
+    /**
+     * Removes all items and batches and releases their materials
+     */
+    public void clear() {
+        for (Item item : items.values()) {
+            MaterialCache.getInstance().release(item.material);
+        }
+        items.clear();
+        batchesByMaterial.clear();
+        batchesByView.clear();
+        dirtyBatches.clear();
+        group.getChildren().clear();
+    }
+
+    private void changeMaterial(Item item) {
+        PhongMaterial previous = item.material;
+        item.material = MaterialCache.getInstance().acquire(item.color, java.awt.Color.WHITE, item.specularPower);
+        if (item.material == previous) {
+            MaterialCache.getInstance().release(previous);
+            return;
+        }
+
+        // Carry the item's box over to its new batch
+        float[] box = new float[POINTS_PER_ITEM];
+        System.arraycopy(item.batch.points, item.index * POINTS_PER_ITEM, box, 0, POINTS_PER_ITEM);
+        removeFromBatch(item);
+        MaterialCache.getInstance().release(previous);
+        addToBatch(item);
+        System.arraycopy(box, 0, item.batch.points, item.index * POINTS_PER_ITEM, POINTS_PER_ITEM);
+    }
+
+    private void addToBatch(Item item) {
+        List<Batch> batches = batchesByMaterial.computeIfAbsent(item.material, material -> new ArrayList<>());
+        Batch batch = null;
+        for (Batch candidate : batches) {
+            if (candidate.items.size() < MAX_ITEMS_PER_BATCH) {
+                batch = candidate;
+                break;
+            }
+        }
+        if (batch == null) {
+            batch = new Batch(item.material);
+            batches.add(batch);
+            batchesByView.put(batch.view, batch);
+            group.getChildren().add(batch.view);
+        }
+
+        item.batch = batch;
+        item.index = batch.items.size();
+        batch.items.add(item);
+        int needed = batch.items.size() * POINTS_PER_ITEM;
+        if (needed > batch.points.length) {
+            batch.points = Arrays.copyOf(batch.points,
+                    Math.min(Math.max(needed, batch.points.length * 2), MAX_ITEMS_PER_BATCH * POINTS_PER_ITEM));
+        }
+        markDirty(batch);
+    }
+
+    // Fills the item's slot with the last item of the batch, so the ranges stay contiguous
+    private void removeFromBatch(Item item) {
+        Batch batch = item.batch;
+        int last = batch.items.size() - 1;
+        if (item.index != last) {
+            Item moved = batch.items.get(last);
+            System.arraycopy(batch.points, last * POINTS_PER_ITEM, batch.points, item.index * POINTS_PER_ITEM,
+                    POINTS_PER_ITEM);
+            moved.index = item.index;
+            batch.items.set(item.index, moved);
+        }
+        batch.items.remove(last);
+        item.batch = null;
+
+        if (batch.items.isEmpty()) {
+            List<Batch> batches = batchesByMaterial.get(batch.material);
+            batches.remove(batch);
+            if (batches.isEmpty()) {
+                batchesByMaterial.remove(batch.material);
+            }
+            batchesByView.remove(batch.view);
+            group.getChildren().remove(batch.view);
+        } else {
+            markDirty(batch);
+        }
+    }
+
+    private static void updateBounds(Batch batch) {
+        float[] points = batch.points;
+        int length = batch.items.size() * POINTS_PER_ITEM;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i += 3) {
+            minX = Math.min(minX, points[i]);
+            maxX = Math.max(maxX, points[i]);
+            minY = Math.min(minY, points[i + 1]);
+            maxY = Math.max(maxY, points[i + 1]);
+            minZ = Math.min(minZ, points[i + 2]);
+            maxZ = Math.max(maxZ, points[i + 2]);
+        }
+        batch.centerX = (minX + maxX) / 2;
+        batch.centerY = (minY + maxY) / 2;
+        batch.centerZ = (minZ + maxZ) / 2;
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        batch.radius = Math.sqrt(dx * dx + dy * dy + dz * dz) / 2;
+    }
+
+    private void markDirty(Batch batch) {
+        if (!batch.isDirty) {
+            batch.isDirty = true;
+            dirtyBatches.add(batch);
+        }
+    }
+
+    // Writes the 8 corners of the item's box, placed as FurnitureNode places its Box
+    private void writeBox(Item item, Furniture furniture, Room room) {
+        double halfWidth = Math.max(minSize, furniture.getWidth()) * 100 / 2;
+        double halfHeight = Math.max(minSize, furniture.getHeight()) * 100 / 2;
+        double halfLength = Math.max(minSize, furniture.getLength()) * 100 / 2;
+
+        double centerX = furniture.getPosX() * 100 - (room.getWidth() * 100) / 2 + halfWidth;
+        double centerZ = furniture.getPosY() * 100 - (room.getLength() * 100) / 2 + halfLength;
+        double centerY = (room.getHeight() * 100) / 2 - halfHeight;
+
+        // Rotation about the Y axis, as applied by a JavaFX Rotate
+        double radians = Math.toRadians(furniture.getRotation());
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+
+        float[] points = item.batch.points;
+        int offset = item.index * POINTS_PER_ITEM;
+        boolean changed = false;
+        for (int corner = 0; corner < 8; corner++) {
+            double x = BOX_CORNERS[corner * 3] * halfWidth;
+            double y = BOX_CORNERS[corner * 3 + 1] * halfHeight;
+            double z = BOX_CORNERS[corner * 3 + 2] * halfLength;
+            changed |= setPoint(points, offset + corner * 3, (float) (centerX + x * cos + z * sin));
+            changed |= setPoint(points, offset + corner * 3 + 1, (float) (centerY + y));
+            changed |= setPoint(points, offset + corner * 3 + 2, (float) (centerZ - x * sin + z * cos));
+        }
+        // An unchanged item leaves its batch alone, so a full resync only uploads what moved
+        if (changed) {
+            markDirty(item.batch);
+        }
+    }
+
+    private static boolean setPoint(float[] points, int index, float value) {
+        if (points[index] == value) {
+            return false;
+        }
+        points[index] = value;
+        return true;
+    }
+}
\ No newline at end of file
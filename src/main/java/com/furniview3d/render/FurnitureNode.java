@@ -0,0 +1,344 @@
+package main.java.com.furniview3d.render;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Box;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Rotate;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The 3D node of one furniture item. The node remembers the values it was last built from,
+ * so an update only touches the box size, translation, rotation or material that actually
+ * changed instead of recreating the node. Its material comes from the shared MaterialCache
+ * and is released by dispose. Must be used on the JavaFX application thread.
+ * For each camera view the node is hidden when it is outside the view frustum, and otherwise
+ * shows its full model, a simplified model or its bounding box depending on its size on screen.
+ * The item's OBJ model is loaded through the MeshCache in the background; the box is shown
+ * until it arrives and stays if the model is missing or malformed.
+ */
+public class FurnitureNode {
+    public static final double FULL_DETAIL_PIXELS = 150;      // projected size for the full model
+    public static final double SIMPLIFIED_DETAIL_PIXELS = 40; // projected size for the simplified model
+
+    /**
+     * The representations a node can be drawn with, from most to least detailed
+     */
+    public enum Detail {
+        FULL, SIMPLIFIED, BOX
+    }
+
+    private final Group group = new Group();
+    private final Box shape = new Box();
+    private final Rotate rotation = new Rotate(0, Rotate.Y_AXIS);
+    private final double minSize;
+    private PhongMaterial material; // shared, never modified here
+    private double specularPower;
+
+    // Values the node currently shows, in scene units (100 units = 1 meter)
+    private double width = Double.NaN;
+    private double height = Double.NaN;
+    private double length = Double.NaN;
+    private double translateX = Double.NaN;
+    private double translateY = Double.NaN;
+    private double translateZ = Double.NaN;
+    private double angle = Double.NaN;
+    private java.awt.Color color;
+    private boolean hasColor;
+
+    // Optional models; the box stands in for any that are missing
+    private Node fullModel;
+    private Node simplifiedModel;
+    private final List<MeshView> modelViews = new ArrayList<>(); // parts of the loaded models
+    private String modelPath;
+    private boolean isDisposed;
+    private Detail detail = Detail.BOX;
+    private boolean isShown = true;    // visibility chosen by the user
+    private boolean isInView = true;   // result of the last frustum test
+
+    /**
+     * Creates an empty node; call update to give it the item's shape and placement
+     * @param specularPower The shininess of the item's material
+     * @param minSize The smallest size in meters used for each dimension
+     */
+    public FurnitureNode(double specularPower, double minSize) {
+        this.minSize = minSize;
+        this.specularPower = specularPower;
+        group.getChildren().add(shape);
+        group.getTransforms().add(rotation);
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    public Box getShape() {
+        return shape;
+    }
+
+    public PhongMaterial getMaterial() {
+        return material;
+    }
+
+    /**
+     * Changes how shiny the item looks by switching to another shared material
+     * @param specularPower The new specular power
+     */
+    public void setSpecularPower(double specularPower) {
+        this.specularPower = specularPower;
+        if (hasColor) {
+            applyMaterial(color);
+        }
+    }
+
+    /**
+     * Sets the models drawn instead of the box when the item appears large enough on screen.
+     * The models must fill a unit cube centered on the origin; the node scales them to the
+     * item's size.
+     * @param fullModel The full model, or null to use the simplified model or the box
+     * @param simplifiedModel The simplified model, or null to use the box
+     */
+    public void setModels(Node fullModel, Node simplifiedModel) {
+        if (this.fullModel != null) {
+            group.getChildren().remove(this.fullModel);
+        }
+        if (this.simplifiedModel != null) {
+            group.getChildren().remove(this.simplifiedModel);
+        }
+        this.fullModel = fullModel;
+        this.simplifiedModel = simplifiedModel;
+        if (fullModel != null) {
+            group.getChildren().add(fullModel);
+        }
+        if (simplifiedModel != null) {
+            group.getChildren().add(simplifiedModel);
+        }
+        scaleModels();
+        showDetail(detail);
+    }
+
+    /**
+     * Shows or hides the item regardless of the camera view
+     * @param shown false to always hide the item
+     */
+    public void setShown(boolean shown) {
+        isShown = shown;
+        group.setVisible(isShown && isInView);
+    }
+
+    public boolean isShown() {
+        return isShown;
+    }
+
+    public Detail getDetail() {
+        return detail;
+    }
+
+    /**
+     * Hides the node if it is outside a camera view and picks its level of detail
+     * @param frustum The camera view, in the coordinates of the node's parent
+     * @return true if the node is drawn
+     */
+    public boolean applyView(ViewFrustum frustum) {
+        double radius = Math.sqrt(width * width + height * height + length * length) / 2;
+        isInView = frustum.intersectsSphere(translateX, translateY, translateZ, radius);
+        group.setVisible(isShown && isInView);
+        if (!isShown || !isInView) {
+            return false;
+        }
+
+        double size = frustum.projectedSize(translateX, translateY, translateZ, radius);
+        Detail newDetail = size >= FULL_DETAIL_PIXELS ? Detail.FULL
+                : size >= SIMPLIFIED_DETAIL_PIXELS ? Detail.SIMPLIFIED : Detail.BOX;
+        if (newDetail != detail) {
+            showDetail(newDetail);
+        }
+        return true;
+    }
+
+    // Makes exactly one representation visible, falling back to a less detailed one
+    private void showDetail(Detail newDetail) {
+        detail = newDetail;
+        Node shown = shape;
+        if (detail == Detail.FULL && fullModel != null) {
+            shown = fullModel;
+        } else if (detail != Detail.BOX && simplifiedModel != null) {
+            shown = simplifiedModel;
+        }
+        shape.setVisible(shown == shape);
+        if (fullModel != null) {
+            fullModel.setVisible(shown == fullModel);
+        }
+        if (simplifiedModel != null) {
+            simplifiedModel.setVisible(shown == simplifiedModel);
+        }
+    }
+
+    /**
+     * Releases the node's material; call when the node is removed from the scene
+     */
+    public void dispose() {
+        isDisposed = true;
+        MaterialCache.getInstance().release(material);
+        material = null;
+        hasColor = false;
+    }
+
+    /**
+     * Brings the node up to date with an item placed in a room centered on the scene origin
+     * @param furniture The furniture item
+     * @param room The room the item stands in
+     * @return true if anything about the node changed
+     */
+    public boolean update(Furniture furniture, Room room) {
+        boolean changed = false;
+
+        double newWidth = Math.max(minSize, furniture.getWidth()) * 100;
+        double newHeight = Math.max(minSize, furniture.getHeight()) * 100;
+        double newLength = Math.max(minSize, furniture.getLength()) * 100;
+        if (newWidth != width) {
+            shape.setWidth(newWidth);
+            width = newWidth;
+            changed = true;
+        }
+        if (newHeight != height) {
+            shape.setHeight(newHeight);
+            height = newHeight;
+            changed = true;
+        }
+        if (newLength != length) {
+            shape.setDepth(newLength);
+            length = newLength;
+            changed = true;
+        }
+        if (changed) {
+            scaleModels();
+        }
+
+        // Position the item's center relative to the room's center, standing on the floor
+        double newX = furniture.getPosX() * 100 - (room.getWidth() * 100) / 2 + newWidth / 2;
+        double newZ = furniture.getPosY() * 100 - (room.getLength() * 100) / 2 + newLength / 2;
+        double newY = (room.getHeight() * 100) / 2 - newHeight / 2;
+        if (newX != translateX) {
+            group.setTranslateX(newX);
+            translateX = newX;
+            changed = true;
+        }
+        if (newY != translateY) {
+            group.setTranslateY(newY);
+            translateY = newY;
+            changed = true;
+        }
+        if (newZ != translateZ) {
+            group.setTranslateZ(newZ);
+            translateZ = newZ;
+            changed = true;
+        }
+
+        if (furniture.getRotation() != angle) {
+            rotation.setAngle(furniture.getRotation());
+            angle = furniture.getRotation();
+            changed = true;
+        }
+
+        java.awt.Color newColor = furniture.getColor();
+        if (!hasColor || (newColor == null ? color != null : !newColor.equals(color))) {
+            applyMaterial(newColor);
+            color = newColor;
+            hasColor = true;
+            changed = true;
+        }
+
+        String newModelPath = furniture.getModelPath();
+        if (newModelPath == null ? modelPath != null : !newModelPath.equals(modelPath)) {
+            modelPath = newModelPath;
+            modelViews.clear();
+            setModels(null, null);
+            requestModel(newModelPath);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Checks if a picked node is part of this item
+     * @param node The picked node
+     * @return true if the node is the item's box or part of its model
+     */
+    public boolean owns(Node node) {
+        if (node == shape) {
+            return true;
+        }
+        for (MeshView view : modelViews) {
+            if (view == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Loads the model in the background and shows it once it is ready
+    private void requestModel(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            return;
+        }
+        MeshCache.getInstance().load(path).whenComplete((model, error) -> {
+            if (error != null) {
+                return; // keep the box
+            }
+            Runnable show = () -> showModel(path, model);
+            if (Platform.isFxApplicationThread()) {
+                show.run();
+            } else {
+                Platform.runLater(show);
+            }
+        });
+    }
+
+    private void showModel(String path, ModelMesh model) {
+        if (isDisposed || !path.equals(modelPath)) {
+            return; // the item was removed or given another model meanwhile
+        }
+        modelViews.clear();
+        setModels(createModelView(model), createModelView(model.getSimplified()));
+    }
+
+    // One MeshView per part, all sharing the cached meshes and the item's material
+    private Group createModelView(ModelMesh model) {
+        Group view = new Group();
+        for (TriangleMesh mesh : model.getTriangleMeshes()) {
+            MeshView part = new MeshView(mesh);
+            part.setMaterial(material);
+            modelViews.add(part);
+            view.getChildren().add(part);
+        }
+        return view;
+    }
+
+    private void scaleModels() {
+        for (Node model : new Node[] {fullModel, simplifiedModel}) {
+            if (model != null) {
+                model.setScaleX(width);
+                model.setScaleY(height);
+                model.setScaleZ(length);
+            }
+        }
+    }
+
+    private void applyMaterial(java.awt.Color diffuse) {
+        PhongMaterial previous = material;
+        material = MaterialCache.getInstance().acquire(diffuse, java.awt.Color.WHITE, specularPower);
+        shape.setMaterial(material);
+        for (MeshView view : modelViews) {
+            view.setMaterial(material);
+        }
+        MaterialCache.getInstance().release(previous);
+    }
+}
\ No newline at end of file
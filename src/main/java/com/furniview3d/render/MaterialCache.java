@@ -0,0 +1,155 @@
+package main.java.com.furniview3d.render;
+
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Shares PhongMaterial instances between all 3D nodes and renderers that look the same.
+ * Materials are keyed by diffuse color, specular color and specular power and are reference
+ * counted: every acquire must be matched by a release, and a material is dropped from the
+ * cache once no node uses it. Shared materials must not be modified by their users.
+ */
+public class MaterialCache {
+    public static final double DEFAULT_SPECULAR_POWER = 32.0; // JavaFX default
+
+    private static MaterialCache instance;
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Map<PhongMaterial, Entry> byMaterial = new IdentityHashMap<>();
+
+    /**
+     * Identifies the look of a material
+     */
+    private static class Key {
+        private final int diffuse;      // ARGB
+        private final int specular;     // ARGB, only meaningful if hasSpecular
+        private final boolean hasSpecular;
+        private final long specularPower;
+
+        Key(int diffuse, int specular, boolean hasSpecular, double specularPower) {
+            this.diffuse = diffuse;
+            this.specular = specular;
+            this.hasSpecular = hasSpecular;
+            this.specularPower = Double.doubleToLongBits(specularPower);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return diffuse == key.diffuse && specular == key.specular
+                    && hasSpecular == key.hasSpecular && specularPower == key.specularPower;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = diffuse;
+            result = 31 * result + specular;
+            result = 31 * result + (hasSpecular ? 1 : 0);
+            result = 31 * result + Long.hashCode(specularPower);
+            return result;
+        }
+    }
+
+    private static class Entry {
+        private final Key key;
+        private final PhongMaterial material;
+        private int references;
+
+        Entry(Key key, PhongMaterial material) {
+            this.key = key;
+            this.material = material;
+        }
+    }
+
+    // Private constructor for singleton pattern
+    private MaterialCache() {
+    }
+
+    // Singleton instance getter
+    public static synchronized MaterialCache getInstance() {
+        if (instance == null) {
+            instance = new MaterialCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets a shared material and counts one more use of it
+     * @param diffuse The diffuse color (null for gray)
+     * @param specular The specular color (null to leave the JavaFX default)
+     * @param specularPower The specular power
+     * @return The shared material; pass it to release when the node no longer uses it
+     */
+    public synchronized PhongMaterial acquire(java.awt.Color diffuse, java.awt.Color specular,
+                                              double specularPower) {
+        java.awt.Color diffuseColor = diffuse != null ? diffuse : java.awt.Color.GRAY;
+        Key key = new Key(diffuseColor.getRGB(), specular != null ? specular.getRGB() : 0,
+                specular != null, specularPower);
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            PhongMaterial material = new PhongMaterial();
+            material.setDiffuseColor(toFxColor(diffuseColor));
+            if (specular != null) {
+                material.setSpecularColor(toFxColor(specular));
+            }
+            material.setSpecularPower(specularPower);
+
+            entry = new Entry(key, material);
+            entries.put(key, entry);
+            byMaterial.put(material, entry);
+        }
+        entry.references++;
+        return entry.material;
+    }
+
+    /**
+     * Counts one less use of a material, dropping it from the cache when it is no longer used
+     * @param material A material returned by acquire (null is ignored)
+     */
+    public synchronized void release(PhongMaterial material) {
+        if (material == null) {
+            return;
+        }
+        Entry entry = byMaterial.get(material);
+        if (entry == null) {
+            return;
+        }
+        entry.references--;
+        if (entry.references <= 0) {
+            entries.remove(entry.key);
+            byMaterial.remove(material);
+        }
+    }
+
+    /**
+     * Gets the number of distinct materials currently in use
+     * @return The number of cached materials
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Converts an AWT color to a JavaFX color
+     * @param awtColor The color (null for gray)
+     * @return The JavaFX color
+     */
+    public static Color toFxColor(java.awt.Color awtColor) {
+        if (awtColor == null) {
+            return Color.GRAY; // Default color if null
+        }
+        return Color.rgb(
+                awtColor.getRed(),
+                awtColor.getGreen(),
+                awtColor.getBlue(),
+                awtColor.getAlpha() / 255.0
+        );
+    }
+}
\ No newline at end of file
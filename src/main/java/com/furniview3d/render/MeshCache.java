@@ -0,0 +1,123 @@
+package main.java.com.furniview3d.render;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads furniture models on background threads and shares each parsed model between all
+ * items that use it, so 200 identical chairs parse the file once and draw one TriangleMesh.
+ * Entries are keyed by the model's absolute path and modification time; a model edited on
+ * disk is loaded again the next time it is requested. Models are read through the
+ * MeshCompiler, so only models never seen before are parsed as text. Failed loads are
+ * remembered as well, so a missing model is only reported once.
+ */
+public class MeshCache {
+    private static final int LOADER_THREADS = 2;
+
+    private static MeshCache instance;
+
+    private final ExecutorService executor;
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>(); // absolute path -> latest load
+
+    /**
+     * One load of a model file
+     */
+    private static class Entry {
+        private final long lastModified;
+        private final CompletableFuture<ModelMesh> future;
+
+        Entry(long lastModified, CompletableFuture<ModelMesh> future) {
+            this.lastModified = lastModified;
+            this.future = future;
+        }
+    }
+
+    // Private constructor for singleton pattern
+    private MeshCache() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "model-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Singleton instance getter
+    public static synchronized MeshCache getInstance() {
+        if (instance == null) {
+            instance = new MeshCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets a model, parsing it in the background unless the same version is already cached
+     * @param modelPath The path of the OBJ file
+     * @return A future completed with the model, or completed exceptionally if the file is
+     *         missing or cannot be parsed
+     */
+    public CompletableFuture<ModelMesh> load(String modelPath) {
+        if (modelPath == null || modelPath.trim().isEmpty()) {
+            CompletableFuture<ModelMesh> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IOException("No model path"));
+            return failed;
+        }
+
+        Path path;
+        long lastModified;
+        try {
+            path = Paths.get(modelPath).toAbsolutePath().normalize();
+            lastModified = Files.exists(path) ? Files.getLastModifiedTime(path).toMillis() : -1;
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<ModelMesh> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        Entry entry = entries.compute(path, (key, current) -> {
+            if (current != null && current.lastModified == lastModified) {
+                return current;
+            }
+            return new Entry(lastModified, CompletableFuture.supplyAsync(() -> load(key, lastModified), executor));
+        });
+        return entry.future;
+    }
+
+    /**
+     * Gets the number of model files cached, including failed ones
+     * @return The number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops all cached models; nodes already showing a model keep it
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static ModelMesh load(Path path, long lastModified) {
+        try {
+            if (lastModified < 0) {
+                throw new IOException("File not found");
+            }
+            ModelMesh model = MeshCompiler.load(path);
+            model.getSimplified(); // build the low detail version on this thread too
+            return model;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading model " + path + ": " + e.getMessage());
+            throw new CompletionException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,336 @@
+package main.java.com.furniview3d.render;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles OBJ models into the binary FurniView Mesh (.fvm) format and keeps the results in a
+ * cache directory, so a model is only parsed as text the first time it is seen.
+ *
+ * Compiled files are named after the SHA-256 hash of the OBJ file's contents, so an edited
+ * model gets a new file and copies of the same model share one. The MTL files a model
+ * references are recorded with their size and modification time and checked on every load.
+ *
+ * Layout of a version 1 file, little-endian, every section aligned to 4 bytes:
+ * <pre>
+ *   magic "FVM" 0x1A, int version
+ *   int MTL file count, then per file: string name, long size, long modification time
+ *   int part count, then per part: string material, int has color, int ARGB color,
+ *       int point, texture coordinate, face and smoothing group counts, then the four arrays
+ * </pre>
+ * Strings are an int byte length followed by UTF-8 bytes, padded to 4 bytes.
+ * Compiled files are read through a memory-mapped FileChannel and copied into the arrays
+ * with bulk gets.
+ */
+public class MeshCompiler {
+    private static final String CACHE_DIRECTORY = "model-cache";
+    private static final String MESH_EXTENSION = ".fvm"; // FurniView Mesh
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    static final int MAGIC = 0x1A4D5646; // "FVM" followed by the DOS end-of-file marker, little-endian
+    static final int FORMAT_VERSION = 1;
+
+    // A size or time recorded for an MTL file that did not exist
+    private static final long MISSING = -1;
+
+    // Utility class
+    private MeshCompiler() {
+    }
+
+    /**
+     * Loads a model from its compiled file, compiling the OBJ file first if it has no current one
+     * @param objFile The OBJ file
+     * @return The model
+     * @throws IOException If the OBJ file cannot be read or is not a usable OBJ model
+     */
+    public static ModelMesh load(Path objFile) throws IOException {
+        Path compiledFile = getCompiledPath(objFile);
+        if (Files.exists(compiledFile)) {
+            try {
+                ModelMesh model = read(compiledFile, objFile);
+                if (model != null) {
+                    return model;
+                }
+            } catch (IOException | RuntimeException e) {
+                // A damaged file is replaced below
+                System.err.println("Error reading compiled model " + compiledFile + ": " + e.getMessage());
+            }
+        }
+        return compile(objFile, compiledFile);
+    }
+
+    /**
+     * Parses an OBJ file and writes its compiled file to the cache directory
+     * @param objFile The OBJ file
+     * @return The parsed model
+     * @throws IOException If the OBJ file cannot be read or is not a usable OBJ model
+     */
+    public static ModelMesh compile(Path objFile) throws IOException {
+        return compile(objFile, getCompiledPath(objFile));
+    }
+
+    /**
+     * Gets the compiled file for the current contents of an OBJ file
+     * @param objFile The OBJ file
+     * @return The path in the cache directory, which may not exist yet
+     * @throws IOException If the OBJ file cannot be read
+     */
+    public static Path getCompiledPath(Path objFile) throws IOException {
+        return getCacheDirectory().resolve(hash(objFile) + MESH_EXTENSION);
+    }
+
+    /**
+     * Gets the directory compiled models are stored in
+     * @return The cache directory
+     */
+    public static Path getCacheDirectory() {
+        return Paths.get(CACHE_DIRECTORY);
+    }
+
+    private static ModelMesh compile(Path objFile, Path compiledFile) throws IOException {
+        List<Path> materialFiles = new ArrayList<>();
+        ModelMesh model = ObjParser.parse(objFile, materialFiles);
+
+        // The model is usable even if the cache cannot be written
+        try {
+            write(model, objFile, materialFiles, compiledFile);
+        } catch (IOException e) {
+            System.err.println("Error writing compiled model " + compiledFile + ": " + e.getMessage());
+        }
+        return model;
+    }
+
+    /**
+     * Hashes the contents of a file with SHA-256
+     * @return The hash as lowercase hex digits
+     */
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Writes a compiled file. The contents go to a temporary file that is renamed afterwards,
+     * so a reader never sees a partly written file.
+     */
+    private static void write(ModelMesh model, Path objFile, List<Path> materialFiles, Path compiledFile)
+            throws IOException {
+        // MTL files are recorded relative to the OBJ file, as in its mtllib lines
+        Path objDirectory = objFile.toAbsolutePath().getParent();
+        List<byte[]> materialNames = new ArrayList<>(materialFiles.size());
+        int size = 16;
+        for (Path materialFile : materialFiles) {
+            String relative = objDirectory.relativize(materialFile.toAbsolutePath()).toString();
+            byte[] name = relative.getBytes(StandardCharsets.UTF_8);
+            materialNames.add(name);
+            size += stringSize(name) + 16;
+        }
+
+        List<byte[]> partNames = new ArrayList<>(model.getParts().size());
+        for (ModelMesh.Part part : model.getParts()) {
+            byte[] name = part.getMaterialName().getBytes(StandardCharsets.UTF_8);
+            partNames.add(name);
+            size += stringSize(name) + 24 + 4 * (part.getPoints().length + part.getTexCoords().length
+                    + part.getFaces().length + part.getSmoothingGroups().length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+
+        buffer.putInt(materialFiles.size());
+        for (int i = 0; i < materialFiles.size(); i++) {
+            putString(buffer, materialNames.get(i));
+            BasicFileAttributes attributes = readAttributes(materialFiles.get(i));
+            buffer.putLong(attributes != null ? attributes.size() : MISSING);
+            buffer.putLong(attributes != null ? attributes.lastModifiedTime().toMillis() : MISSING);
+        }
+
+        buffer.putInt(model.getParts().size());
+        for (int i = 0; i < model.getParts().size(); i++) {
+            ModelMesh.Part part = model.getParts().get(i);
+            putString(buffer, partNames.get(i));
+            java.awt.Color color = part.getDiffuseColor();
+            buffer.putInt(color != null ? 1 : 0);
+            buffer.putInt(color != null ? color.getRGB() : 0);
+            buffer.putInt(part.getPoints().length);
+            buffer.putInt(part.getTexCoords().length);
+            buffer.putInt(part.getFaces().length);
+            buffer.putInt(part.getSmoothingGroups().length);
+
+            buffer.asFloatBuffer().put(part.getPoints());
+            buffer.position(buffer.position() + 4 * part.getPoints().length);
+            buffer.asFloatBuffer().put(part.getTexCoords());
+            buffer.position(buffer.position() + 4 * part.getTexCoords().length);
+            buffer.asIntBuffer().put(part.getFaces());
+            buffer.position(buffer.position() + 4 * part.getFaces().length);
+            buffer.asIntBuffer().put(part.getSmoothingGroups());
+            buffer.position(buffer.position() + 4 * part.getSmoothingGroups().length);
+        }
+        buffer.flip();
+
+        Files.createDirectories(compiledFile.toAbsolutePath().getParent());
+        Path temp = compiledFile.resolveSibling(compiledFile.getFileName() + TEMP_EXTENSION);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            try {
+                Files.move(temp, compiledFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, compiledFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a compiled file
+     * @return The model, or null if an MTL file it was compiled with has changed since
+     * @throws IOException If the file cannot be read or is not a valid compiled file
+     */
+    private static ModelMesh read(Path compiledFile, Path objFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(compiledFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled model");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                return null; // Written by another version, compile again
+            }
+
+            int materialFileCount = buffer.getInt();
+            for (int i = 0; i < materialFileCount; i++) {
+                Path materialFile = objFile.resolveSibling(getString(buffer));
+                long size = buffer.getLong();
+                long lastModified = buffer.getLong();
+                BasicFileAttributes attributes = readAttributes(materialFile);
+                if (attributes == null ? size != MISSING
+                        : size != attributes.size() || lastModified != attributes.lastModifiedTime().toMillis()) {
+                    return null;
+                }
+            }
+
+            int partCount = buffer.getInt();
+            List<ModelMesh.Part> parts = new ArrayList<>(partCount);
+            for (int i = 0; i < partCount; i++) {
+                String material = getString(buffer);
+                boolean hasColor = buffer.getInt() != 0;
+                int argb = buffer.getInt();
+                float[] points = new float[checkLength(buffer.getInt(), buffer)];
+                float[] texCoords = new float[checkLength(buffer.getInt(), buffer)];
+                int[] faces = new int[checkLength(buffer.getInt(), buffer)];
+                int[] smoothingGroups = new int[checkLength(buffer.getInt(), buffer)];
+
+                buffer.asFloatBuffer().get(points);
+                buffer.position(buffer.position() + 4 * points.length);
+                buffer.asFloatBuffer().get(texCoords);
+                buffer.position(buffer.position() + 4 * texCoords.length);
+                buffer.asIntBuffer().get(faces);
+                buffer.position(buffer.position() + 4 * faces.length);
+                buffer.asIntBuffer().get(smoothingGroups);
+                buffer.position(buffer.position() + 4 * smoothingGroups.length);
+
+                checkFaces(faces, smoothingGroups.length, points.length / 3, texCoords.length / 2);
+                parts.add(new ModelMesh.Part(material, hasColor ? new java.awt.Color(argb, true) : null,
+                        points, texCoords, faces, smoothingGroups));
+            }
+            return new ModelMesh(parts);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Compiled model is truncated or damaged", e);
+        }
+    }
+
+    // A damaged file must not produce indices TriangleMesh would reject while drawing
+    private static void checkFaces(int[] faces, int faceCount, int pointCount, int texCoordCount) throws IOException {
+        if (faces.length != faceCount * 6) {
+            throw new IOException("Face and smoothing group counts do not match");
+        }
+        for (int i = 0; i < faces.length; i += 2) {
+            if (faces[i] < 0 || faces[i] >= pointCount || faces[i + 1] < 0 || faces[i + 1] >= texCoordCount) {
+                throw new IOException("Face index out of range");
+            }
+        }
+    }
+
+    // Rejects array lengths larger than the rest of the file before allocating them
+    private static int checkLength(int length, ByteBuffer buffer) throws IOException {
+        if (length < 0 || length > buffer.remaining() / 4) {
+            throw new IOException("Invalid array length " + length);
+        }
+        return length;
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return 4 + ((bytes.length + 3) & ~3);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        buffer.position(buffer.position() + ((4 - bytes.length % 4) % 4));
+    }
+
+    private static String getString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        buffer.position(buffer.position() + ((4 - length % 4) % 4));
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package main.java.com.furniview3d.render;
+
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The triangle data of a furniture model, split into one part per material.
+ * Points are normalized to a unit cube centered on the origin in JavaFX orientation (Y down),
+ * so a node only has to scale the model to the item's width, height and length.
+ * The data is built off the FX thread with primitive arrays; the TriangleMesh objects are
+ * created once on the FX thread and shared by every node showing the model.
+ */
+public class ModelMesh {
+    private static final int SIMPLIFY_GRID_SIZE = 12;        // cells per axis used by simplify
+    private static final int MIN_TRIANGLES_TO_SIMPLIFY = 500;
+
+    private final List<Part> parts;
+    private ModelMesh simplified;
+    private List<TriangleMesh> triangleMeshes;
+
+    /**
+     * The triangles of a model that use one material, in TriangleMesh layout
+     */
+    public static class Part {
+        private final String materialName;
+        private final java.awt.Color diffuseColor;
+        private final float[] points;
+        private final float[] texCoords;
+        private final int[] faces;
+        private final int[] smoothingGroups;
+
+        public Part(String materialName, java.awt.Color diffuseColor, float[] points, float[] texCoords,
+                    int[] faces, int[] smoothingGroups) {
+            this.materialName = materialName;
+            this.diffuseColor = diffuseColor;
+            this.points = points;
+            this.texCoords = texCoords;
+            this.faces = faces;
+            this.smoothingGroups = smoothingGroups;
+        }
+
+        public String getMaterialName() {
+            return materialName;
+        }
+
+        /**
+         * Gets the diffuse color from the model's MTL file
+         * @return The color, or null if the material did not define one
+         */
+        public java.awt.Color getDiffuseColor() {
+            return diffuseColor;
+        }
+
+        public int getTriangleCount() {
+            return faces.length / 6;
+        }
+
+        public int getPointCount() {
+            return points.length / 3;
+        }
+
+        // The arrays below are shared, not copied; they are used by MeshCompiler
+
+        float[] getPoints() {
+            return points;
+        }
+
+        float[] getTexCoords() {
+            return texCoords;
+        }
+
+        int[] getFaces() {
+            return faces;
+        }
+
+        int[] getSmoothingGroups() {
+            return smoothingGroups;
+        }
+    }
+
+    public ModelMesh(List<Part> parts) {
+        this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+    }
+
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    public int getTriangleCount() {
+        int count = 0;
+        for (Part part : parts) {
+            count += part.getTriangleCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets a coarser version of the model for items that appear small on screen
+     * @return The simplified model, or this model if it is already small
+     */
+    public synchronized ModelMesh getSimplified() {
+        if (simplified == null) {
+            simplified = getTriangleCount() < MIN_TRIANGLES_TO_SIMPLIFY ? this : simplify(SIMPLIFY_GRID_SIZE);
+        }
+        return simplified;
+    }
+
+    /**
+     * Gets one TriangleMesh per part, creating them on first use. Must be called on the
+     * JavaFX application thread.
+     * @return The meshes, in the order of getParts
+     */
+    public List<TriangleMesh> getTriangleMeshes() {
+        if (triangleMeshes == null) {
+            List<TriangleMesh> meshes = new ArrayList<>(parts.size());
+            for (Part part : parts) {
+                TriangleMesh mesh = new TriangleMesh();
+                mesh.getPoints().setAll(part.points);
+                mesh.getTexCoords().setAll(part.texCoords);
+                mesh.getFaces().setAll(part.faces);
+                mesh.getFaceSmoothingGroups().setAll(part.smoothingGroups);
+                meshes.add(mesh);
+            }
+            triangleMeshes = Collections.unmodifiableList(meshes);
+        }
+        return triangleMeshes;
+    }
+
+    /**
+     * Builds a coarser model by vertex clustering: the unit cube is divided into a grid,
+     * all points in a cell are merged into their average, and triangles that collapse are dropped
+     * @param gridSize The number of cells along each axis
+     * @return The simplified model
+     */
+    public ModelMesh simplify(int gridSize) {
+        List<Part> simplifiedParts = new ArrayList<>(parts.size());
+        for (Part part : parts) {
+            int pointCount = part.getPointCount();
+            int[] cluster = new int[pointCount];
+            Map<Integer, Integer> clusterByCell = new HashMap<>();
+            float[] sums = new float[pointCount * 3];
+            int[] counts = new int[pointCount];
+            int clusterCount = 0;
+
+            for (int i = 0; i < pointCount; i++) {
+                int cell = cellOf(part.points[i * 3], gridSize);
+                cell = cell * gridSize + cellOf(part.points[i * 3 + 1], gridSize);
+                cell = cell * gridSize + cellOf(part.points[i * 3 + 2], gridSize);
+                Integer index = clusterByCell.get(cell);
+                if (index == null) {
+                    index = clusterCount++;
+                    clusterByCell.put(cell, index);
+                }
+                cluster[i] = index;
+                sums[index * 3] += part.points[i * 3];
+                sums[index * 3 + 1] += part.points[i * 3 + 1];
+                sums[index * 3 + 2] += part.points[i * 3 + 2];
+                counts[index]++;
+            }
+
+            float[] points = new float[clusterCount * 3];
+            for (int i = 0; i < clusterCount; i++) {
+                points[i * 3] = sums[i * 3] / counts[i];
+                points[i * 3 + 1] = sums[i * 3 + 1] / counts[i];
+                points[i * 3 + 2] = sums[i * 3 + 2] / counts[i];
+            }
+
+            int[] faces = new int[part.faces.length];
+            int[] smoothingGroups = new int[part.smoothingGroups.length];
+            int faceCount = 0;
+            for (int face = 0; face < part.getTriangleCount(); face++) {
+                int a = cluster[part.faces[face * 6]];
+                int b = cluster[part.faces[face * 6 + 2]];
+                int c = cluster[part.faces[face * 6 + 4]];
+                if (a == b || b == c || a == c) {
+                    continue; // collapsed into a line or a point
+                }
+                faces[faceCount * 6] = a;
+                faces[faceCount * 6 + 1] = part.faces[face * 6 + 1];
+                faces[faceCount * 6 + 2] = b;
+                faces[faceCount * 6 + 3] = part.faces[face * 6 + 3];
+                faces[faceCount * 6 + 4] = c;
+                faces[faceCount * 6 + 5] = part.faces[face * 6 + 5];
+                smoothingGroups[faceCount] = part.smoothingGroups[face];
+                faceCount++;
+            }
+
+            simplifiedParts.add(new Part(part.materialName, part.diffuseColor, points, part.texCoords,
+                    Arrays.copyOf(faces, faceCount * 6), Arrays.copyOf(smoothingGroups, faceCount)));
+        }
+        return new ModelMesh(simplifiedParts);
+    }
+
+    private static int cellOf(float coordinate, int gridSize) {
+        int cell = (int) Math.floor((coordinate + 0.5f) * gridSize);
+        return Math.max(0, Math.min(gridSize - 1, cell));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,371 @@
+package main.java.com.furniview3d.render;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Wavefront OBJ models and the diffuse colors of their MTL materials.
+ * The file is streamed line by line into growable primitive arrays, so large models do not
+ * create an object per vertex. Polygons are split into triangle fans, faces are grouped by
+ * material, and the points are normalized into a unit cube with Y pointing down as in JavaFX.
+ * Normals are not read; shading comes from the smoothing groups ("s" lines).
+ */
+public class ObjParser {
+
+    // Utility class
+    private ObjParser() {
+    }
+
+    /**
+     * A growable float array
+     */
+    private static class FloatList {
+        private float[] values = new float[1024];
+        private int size;
+
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * A growable int array
+     */
+    private static class IntList {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * The faces read for one material, with indices into the whole file
+     */
+    private static class PartBuilder {
+        private final IntList faces = new IntList();       // point, texCoord per corner; texCoord -1 if none
+        private final IntList smoothingGroups = new IntList();
+    }
+
+    /**
+     * Parses an OBJ file and the MTL files it references
+     * @param objFile The OBJ file
+     * @return The model with one part per material
+     * @throws IOException If the file cannot be read or is not a usable OBJ model
+     */
+    public static ModelMesh parse(Path objFile) throws IOException {
+        return parse(objFile, new ArrayList<>());
+    }
+
+    /**
+     * Parses an OBJ file and the MTL files it references
+     * @param objFile The OBJ file
+     * @param materialFiles Receives the MTL files the OBJ file references, including missing ones
+     * @return The model with one part per material
+     * @throws IOException If the file cannot be read or is not a usable OBJ model
+     */
+    static ModelMesh parse(Path objFile, List<Path> materialFiles) throws IOException {
+        FloatList points = new FloatList();
+        FloatList texCoords = new FloatList();
+        Map<String, PartBuilder> parts = new LinkedHashMap<>();
+        Map<String, java.awt.Color> materialColors = new HashMap<>();
+
+        String material = "";
+        PartBuilder part = null;
+        int smoothingGroup = 0;
+        int[] corners = new int[16];
+        int lineNumber = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(objFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                Tokenizer tokens = new Tokenizer(line);
+                String keyword = tokens.next();
+                if (keyword == null || keyword.startsWith("#")) {
+                    continue;
+                }
+
+                try {
+                    switch (keyword) {
+                        case "v":
+                            points.add(tokens.nextFloat());
+                            points.add(tokens.nextFloat());
+                            points.add(tokens.nextFloat());
+                            break;
+                        case "vt":
+                            texCoords.add(tokens.nextFloat());
+                            texCoords.add(1 - tokens.nextFloatOr(0)); // OBJ V runs upwards
+                            break;
+                        case "f":
+                            if (part == null) {
+                                part = parts.computeIfAbsent(material, name -> new PartBuilder());
+                            }
+                            int count = 0;
+                            while (tokens.hasNext()) {
+                                if (count * 2 + 2 > corners.length) {
+                                    corners = Arrays.copyOf(corners, corners.length * 2);
+                                }
+                                tokens.nextCorner(points.size / 3, texCoords.size / 2, corners, count * 2);
+                                count++;
+                            }
+                            if (count < 3) {
+                                throw new IOException("Malformed OBJ line " + lineNumber + ": face with fewer than 3 corners");
+                            }
+                            // Triangle fan; the corner order is swapped because Y is flipped below
+                            for (int i = 1; i < count - 1; i++) {
+                                addCorner(part, corners, 0);
+                                addCorner(part, corners, (i + 1) * 2);
+                                addCorner(part, corners, i * 2);
+                                part.smoothingGroups.add(smoothingGroup);
+                            }
+                            break;
+                        case "usemtl":
+                            material = tokens.rest();
+                            part = null;
+                            break;
+                        case "mtllib":
+                            for (String name : tokens.rest().split("\\s+")) {
+                                Path mtlFile = objFile.resolveSibling(name);
+                                materialFiles.add(mtlFile);
+                                readMaterials(mtlFile, materialColors);
+                            }
+                            break;
+                        case "s":
+                            String group = tokens.next();
+                            if (group == null || group.equals("off")) {
+                                smoothingGroup = 0;
+                            } else {
+                                int number = Integer.parseInt(group);
+                                smoothingGroup = number <= 0 ? 0 : 1 << ((number - 1) % 32);
+                            }
+                            break;
+                        default:
+                            break; // vn, o, g and other statements are not needed
+                    }
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    throw new IOException("Malformed OBJ line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        if (points.size == 0 || parts.isEmpty()) {
+            throw new IOException("OBJ file has no faces: " + objFile);
+        }
+        float[] normalized = normalize(points);
+
+        // The texture coordinate after the file's own ones is used by corners without one
+        float[] texCoordArray = Arrays.copyOf(texCoords.values, texCoords.size + 2);
+        int defaultTexCoord = texCoords.size / 2;
+
+        List<ModelMesh.Part> result = new ArrayList<>(parts.size());
+        for (Map.Entry<String, PartBuilder> entry : parts.entrySet()) {
+            result.add(buildPart(entry.getKey(), materialColors.get(entry.getKey()), entry.getValue(),
+                    normalized, texCoordArray, defaultTexCoord));
+        }
+        return new ModelMesh(result);
+    }
+
+    // OBJ indices start at 1; negative indices count back from the last element read
+    private static int resolveIndex(int index, int count) {
+        int resolved = index < 0 ? count + index : index - 1;
+        if (index == 0 || resolved < 0 || resolved >= count) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range");
+        }
+        return resolved;
+    }
+
+    private static void addCorner(PartBuilder part, int[] corners, int offset) {
+        part.faces.add(corners[offset]);
+        part.faces.add(corners[offset + 1]);
+    }
+
+    /**
+     * Scales the points into a unit cube centered on the origin and flips Y
+     */
+    private static float[] normalize(FloatList points) {
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int i = 0; i < points.size; i++) {
+            min[i % 3] = Math.min(min[i % 3], points.values[i]);
+            max[i % 3] = Math.max(max[i % 3], points.values[i]);
+        }
+
+        float[] result = new float[points.size];
+        for (int i = 0; i < points.size; i++) {
+            int axis = i % 3;
+            float extent = max[axis] - min[axis];
+            float value = extent > 0 ? (points.values[i] - min[axis]) / extent - 0.5f : 0;
+            result[i] = axis == 1 ? -value : value; // OBJ Y points up
+        }
+        return result;
+    }
+
+    /**
+     * Copies the points used by one part and renumbers its faces to match
+     */
+    private static ModelMesh.Part buildPart(String material, java.awt.Color color, PartBuilder builder,
+                                            float[] points, float[] texCoords, int defaultTexCoord) {
+        int[] remap = new int[points.length / 3];
+        Arrays.fill(remap, -1);
+        FloatList partPoints = new FloatList();
+        int[] faces = Arrays.copyOf(builder.faces.values, builder.faces.size);
+
+        for (int i = 0; i < faces.length; i += 2) {
+            int point = faces[i];
+            if (remap[point] < 0) {
+                remap[point] = partPoints.size / 3;
+                partPoints.add(points[point * 3]);
+                partPoints.add(points[point * 3 + 1]);
+                partPoints.add(points[point * 3 + 2]);
+            }
+            faces[i] = remap[point];
+            if (faces[i + 1] < 0) {
+                faces[i + 1] = defaultTexCoord;
+            }
+        }
+
+        return new ModelMesh.Part(material, color, Arrays.copyOf(partPoints.values, partPoints.size), texCoords,
+                faces, Arrays.copyOf(builder.smoothingGroups.values, builder.smoothingGroups.size));
+    }
+
+    /**
+     * Reads the diffuse colors ("Kd") of the materials in an MTL file. A missing or unreadable
+     * file is skipped, leaving the parts that use its materials without a color.
+     */
+    private static void readMaterials(Path mtlFile, Map<String, java.awt.Color> colors) {
+        try (BufferedReader reader = Files.newBufferedReader(mtlFile, StandardCharsets.UTF_8)) {
+            String material = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Tokenizer tokens = new Tokenizer(line);
+                String keyword = tokens.next();
+                if ("newmtl".equals(keyword)) {
+                    material = tokens.rest();
+                } else if ("Kd".equals(keyword) && material != null) {
+                    float red = clamp(tokens.nextFloat());
+                    float green = clamp(tokens.nextFloat());
+                    float blue = clamp(tokens.nextFloat());
+                    colors.put(material, new java.awt.Color(red, green, blue));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading materials " + mtlFile + ": " + e.getMessage());
+        }
+    }
+
+    private static float clamp(float value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    /**
+     * Splits a line at whitespace without creating an array for each line
+     */
+    private static class Tokenizer {
+        private final String line;
+        private int position;
+
+        Tokenizer(String line) {
+            this.line = line;
+        }
+
+        String next() {
+            int length = line.length();
+            skipWhitespace();
+            if (position >= length) {
+                return null;
+            }
+            int start = position;
+            while (position < length && !Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            return line.substring(start, position);
+        }
+
+        boolean hasNext() {
+            skipWhitespace();
+            return position < line.length();
+        }
+
+        /**
+         * Reads a face corner ("v", "v/vt", "v//vn" or "v/vt/vn") as zero-based point and
+         * texture coordinate indices, the latter -1 if the corner has none
+         */
+        void nextCorner(int pointCount, int texCoordCount, int[] target, int offset) {
+            skipWhitespace();
+            target[offset] = resolveIndex(nextIndex(), pointCount);
+            target[offset + 1] = -1;
+            if (position < line.length() && line.charAt(position) == '/') {
+                position++;
+                if (position < line.length() && line.charAt(position) != '/') {
+                    target[offset + 1] = resolveIndex(nextIndex(), texCoordCount);
+                }
+            }
+            // The normal index is not used
+            while (position < line.length() && !Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+
+        // Reads a signed integer without creating a string
+        private int nextIndex() {
+            int length = line.length();
+            boolean negative = position < length && line.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+            int start = position;
+            long value = 0;
+            while (position < length && line.charAt(position) >= '0' && line.charAt(position) <= '9') {
+                value = value * 10 + (line.charAt(position++) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("index too large");
+                }
+            }
+            if (position == start) {
+                throw new NumberFormatException("missing index");
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        private void skipWhitespace() {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+
+        float nextFloat() {
+            String token = next();
+            if (token == null) {
+                throw new NumberFormatException("missing number");
+            }
+            return Float.parseFloat(token);
+        }
+
+        float nextFloatOr(float defaultValue) {
+            String token = next();
+            return token == null ? defaultValue : Float.parseFloat(token);
+        }
+
+        // The remainder of the line, for names that may contain spaces
+        String rest() {
+            return line.substring(Math.min(position, line.length())).trim();
+        }
+    }
+}
\ No newline at end of file
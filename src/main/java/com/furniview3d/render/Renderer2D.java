@@ -3,17 +3,50 @@ package main.java.com.furniview3d.render;
 import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Furniture;
 import main.java.com.furniview3d.model.Room;
+import main.java.com.furniview3d.util.FurnitureSpatialIndex;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+
+/**
+ * Draws the floor plan of a design. The room and all furniture except the selected item are
+ * drawn once into a TileCache and copied to the screen from there; the selected item, which
+ * is the one being dragged or rotated, is drawn on top of the tiles on every repaint.
+ * Changes reported through furnitureChanged and furnitureRemoved only redraw
+ * the tiles and the part of the panel the item covered before and after the change.
+ * Tiles look up the furniture they show in a spatial index, so drawing the visible part of
+ * the plan costs the same however large the rest of the design is. Labels are left out where
+ * they would be too small to read.
+ *
+ * Once the tiles are drawn, repainting allocates nothing itself: fonts, strokes and colors
+ * are constants, label widths are measured once per name, transforms are reused, and item
+ * bounds are updated in place.
+ */
 public class Renderer2D extends JPanel {
     private static final long serialVersionUID = 1L;
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 10);
+    private static final Font ROOM_NAME_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font ROOM_SIZE_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font PLACEHOLDER_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final BasicStroke WALL_STROKE = new BasicStroke(2);
+    private static final BasicStroke THIN_STROKE = new BasicStroke(1);
+    private static final Color GRID_COLOR = new Color(200, 200, 200, 100);
+    private static final Color LABEL_BACKGROUND = new Color(255, 255, 255, 200);
+    private static final FontRenderContext LABEL_CONTEXT = new FontRenderContext(null, false, false); // zoom 1, as painted
+    private static final int LABEL_HEIGHT = 20;
+    private static final int BOUNDS_PADDING = 3; // strokes, antialiasing and rounding, in pixels
+    private static final double MIN_LABEL_SCALE = 0.6;  // below this zoom label text is under 6 pixels
+    private static final int MIN_LABELED_SIZE = 30;     // items smaller than this on screen get no label, in pixels
 
     private Design design;
     private double scale = 1.0;
@@ -21,18 +54,143 @@ public class Renderer2D extends JPanel {
     private int panY = 0;
     private boolean showGrid = true;
     private boolean showLabels = true;
-    private Map<String, Image> furnitureImages = new HashMap<>();
+    private Furniture selectedFurniture;
+
+    // The cached layer with the room and all furniture but the selected item
+    private final TileCache tileCache = new TileCache();
+    private final TileCache.TilePainter staticLayerPainter = this::paintStaticLayer;
+    private final Map<Furniture, Rectangle2D.Double> drawnBounds = new IdentityHashMap<>(); // unscaled canvas pixels
+    private final Map<String, Integer> labelWidths = new HashMap<>(); // furniture name -> width in pixels
+    private final FurnitureSpatialIndex layerIndex = new FurnitureSpatialIndex(); // footprints of all items
+    private final List<Furniture> visibleFurniture = new ArrayList<>(); // reused by paintStaticLayer
+    private int maxLabelWidth; // widest label measured, bounds how far a label reaches past its item
+    private final Rectangle clipBounds = new Rectangle();
+    private final Rectangle2D.Double previousBounds = new Rectangle2D.Double();
+    private final AffineTransform itemTransform = new AffineTransform();
+    private final AffineTransform inverseItemTransform = new AffineTransform();
+    private int roomOriginX; // top-left corner of the room before pan and zoom, see updateRoomOrigin
+    private int roomOriginY;
+    private String roomSizeLabel;
+    private long syncedRevision = -1; // design revision the bounds and tiles match, -1 to rebuild them
+
+    // Settings the cached layer was drawn with
+    private int layerWidth;
+    private int layerHeight;
+    private boolean layerShowGrid;
+    private boolean layerShowLabels;
+    private double layerRoomWidth;
+    private double layerRoomLength;
+    private Color layerFloorColor;
+    private String layerRoomName;
 
     public Renderer2D() {
         setBackground(Color.WHITE);
     }
 
     public void setDesign(Design design) {
+        if (design != null && design == this.design) {
+            // Showing the same design again keeps the cached layer; changes are found by revision
+            setSelectedFurniture(null);
+            repaint();
+            return;
+        }
         this.design = design;
-        loadFurnitureImages();
+        this.selectedFurniture = null;
+        this.syncedRevision = -1;
+        labelWidths.clear();
+        maxLabelWidth = 0;
         repaint();
     }
 
+    /**
+     * Sets the item drawn above the cached layer, normally the selected or dragged one
+     * @param furniture The selected furniture, or null
+     */
+    public void setSelectedFurniture(Furniture furniture) {
+        if (furniture == selectedFurniture) {
+            return;
+        }
+        Furniture previous = selectedFurniture;
+        selectedFurniture = furniture;
+        if (!isLayerSynced()) {
+            repaint();
+            return;
+        }
+
+        // The previous item goes back into the tiles and the new one is taken out of them
+        if (previous != null) {
+            Rectangle2D.Double bounds = drawnBounds.get(previous);
+            if (bounds != null) {
+                addToStaticLayer(bounds);
+                repaintArea(bounds);
+            }
+        }
+        if (furniture != null) {
+            Rectangle2D.Double bounds = drawnBounds.get(furniture);
+            if (bounds != null) {
+                tileCache.invalidate(bounds);
+                repaintArea(bounds);
+            }
+        }
+    }
+
+    /**
+     * Redraws a furniture item that was added, moved, rotated, resized or recolored
+     * @param furniture The furniture that changed
+     */
+    public void furnitureChanged(Furniture furniture) {
+        if (!isLayerSynced()) {
+            repaint();
+            return;
+        }
+
+        Rectangle2D.Double bounds = drawnBounds.get(furniture);
+        boolean isNew = bounds == null;
+        if (isNew) {
+            bounds = new Rectangle2D.Double();
+            drawnBounds.put(furniture, bounds);
+        } else {
+            previousBounds.setRect(bounds);
+        }
+        updateRoomOrigin();
+        computeDrawnBounds(furniture, bounds);
+        layerIndex.update(furniture);
+        syncedRevision = design.getRevision();
+
+        if (furniture != selectedFurniture) {
+            if (!isNew) {
+                tileCache.invalidate(previousBounds);
+            }
+            addToStaticLayer(bounds);
+        }
+        if (!isNew) {
+            repaintArea(previousBounds);
+        }
+        repaintArea(bounds);
+    }
+
+    /**
+     * Clears the area of a furniture item that was removed from the design
+     * @param furniture The removed furniture
+     */
+    public void furnitureRemoved(Furniture furniture) {
+        if (furniture == selectedFurniture) {
+            selectedFurniture = null;
+        }
+        if (!isLayerSynced()) {
+            repaint();
+            return;
+        }
+
+        Rectangle2D.Double oldBounds = drawnBounds.remove(furniture);
+        layerIndex.remove(furniture);
+        syncedRevision = design.getRevision();
+        if (oldBounds != null) {
+            tileCache.invalidate(oldBounds);
+            repaintArea(oldBounds);
+        }
+    }
+
     public void setScale(double scale) {
         this.scale = Math.max(0.1, Math.min(scale, 5.0));
         repaint();
@@ -58,172 +216,347 @@ public class Renderer2D extends JPanel {
         repaint();
     }
 
-    private void loadFurnitureImages() {
-        if (design == null) return;
+    /**
+     * Converts a point on the panel to room coordinates, undoing the pan, zoom and centering
+     * applied when painting
+     * @param point The point in panel pixels
+     * @return The point in room meters, or null if no design is shown
+     */
+    public Point2D.Double screenToRoom(Point point) {
+        if (design == null) {
+            return null;
+        }
+        Point roomOrigin = getRoomOrigin();
+        double x = ((point.x - panX) / scale - roomOrigin.x) / 100.0;
+        double y = ((point.y - panY) / scale - roomOrigin.y) / 100.0;
+        return new Point2D.Double(x, y);
+    }
 
-        furnitureImages.clear();
-        for (Furniture furniture : design.getFurnitureList()) {
-            try {
-                // For now, we'll just create placeholder images
-                Image image = createPlaceholderImage(furniture);
-                furnitureImages.put(furniture.getId(), image);
-            } catch (Exception e) {
-                System.err.println("Error loading image for furniture: " + furniture.getName());
-            }
+    /**
+     * Converts room coordinates to a point on the panel
+     * @param x The X coordinate in room meters
+     * @param y The Y coordinate in room meters
+     * @return The point in panel pixels, or null if no design is shown
+     */
+    public Point roomToScreen(double x, double y) {
+        if (design == null) {
+            return null;
         }
+        Point roomOrigin = getRoomOrigin();
+        return new Point((int) Math.round(panX + (roomOrigin.x + x * 100) * scale),
+                (int) Math.round(panY + (roomOrigin.y + y * 100) * scale));
     }
 
-    private Image createPlaceholderImage(Furniture furniture) {
-        int width = (int)(furniture.getWidth() * 100);
-        int height = (int)(furniture.getLength() * 100);
+    // Top-left corner of the room before pan and zoom, as used by drawRoom and drawFurniture
+    private Point getRoomOrigin() {
+        updateRoomOrigin();
+        return new Point(roomOriginX, roomOriginY);
+    }
 
-        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = img.createGraphics();
+    private void updateRoomOrigin() {
+        Room room = design.getRoom();
+        int roomWidth = (int)(room.getWidth() * 100);
+        int roomHeight = (int)(room.getLength() * 100);
+        roomOriginX = (getWidth() / 2) - (roomWidth / 2);
+        roomOriginY = (getHeight() / 2) - (roomHeight / 2);
+    }
 
-        switch (furniture.getType().toLowerCase()) {
-            case "chair":
-                g2d.setColor(new Color(150, 80, 50));
-                break;
-            case "table":
-                g2d.setColor(new Color(120, 100, 70));
-                break;
-            case "sofa":
-                g2d.setColor(new Color(70, 90, 140));
-                break;
-            default:
-                g2d.setColor(new Color(120, 120, 120));
+    @Override
+    protected void paintComponent(Graphics g) {
+        // Drawn on g itself rather than a copy, with the transform and antialiasing undone afterwards.
+        // The background is filled here too, since JComponent.paintComponent copies the Graphics
+        // to let the look and feel do it
+        Graphics2D g2d = (Graphics2D) g;
+        if (isOpaque()) {
+            g2d.setColor(getBackground());
+            g2d.fillRect(0, 0, getWidth(), getHeight());
         }
+        Object antialiasing = g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
 
-        g2d.fillRect(0, 0, width, height);
-        g2d.setColor(Color.BLACK);
-        g2d.drawRect(0, 0, width - 1, height - 1);
+        if (design != null) {
+            syncLayer();
+            clipBounds.setBounds(0, 0, getWidth(), getHeight());
+            g2d.getClipBounds(clipBounds);
+            tileCache.paint(g2d, clipBounds, panX, panY, scale, getBackground(), getGraphicsConfiguration(),
+                    staticLayerPainter);
+
+            if (selectedFurniture != null && drawnBounds.containsKey(selectedFurniture)) {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.translate(panX, panY);
+                g2d.scale(scale, scale);
+                drawFurniture(g2d, selectedFurniture, roomOriginX, roomOriginY);
+                g2d.scale(1 / scale, 1 / scale);
+                g2d.translate(-panX, -panY);
+            }
+        } else {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.translate(panX, panY);
+            g2d.scale(scale, scale);
+            drawPlaceholder(g2d);
+            g2d.scale(1 / scale, 1 / scale);
+            g2d.translate(-panX, -panY);
+        }
 
-        g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        g2d.drawString(furniture.getType(), 5, height/2);
+        if (antialiasing != null) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+        }
+    }
 
-        g2d.dispose();
-        return img;
+    /**
+     * Draws the room and the furniture other than the selected item into one tile
+     */
+    private void paintStaticLayer(Graphics2D g2d, Rectangle2D area) {
+        drawRoom(g2d, area);
+
+        // Footprints are indexed in room meters; widen the query by the most an item's
+        // label and outline can reach past its footprint
+        double margin = BOUNDS_PADDING + 2 + (showLabels ? maxLabelWidth + 6 + LABEL_HEIGHT : 0);
+        layerIndex.findIntersecting((area.getMinX() - roomOriginX - margin) / 100.0,
+                (area.getMinY() - roomOriginY - margin) / 100.0,
+                (area.getMaxX() - roomOriginX + margin) / 100.0,
+                (area.getMaxY() - roomOriginY + margin) / 100.0, visibleFurniture);
+
+        for (int i = 0; i < visibleFurniture.size(); i++) {
+            Furniture furniture = visibleFurniture.get(i);
+            if (furniture == selectedFurniture) {
+                continue;
+            }
+            Rectangle2D.Double bounds = drawnBounds.get(furniture);
+            if (bounds != null && bounds.intersects(area)) {
+                drawFurniture(g2d, furniture, roomOriginX, roomOriginY);
+            }
+        }
+        visibleFurniture.clear();
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g.create();
+    /**
+     * Drops the cached layer if the design changed without being reported or anything it is
+     * drawn with has changed, and recomputes the area covered by every item
+     */
+    private void syncLayer() {
+        Room room = design.getRoom();
+        updateRoomOrigin();
+        boolean isLayerCurrent = layerWidth == getWidth()
+                && layerHeight == getHeight()
+                && layerShowGrid == showGrid
+                && layerShowLabels == showLabels
+                && layerRoomWidth == room.getWidth()
+                && layerRoomLength == room.getLength()
+                && Objects.equals(room.getColorScheme().getFloorColor(), layerFloorColor)
+                && Objects.equals(room.getName(), layerRoomName);
+        if (isLayerCurrent && syncedRevision == design.getRevision()) {
+            return;
+        }
 
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        layerWidth = getWidth();
+        layerHeight = getHeight();
+        layerShowGrid = showGrid;
+        layerShowLabels = showLabels;
+        layerRoomWidth = room.getWidth();
+        layerRoomLength = room.getLength();
+        layerFloorColor = room.getColorScheme().getFloorColor();
+        layerRoomName = room.getName();
+        roomSizeLabel = String.format("%.1fm × %.1fm", room.getWidth(), room.getLength());
+
+        // Everything static is drawn within the room and the items outside the selection
+        Rectangle2D.Double content = new Rectangle2D.Double(roomOriginX - BOUNDS_PADDING,
+                roomOriginY - BOUNDS_PADDING, (int) (room.getWidth() * 100) + 2 * BOUNDS_PADDING,
+                (int) (room.getLength() * 100) + 2 * BOUNDS_PADDING);
+        drawnBounds.clear();
+        for (Furniture furniture : design.getFurnitureList()) {
+            Rectangle2D.Double bounds = new Rectangle2D.Double();
+            computeDrawnBounds(furniture, bounds);
+            drawnBounds.put(furniture, bounds);
+            if (furniture != selectedFurniture) {
+                content.add(bounds);
+            }
+        }
+        layerIndex.rebuild(design.getFurnitureList());
+        tileCache.setContentBounds(content);
+        syncedRevision = design.getRevision();
+    }
 
-        g2d.translate(panX, panY);
-        g2d.scale(scale, scale);
+    // True if the bounds and tiles have been built and can be updated item by item
+    private boolean isLayerSynced() {
+        return design != null && syncedRevision >= 0;
+    }
 
-        if (design != null) {
-            drawRoom(g2d);
-            drawFurniture(g2d);
+    /**
+     * Invalidates the tiles under an item that is drawn in the cached layer, growing the
+     * layer first if the item lies outside it
+     */
+    private void addToStaticLayer(Rectangle2D bounds) {
+        Rectangle2D content = tileCache.getContentBounds();
+        if (content.contains(bounds)) {
+            tileCache.invalidate(bounds);
         } else {
-            drawPlaceholder(g2d);
+            Rectangle2D.Double grown = new Rectangle2D.Double();
+            grown.setRect(content);
+            grown.add(bounds);
+            tileCache.setContentBounds(grown);
+        }
+    }
+
+    /**
+     * Repaints the part of the panel that shows an area of the canvas
+     * @param area The area in unscaled canvas pixels
+     */
+    private void repaintArea(Rectangle2D area) {
+        int x = (int) Math.floor(panX + area.getMinX() * scale) - 1;
+        int y = (int) Math.floor(panY + area.getMinY() * scale) - 1;
+        int maxX = (int) Math.ceil(panX + area.getMaxX() * scale) + 1;
+        int maxY = (int) Math.ceil(panY + area.getMaxY() * scale) + 1;
+        repaint(x, y, maxX - x, maxY - y);
+    }
+
+    /**
+     * Computes the area a furniture item and its label cover when drawn, using the room origin
+     * from the last call to updateRoomOrigin
+     * @param furniture The furniture
+     * @param bounds Receives the bounding box in unscaled canvas pixels
+     */
+    private void computeDrawnBounds(Furniture furniture, Rectangle2D.Double bounds) {
+        int width = (int)(furniture.getWidth() * 100);
+        int height = (int)(furniture.getLength() * 100);
+        double centerX = roomOriginX + (int)(furniture.getPosX() * 100) + width / 2;
+        double centerY = roomOriginY + (int)(furniture.getPosY() * 100) + height / 2;
+
+        // Corners relative to the center before rotation, including the label above the item
+        double left = -width / 2;
+        double top = -height / 2;
+        double right = width - width / 2;
+        double bottom = height - height / 2;
+        if (showLabels) {
+            top -= LABEL_HEIGHT;
+            right = Math.max(right, left + getLabelWidth(furniture.getName()) + 6);
         }
 
-        g2d.dispose();
+        double angle = Math.toRadians(furniture.getRotation());
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double halfWidth = (Math.abs(cos) * (right - left) + Math.abs(sin) * (bottom - top)) / 2;
+        double halfHeight = (Math.abs(sin) * (right - left) + Math.abs(cos) * (bottom - top)) / 2;
+        double middleX = (left + right) / 2;
+        double middleY = (top + bottom) / 2;
+        double x = centerX + middleX * cos - middleY * sin;
+        double y = centerY + middleX * sin + middleY * cos;
+
+        bounds.setRect(x - halfWidth - BOUNDS_PADDING, y - halfHeight - BOUNDS_PADDING,
+                2 * (halfWidth + BOUNDS_PADDING), 2 * (halfHeight + BOUNDS_PADDING));
+    }
+
+    // Width of a label at zoom 1, measured once per name
+    private int getLabelWidth(String name) {
+        Integer width = labelWidths.get(name);
+        if (width == null) {
+            width = (int) LABEL_FONT.getStringBounds(name, LABEL_CONTEXT).getWidth();
+            labelWidths.put(name, width);
+            maxLabelWidth = Math.max(maxLabelWidth, width);
+        }
+        return width;
     }
 
-    private void drawRoom(Graphics2D g2d) {
+    /**
+     * Checks if an item's label is large enough on screen to be worth drawing
+     * @param width The item's width in unscaled canvas pixels
+     * @param height The item's length in unscaled canvas pixels
+     * @return true if the label should be drawn
+     */
+    private boolean isLabelVisible(int width, int height) {
+        return showLabels && scale >= MIN_LABEL_SCALE && Math.max(width, height) * scale >= MIN_LABELED_SIZE;
+    }
+
+    private void drawRoom(Graphics2D g2d, Rectangle2D area) {
         Room room = design.getRoom();
 
         int width = (int)(room.getWidth() * 100);
         int height = (int)(room.getLength() * 100);
 
-        int x = (getWidth() / 2) - (width / 2);
-        int y = (getHeight() / 2) - (height / 2);
+        int x = roomOriginX;
+        int y = roomOriginY;
 
         g2d.setColor(room.getColorScheme().getFloorColor());
         g2d.fillRect(x, y, width, height);
 
         g2d.setColor(Color.BLACK);
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setStroke(WALL_STROKE);
         g2d.drawRect(x, y, width, height);
 
         if (showGrid) {
-            drawGrid(g2d, x, y, width, height);
+            drawGrid(g2d, x, y, width, height, area);
         }
 
         if (showLabels) {
             g2d.setColor(Color.BLACK);
-            g2d.setFont(new Font("Arial", Font.BOLD, 14));
+            g2d.setFont(ROOM_NAME_FONT);
             g2d.drawString(room.getName(), x + 10, y + 20);
-            g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-            g2d.drawString(String.format("%.1fm × %.1fm", room.getWidth(), room.getLength()),
-                    x + 10, y + 40);
+            g2d.setFont(ROOM_SIZE_FONT);
+            g2d.drawString(roomSizeLabel, x + 10, y + 40);
         }
     }
 
-    private void drawGrid(Graphics2D g2d, int x, int y, int width, int height) {
-        g2d.setColor(new Color(200, 200, 200, 100));
-        g2d.setStroke(new BasicStroke(1));
+    // Only the lines that cross the area being drawn
+    private void drawGrid(Graphics2D g2d, int x, int y, int width, int height, Rectangle2D area) {
+        g2d.setColor(GRID_COLOR);
+        g2d.setStroke(THIN_STROKE);
 
-        for (int i = 0; i <= width; i += 100) {
+        int firstColumn = Math.max(0, (int) Math.floor((area.getMinX() - x - 1) / 100));
+        int lastColumn = (int) Math.min(width / 100, Math.floor((area.getMaxX() - x + 1) / 100));
+        for (int i = firstColumn * 100; i <= lastColumn * 100; i += 100) {
             g2d.drawLine(x + i, y, x + i, y + height);
         }
 
-        for (int i = 0; i <= height; i += 100) {
+        int firstRow = Math.max(0, (int) Math.floor((area.getMinY() - y - 1) / 100));
+        int lastRow = (int) Math.min(height / 100, Math.floor((area.getMaxY() - y + 1) / 100));
+        for (int i = firstRow * 100; i <= lastRow * 100; i += 100) {
             g2d.drawLine(x, y + i, x + width, y + i);
         }
     }
 
-    private void drawFurniture(Graphics2D g2d) {
-        if (design.getFurnitureList().isEmpty()) return;
-
-        Room room = design.getRoom();
-
-        int roomWidth = (int)(room.getWidth() * 100);
-        int roomHeight = (int)(room.getLength() * 100);
-
-        int roomX = (getWidth() / 2) - (roomWidth / 2);
-        int roomY = (getHeight() / 2) - (roomHeight / 2);
-
-        for (Furniture furniture : design.getFurnitureList()) {
-            double posX = furniture.getPosX() * 100;
-            double posY = furniture.getPosY() * 100;
-
-            int screenX = roomX + (int)posX;
-            int screenY = roomY + (int)posY;
-
-            int width = (int)(furniture.getWidth() * 100);
-            int height = (int)(furniture.getLength() * 100);
+    private void drawFurniture(Graphics2D g2d, Furniture furniture, int roomX, int roomY) {
+        double posX = furniture.getPosX() * 100;
+        double posY = furniture.getPosY() * 100;
 
-            AffineTransform oldTransform = g2d.getTransform();
+        int screenX = roomX + (int)posX;
+        int screenY = roomY + (int)posY;
 
-            g2d.translate(screenX + width/2, screenY + height/2);
-            g2d.rotate(Math.toRadians(furniture.getRotation()));
-
-            Image image = furnitureImages.get(furniture.getId());
-            if (image != null) {
-                g2d.drawImage(image, -width/2, -height/2, width, height, null);
-            } else {
-                g2d.setColor(furniture.getColor());
-                g2d.fillRect(-width/2, -height/2, width, height);
-                g2d.setColor(Color.BLACK);
-                g2d.drawRect(-width/2, -height/2, width, height);
-            }
-
-            if (showLabels) {
-                g2d.setColor(Color.BLACK);
-                g2d.setFont(new Font("Arial", Font.BOLD, 10));
+        int width = (int)(furniture.getWidth() * 100);
+        int height = (int)(furniture.getLength() * 100);
 
-                Rectangle2D textBounds = g2d.getFontMetrics().getStringBounds(furniture.getName(), g2d);
-                g2d.setColor(new Color(255, 255, 255, 200));
-                g2d.fillRect(-width/2, -height/2 - 20, (int)textBounds.getWidth() + 6, 20);
+        // Applied and then undone, since reading the current transform would copy it
+        double angle = Math.toRadians(furniture.getRotation());
+        itemTransform.setToTranslation(screenX + width/2, screenY + height/2);
+        itemTransform.rotate(angle);
+        inverseItemTransform.setToRotation(-angle);
+        inverseItemTransform.translate(-(screenX + width/2), -(screenY + height/2));
+        g2d.transform(itemTransform);
+
+        Image image = SpriteCache.getInstance().getSprite(furniture, scale);
+        if (image != null) {
+            g2d.drawImage(image, -width/2, -height/2, width, height, null);
+        } else {
+            g2d.setColor(furniture.getColor());
+            g2d.fillRect(-width/2, -height/2, width, height);
+            g2d.setColor(Color.BLACK);
+            g2d.setStroke(THIN_STROKE);
+            g2d.drawRect(-width/2, -height/2, width, height);
+        }
 
-                g2d.setColor(Color.BLACK);
-                g2d.drawString(furniture.getName(), -width/2 + 3, -height/2 - 5);
-            }
+        if (isLabelVisible(width, height)) {
+            g2d.setColor(LABEL_BACKGROUND);
+            g2d.fillRect(-width/2, -height/2 - LABEL_HEIGHT, getLabelWidth(furniture.getName()) + 6, LABEL_HEIGHT);
 
-            g2d.setTransform(oldTransform);
+            g2d.setColor(Color.BLACK);
+            g2d.setFont(LABEL_FONT);
+            g2d.drawString(furniture.getName(), -width/2 + 3, -height/2 - 5);
         }
+
+        g2d.transform(inverseItemTransform);
     }
 
     private void drawPlaceholder(Graphics2D g2d) {
         g2d.setColor(Color.LIGHT_GRAY);
-        g2d.setFont(new Font("Arial", Font.BOLD, 18));
+        g2d.setFont(PLACEHOLDER_FONT);
         String message = "No design loaded";
 
         FontMetrics fm = g2d.getFontMetrics();
@@ -9,6 +9,7 @@ import javafx.scene.PointLight;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseButton;
+import javafx.scene.input.PickResult;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
 import javafx.scene.shape.Box;
@@ -20,8 +21,13 @@ import main.java.com.furniview3d.model.Room;
 
 import javax.swing.*;
 import java.awt.BorderLayout;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class Renderer3D extends JPanel {
     private static final long serialVersionUID = 1L;
@@ -42,9 +48,24 @@ public class Renderer3D extends JPanel {
     private double mousePosX, mousePosY;
     private final Rotate rotateX = new Rotate(-20, Rotate.X_AXIS);
     private final Rotate rotateY = new Rotate(-20, Rotate.Y_AXIS);
+    private final Translate cameraTranslate = new Translate(0, 0, -1000);
+
+    // Result of the last frustum culling pass
+    private int drawnCount;
+    private int culledCount;
 
     // Mapping of furniture IDs to their 3D representations
-    private Map<String, Group> furnitureMap = new HashMap<>();
+    private Map<String, FurnitureNode> furnitureMap = new HashMap<>();
+
+    // Merged meshes used instead of one node per item for large designs
+    private final FurnitureBatcher batcher = new FurnitureBatcher(32.0, 0.1);
+    private int batchThreshold = FurnitureBatcher.DEFAULT_THRESHOLD;
+    private boolean isBatched = false;
+
+    // What the scene was last built from; the room is only rebuilt when these change
+    private Design renderedDesign;
+    private List<Object> renderedRoomState;
+    private final List<PhongMaterial> roomMaterials = new ArrayList<>(); // acquired from the MaterialCache
 
     // Track furniture visibility
     private Map<String, Boolean> furnitureVisibility = new HashMap<>();
@@ -96,12 +117,49 @@ public class Renderer3D extends JPanel {
         }
     }
 
+    /**
+     * Updates the node of one furniture item after it was moved, rotated, scaled or recolored,
+     * without touching the rest of the scene
+     * @param furniture The furniture that changed
+     */
+    public void updateFurniture(Furniture furniture) {
+        if (!isInitialized) {
+            sceneNeedsUpdate = true;
+            return;
+        }
+
+        Platform.runLater(() -> {
+            if (design == null || design != renderedDesign) {
+                updateScene();
+                return;
+            }
+            try {
+                updateFurnitureNode(furniture);
+                batcher.flush();
+                updateCulling();
+            } catch (Exception e) {
+                System.err.println("Error updating furniture: " + e.getMessage());
+            }
+        });
+    }
+
     public void setFurnitureVisibility(String furnitureId, boolean visible) {
         furnitureVisibility.put(furnitureId, visible);
-        if (isInitialized && furnitureMap.containsKey(furnitureId)) {
+        if (isInitialized) {
             Platform.runLater(() -> {
-                Group furniture = furnitureMap.get(furnitureId);
-                furniture.setVisible(visible);
+                FurnitureNode furniture = furnitureMap.get(furnitureId);
+                if (furniture != null) {
+                    furniture.setShown(visible);
+                    updateCulling();
+                } else if (isBatched && design != null && design == renderedDesign) {
+                    // Hidden items are left out of the batches
+                    Furniture item = design.getFurnitureById(furnitureId);
+                    if (item != null) {
+                        updateFurnitureNode(item);
+                        batcher.flush();
+                        updateCulling();
+                    }
+                }
             });
         }
     }
@@ -116,7 +174,7 @@ public class Renderer3D extends JPanel {
             camera.setNearClip(0.1);
             camera.setFarClip(10000.0);
             camera.getTransforms().addAll(
-                    new Translate(0, 0, -1000),
+                    cameraTranslate,
                     rotateX,
                     rotateY
             );
@@ -147,6 +205,10 @@ public class Renderer3D extends JPanel {
             scene.setFill(Color.LIGHTGRAY);
             scene.setCamera(camera);
 
+            // The frustum and the level of detail depend on the size of the view
+            scene.widthProperty().addListener((observable, oldWidth, newWidth) -> updateCulling());
+            scene.heightProperty().addListener((observable, oldHeight, newHeight) -> updateCulling());
+
             // Add mouse control for rotation
             scene.setOnMousePressed(event -> {
                 mouseOldX = event.getSceneX();
@@ -163,6 +225,7 @@ public class Renderer3D extends JPanel {
 
                     mouseOldX = mousePosX;
                     mouseOldY = mousePosY;
+                    updateCulling();
                 }
             });
 
@@ -186,32 +249,23 @@ public class Renderer3D extends JPanel {
                 return;
             }
 
-            // Clear previous content
-            roomGroup.getChildren().clear();
-            furnitureGroup.getChildren().clear();
-            furnitureMap.clear();
-
-            // Render room
-            if (design.getRoom() != null) {
-                renderRoom(design.getRoom());
-            } else {
-                System.err.println("Room is null in the design");
-            }
+            // Rebuild everything only for another design or a changed room
+            List<Object> roomState = roomState(design.getRoom());
+            if (design != renderedDesign || !roomState.equals(renderedRoomState)) {
+                clearScene();
 
-            // Render furniture
-            if (design.getFurnitureList() != null && !design.getFurnitureList().isEmpty()) {
-                for (Furniture furniture : design.getFurnitureList()) {
-                    if (furniture != null) {
-                        renderFurniture(furniture);
-
-                        // Apply visibility
-                        Boolean visible = furnitureVisibility.get(furniture.getId());
-                        if (visible != null && !visible && furnitureMap.containsKey(furniture.getId())) {
-                            furnitureMap.get(furniture.getId()).setVisible(false);
-                        }
-                    }
+                if (design.getRoom() != null) {
+                    renderRoom(design.getRoom());
+                } else {
+                    System.err.println("Room is null in the design");
                 }
+                renderedDesign = design;
+                renderedRoomState = roomState;
             }
+
+            // Bring the furniture nodes up to date, adding and removing nodes as needed
+            syncFurniture();
+            updateCulling();
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("Error updating scene: " + e.getMessage());
@@ -219,10 +273,83 @@ public class Renderer3D extends JPanel {
         }
     }
 
+    /**
+     * Updates the nodes of the current furniture list. Only the properties that changed are
+     * touched; nodes are created for new items and dropped for removed ones.
+     */
+    private void syncFurniture() {
+        if (design.getRoom() == null || design.getFurnitureList() == null) {
+            return;
+        }
+
+        // Switch between one node per item and merged meshes when crossing the threshold
+        boolean batched = design.getFurnitureList().size() >= batchThreshold;
+        if (batched != isBatched) {
+            clearFurniture();
+            isBatched = batched;
+            if (batched) {
+                furnitureGroup.getChildren().add(batcher.getGroup());
+            }
+        }
+
+        Set<String> present = new HashSet<>();
+        for (Furniture furniture : design.getFurnitureList()) {
+            if (furniture != null) {
+                present.add(furniture.getId());
+                updateFurnitureNode(furniture);
+            }
+        }
+
+        furnitureMap.entrySet().removeIf(entry -> {
+            if (present.contains(entry.getKey())) {
+                return false;
+            }
+            furnitureGroup.getChildren().remove(entry.getValue().getGroup());
+            entry.getValue().dispose();
+            return true;
+        });
+        batcher.retainAll(present);
+        batcher.flush();
+    }
+
+    // Drops the furniture nodes or batches, keeping the room
+    private void clearFurniture() {
+        furnitureGroup.getChildren().clear();
+        for (FurnitureNode node : furnitureMap.values()) {
+            node.dispose();
+        }
+        furnitureMap.clear();
+        batcher.clear();
+        drawnCount = 0;
+        culledCount = 0;
+    }
+
+    private void clearScene() {
+        roomGroup.getChildren().clear();
+        clearFurniture();
+        isBatched = false;
+        for (PhongMaterial material : roomMaterials) {
+            MaterialCache.getInstance().release(material);
+        }
+        roomMaterials.clear();
+        renderedDesign = null;
+        renderedRoomState = null;
+    }
+
+    // The room properties that the room nodes are built from
+    private static List<Object> roomState(Room room) {
+        if (room == null) {
+            return Arrays.asList((Object) null);
+        }
+        return Arrays.asList(room, room.getWidth(), room.getLength(), room.getHeight(),
+                room.getColorScheme() != null ? room.getColorScheme().getFloorColor() : null,
+                room.getColorScheme() != null ? room.getColorScheme().getWallColor() : null,
+                room.getColorScheme() != null ? room.getColorScheme().getCeilingColor() : null);
+    }
+
     private void renderErrorScene(String errorMessage) {
         try {
-            roomGroup.getChildren().clear();
-            furnitureGroup.getChildren().clear();
+            clearScene();
 
             Label label = new Label("Error rendering scene: " + errorMessage);
             label.setTextFill(Color.RED);
@@ -237,8 +364,7 @@ public class Renderer3D extends JPanel {
 
     private void renderEmptyScene() {
         try {
-            roomGroup.getChildren().clear();
-            furnitureGroup.getChildren().clear();
+            clearScene();
 
             // Add a placeholder message
             Label label = new Label("No design loaded. Create or open a design first.");
@@ -272,9 +398,7 @@ public class Renderer3D extends JPanel {
 
             // Create floor
             Box floor = new Box(width, 5, length);
-            PhongMaterial floorMaterial = new PhongMaterial();
-            floorMaterial.setDiffuseColor(jfxColor(room.getColorScheme().getFloorColor()));
-            floor.setMaterial(floorMaterial);
+            floor.setMaterial(acquireRoomMaterial(room.getColorScheme().getFloorColor()));
             floor.setTranslateY(height / 2);
 
             // Create walls
@@ -283,8 +407,7 @@ public class Renderer3D extends JPanel {
             Box wallBack = new Box(width, height, 5);
             Box wallFront = new Box(width, height, 5);
 
-            PhongMaterial wallMaterial = new PhongMaterial();
-            wallMaterial.setDiffuseColor(jfxColor(room.getColorScheme().getWallColor()));
+            PhongMaterial wallMaterial = acquireRoomMaterial(room.getColorScheme().getWallColor());
             wallLeft.setMaterial(wallMaterial);
             wallRight.setMaterial(wallMaterial);
             wallBack.setMaterial(wallMaterial);
@@ -297,9 +420,7 @@ public class Renderer3D extends JPanel {
 
             // Create ceiling
             Box ceiling = new Box(width, 5, length);
-            PhongMaterial ceilingMaterial = new PhongMaterial();
-            ceilingMaterial.setDiffuseColor(jfxColor(room.getColorScheme().getCeilingColor()));
-            ceiling.setMaterial(ceilingMaterial);
+            ceiling.setMaterial(acquireRoomMaterial(room.getColorScheme().getCeilingColor()));
             ceiling.setTranslateY(-height / 2);
 
             // Add to room group
@@ -315,107 +436,65 @@ public class Renderer3D extends JPanel {
         }
     }
 
-    private void renderFurniture(Furniture furniture) {
-        try {
-            if (furniture == null) {
-                System.err.println("Furniture is null, cannot render");
-                return;
-            }
-
-            // Convert furniture dimensions from meters to JavaFX units
-            double width = Math.max(0.1, furniture.getWidth()) * 100;
-            double height = Math.max(0.1, furniture.getHeight()) * 100;
-            double length = Math.max(0.1, furniture.getLength()) * 100;
-
-            // Create furniture group
-            Group furnitureObj = new Group();
-
-            // Create basic shape based on furniture type
-            Box shape = new Box(width, height, length);
-
-            // Create material with furniture color
-            PhongMaterial material = new PhongMaterial();
-            material.setDiffuseColor(jfxColor(furniture.getColor()));
-            material.setSpecularColor(Color.WHITE);
-            material.setSpecularPower(32.0);
-            shape.setMaterial(material);
-
-            // Add to furniture group
-            furnitureObj.getChildren().add(shape);
+    /**
+     * Creates or updates the node of a furniture item, or its box in the batches when the
+     * design is drawn batched; call batcher.flush afterwards
+     * @param furniture The furniture to show
+     */
+    private void updateFurnitureNode(Furniture furniture) {
+        Room room = design.getRoom();
+        if (room == null) {
+            System.err.println("Room is null when positioning furniture");
+            return;
+        }
 
-            // Position furniture in room
-            Room room = design.getRoom();
-            if (room == null) {
-                System.err.println("Room is null when positioning furniture");
-                return;
+        if (isBatched) {
+            if (Boolean.FALSE.equals(furnitureVisibility.get(furniture.getId()))) {
+                batcher.remove(furniture.getId());
+            } else {
+                batcher.update(furniture, room);
             }
+            return;
+        }
 
-            double roomWidth = room.getWidth() * 100;
-            double roomLength = room.getLength() * 100;
-            double roomHeight = room.getHeight() * 100;
-
-            // Calculate position
-            double posX = furniture.getPosX() * 100;
-            double posZ = furniture.getPosY() * 100;
-
-            // Center coordinates within the room
-            posX = posX - (roomWidth / 2) + (width / 2);
-            posZ = posZ - (roomLength / 2) + (length / 2);
-
-            // Y position (up/down)
-            double posY = (roomHeight / 2) - (height / 2);
-
-            furnitureObj.setTranslateX(posX);
-            furnitureObj.setTranslateY(posY);
-            furnitureObj.setTranslateZ(posZ);
-
-            // Apply rotation around Y axis (vertical)
-            Rotate rotation = new Rotate(furniture.getRotation(), Rotate.Y_AXIS);
-            furnitureObj.getTransforms().add(rotation);
-
-            // Save reference and add to scene
-            furnitureMap.put(furniture.getId(), furnitureObj);
-            furnitureGroup.getChildren().add(furnitureObj);
+        FurnitureNode node = furnitureMap.get(furniture.getId());
+        if (node == null) {
+            node = new FurnitureNode(32.0, 0.1);
+            node.update(furniture, room);
+            furnitureMap.put(furniture.getId(), node);
+            furnitureGroup.getChildren().add(node.getGroup());
 
             // Apply visibility setting if exists
             Boolean visible = furnitureVisibility.get(furniture.getId());
             if (visible != null) {
-                furnitureObj.setVisible(visible);
+                node.setShown(visible);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error rendering furniture: " + e.getMessage());
+        } else {
+            node.update(furniture, room);
         }
     }
 
-    // Helper method to convert AWT Color to JavaFX Color
-    private Color jfxColor(java.awt.Color awtColor) {
-        if (awtColor == null) {
-            return Color.GRAY; // Default color if null
-        }
-
-        return Color.rgb(
-                awtColor.getRed(),
-                awtColor.getGreen(),
-                awtColor.getBlue(),
-                awtColor.getAlpha() / 255.0
-        );
+    // Gets a shared material for a room surface, released again by clearScene
+    private PhongMaterial acquireRoomMaterial(java.awt.Color color) {
+        PhongMaterial material = MaterialCache.getInstance().acquire(color, null,
+                MaterialCache.DEFAULT_SPECULAR_POWER);
+        roomMaterials.add(material);
+        return material;
     }
 
     // Method to apply shading to a specific furniture
     public void applyShading(String furnitureId, double intensity) {
-        if (!isInitialized || !furnitureMap.containsKey(furnitureId)) return;
+        if (!isInitialized || !(furnitureMap.containsKey(furnitureId) || batcher.contains(furnitureId))) return;
 
         Platform.runLater(() -> {
             try {
-                Group furniture = furnitureMap.get(furnitureId);
-                if (furniture != null && furniture.getChildren().size() > 0 &&
-                        furniture.getChildren().get(0) instanceof Box) {
-                    Box shape = (Box) furniture.getChildren().get(0);
-                    PhongMaterial material = (PhongMaterial) shape.getMaterial();
-
+                FurnitureNode furniture = furnitureMap.get(furnitureId);
+                if (furniture != null) {
                     // Adjust specular power based on intensity
-                    material.setSpecularPower(intensity * 100);
+                    furniture.setSpecularPower(intensity * 100);
+                } else {
+                    batcher.setSpecularPower(furnitureId, intensity * 100);
+                    batcher.flush();
                 }
             } catch (Exception e) {
                 System.err.println("Error applying shading: " + e.getMessage());
@@ -423,6 +502,97 @@ public class Renderer3D extends JPanel {
         });
     }
 
+    /**
+     * Hides the furniture outside the camera view and picks each item's level of detail.
+     * Runs whenever the camera or the furniture changes, so the counts always match the
+     * frame on screen.
+     */
+    private void updateCulling() {
+        if (scene == null || scene.getWidth() <= 0 || scene.getHeight() <= 0) {
+            return;
+        }
+
+        // Undo the camera transforms, which are applied as translate, rotateX, rotateY
+        ViewFrustum frustum = new ViewFrustum(camera.getFieldOfView(), camera.isVerticalFieldOfView(),
+                scene.getWidth(), scene.getHeight(), camera.getNearClip(), camera.getFarClip())
+                .rotate(-rotateY.getAngle(), rotateY.getAxis())
+                .rotate(-rotateX.getAngle(), rotateX.getAxis())
+                .translate(-cameraTranslate.getX(), -cameraTranslate.getY(), -cameraTranslate.getZ());
+
+        int drawn = 0;
+        int total = 0;
+        if (isBatched) {
+            drawn = batcher.applyView(frustum);
+            total = batcher.getBatchCount();
+        } else {
+            for (FurnitureNode node : furnitureMap.values()) {
+                if (node.applyView(frustum)) {
+                    drawn++;
+                }
+                if (node.isShown()) {
+                    total++;
+                }
+            }
+        }
+        drawnCount = drawn;
+        culledCount = total - drawn;
+    }
+
+    /**
+     * Gets the number of furniture nodes drawn in the current view; batches count as one node
+     * @return The drawn node count
+     */
+    public int getDrawnCount() {
+        return drawnCount;
+    }
+
+    /**
+     * Gets the number of furniture nodes hidden because they are outside the current view
+     * @return The culled node count
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /**
+     * Sets the number of items from which the furniture is merged into batched meshes
+     * @param batchThreshold The item count; 0 always batches, Integer.MAX_VALUE never does
+     */
+    public void setBatchThreshold(int batchThreshold) {
+        this.batchThreshold = Math.max(0, batchThreshold);
+        if (isInitialized) {
+            Platform.runLater(this::updateScene);
+        }
+    }
+
+    public int getBatchThreshold() {
+        return batchThreshold;
+    }
+
+    public boolean isBatched() {
+        return isBatched;
+    }
+
+    /**
+     * Finds the furniture item under a mouse pick, in both the per-item and the batched mode
+     * @param pick The pick result of a mouse event
+     * @return The ID of the picked item, or null if no furniture was hit
+     */
+    public String findFurnitureId(PickResult pick) {
+        if (pick == null || pick.getIntersectedNode() == null) {
+            return null;
+        }
+        if (isBatched) {
+            return batcher.findFurnitureId(pick);
+        }
+        for (Map.Entry<String, FurnitureNode> entry : furnitureMap.entrySet()) {
+            if (entry.getValue().owns(pick.getIntersectedNode())) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
     // Method to rotate the view
     public void rotateView(double xAngle, double yAngle) {
         if (!isInitialized) return;
@@ -431,6 +601,7 @@ public class Renderer3D extends JPanel {
             try {
                 rotateX.setAngle(xAngle);
                 rotateY.setAngle(yAngle);
+                updateCulling();
             } catch (Exception e) {
                 System.err.println("Error rotating view: " + e.getMessage());
             }
@@ -445,6 +616,7 @@ public class Renderer3D extends JPanel {
             try {
                 rotateX.setAngle(-20);
                 rotateY.setAngle(-20);
+                updateCulling();
             } catch (Exception e) {
                 System.err.println("Error resetting view: " + e.getMessage());
             }
@@ -20,6 +20,8 @@ import main.java.com.furniview3d.model.Room;
 
 import javax.swing.*;
 import java.awt.BorderLayout;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A simplified 3D renderer that focuses on just displaying the room and furniture
@@ -36,6 +38,7 @@ public class SimpleRenderer3D extends JPanel {
     private Group roomGroup;
     private Group furnitureGroup;
     private Scene scene;
+    private final List<PhongMaterial> materials = new ArrayList<>(); // acquired from the MaterialCache
 
     // Mouse control variables
     private double mouseOldX, mouseOldY;
@@ -165,6 +168,10 @@ public class SimpleRenderer3D extends JPanel {
         // Clear previous content
         roomGroup.getChildren().clear();
         furnitureGroup.getChildren().clear();
+        for (PhongMaterial material : materials) {
+            MaterialCache.getInstance().release(material);
+        }
+        materials.clear();
 
         if (design == null) {
             // Nothing to render
@@ -205,9 +212,7 @@ public class SimpleRenderer3D extends JPanel {
 
             // Create floor
             Box floor = new Box(width, 5, length);
-            PhongMaterial floorMaterial = new PhongMaterial();
-            floorMaterial.setDiffuseColor(jfxColor(room.getColorScheme().getFloorColor()));
-            floor.setMaterial(floorMaterial);
+            floor.setMaterial(acquireMaterial(room.getColorScheme().getFloorColor(), null));
             floor.setTranslateY(height / 2);
 
             // Create walls
@@ -216,8 +221,7 @@ public class SimpleRenderer3D extends JPanel {
             Box wallBack = new Box(width, height, 5);
             Box wallFront = new Box(width, height, 5);
 
-            PhongMaterial wallMaterial = new PhongMaterial();
-            wallMaterial.setDiffuseColor(jfxColor(room.getColorScheme().getWallColor()));
+            PhongMaterial wallMaterial = acquireMaterial(room.getColorScheme().getWallColor(), null);
 
             wallLeft.setMaterial(wallMaterial);
             wallRight.setMaterial(wallMaterial);
@@ -231,9 +235,7 @@ public class SimpleRenderer3D extends JPanel {
 
             // Create ceiling
             Box ceiling = new Box(width, 5, length);
-            PhongMaterial ceilingMaterial = new PhongMaterial();
-            ceilingMaterial.setDiffuseColor(jfxColor(room.getColorScheme().getCeilingColor()));
-            ceiling.setMaterial(ceilingMaterial);
+            ceiling.setMaterial(acquireMaterial(room.getColorScheme().getCeilingColor(), null));
             ceiling.setTranslateY(-height / 2);
 
             // Add all parts to room group
@@ -260,12 +262,8 @@ public class SimpleRenderer3D extends JPanel {
             // Create furniture shape (simple box for now)
             Box shape = new Box(width, height, length);
 
-            // Set material with furniture color
-            PhongMaterial material = new PhongMaterial();
-            material.setDiffuseColor(jfxColor(furniture.getColor()));
-            material.setSpecularColor(Color.WHITE);
-            material.setSpecularPower(32.0);
-            shape.setMaterial(material);
+            // Set the shared material for the furniture color
+            shape.setMaterial(acquireMaterial(furniture.getColor(), java.awt.Color.WHITE));
 
             // Calculate position in the room
             double roomWidth = room.getWidth() * 100;
@@ -296,18 +294,12 @@ public class SimpleRenderer3D extends JPanel {
     }
 
     /**
-     * Convert AWT Color to JavaFX Color
+     * Get a shared material, released again when the scene is next cleared
      */
-    private Color jfxColor(java.awt.Color awtColor) {
-        if (awtColor == null) {
-            return Color.GRAY; // Default if null
-        }
-
-        return Color.rgb(
-                awtColor.getRed(),
-                awtColor.getGreen(),
-                awtColor.getBlue(),
-                awtColor.getAlpha() / 255.0
-        );
+    private PhongMaterial acquireMaterial(java.awt.Color color, java.awt.Color specular) {
+        PhongMaterial material = MaterialCache.getInstance().acquire(color, specular,
+                MaterialCache.DEFAULT_SPECULAR_POWER);
+        materials.add(material);
+        return material;
     }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package main.java.com.furniview3d.render;
+
+import main.java.com.furniview3d.model.Furniture;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shares the images drawn for furniture in the 2D view between all items, designs and renderers.
+ * A sprite depends only on the item's type, its size in centimeters and the zoom bucket it is
+ * drawn at, so a design with a thousand identical chairs holds one image, and showing the same
+ * design again creates none. Sprites are drawn at a power-of-two resolution close to the zoom
+ * level to stay sharp when zoomed in and small when zoomed out. The least recently drawn sprites
+ * are dropped once their pixels take more than MAX_BYTES.
+ */
+public class SpriteCache {
+    private static final long MAX_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_SPRITE_SIZE = 1024; // pixels along the longer side
+    private static final double MIN_BUCKET = 0.25;
+    private static final double MAX_BUCKET = 4.0;
+    private static final Font TYPE_FONT = new Font("Arial", Font.BOLD, 12);
+
+    private static SpriteCache instance;
+
+    private final LinkedHashMap<Key, BufferedImage> sprites = new LinkedHashMap<>(64, 0.75f, true);
+    private final Key probe = new Key(); // reused for lookups so that a cache hit allocates nothing
+    private long bytesUsed;
+    private int spritesCreated;
+
+    /**
+     * What a sprite's pixels depend on
+     */
+    private static class Key {
+        private String type;
+        private int width;  // centimeters
+        private int length;
+        private double bucket;
+
+        void set(String type, int width, int length, double bucket) {
+            this.type = type;
+            this.width = width;
+            this.length = length;
+            this.bucket = bucket;
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.set(type, width, length, bucket);
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return width == key.width && length == key.length && bucket == key.bucket
+                    && Objects.equals(type, key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(type);
+            result = 31 * result + width;
+            result = 31 * result + length;
+            result = 31 * result + Double.hashCode(bucket);
+            return result;
+        }
+    }
+
+    // Private constructor for singleton pattern
+    private SpriteCache() {
+    }
+
+    // Singleton instance getter
+    public static synchronized SpriteCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the image drawn for a furniture item, creating it if no item with the same
+     * appearance was drawn recently
+     * @param furniture The furniture
+     * @param scale The zoom level the image will be drawn at
+     * @return The image, to be drawn stretched over the item's footprint, or null if the
+     *         item is too small to have one
+     */
+    public synchronized Image getSprite(Furniture furniture, double scale) {
+        int width = (int)(furniture.getWidth() * 100);
+        int length = (int)(furniture.getLength() * 100);
+        if (width <= 0 || length <= 0) {
+            return null;
+        }
+
+        probe.set(furniture.getType(), width, length, getBucket(scale, Math.max(width, length)));
+        BufferedImage sprite = sprites.get(probe);
+        if (sprite == null) {
+            sprite = createSprite(probe);
+            sprites.put(probe.copy(), sprite);
+            bytesUsed += getBytes(sprite);
+            evict();
+        }
+        return sprite;
+    }
+
+    /**
+     * Gets the number of sprites cached
+     * @return The sprite count
+     */
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    /**
+     * Gets the memory taken by the cached sprites' pixels
+     * @return The size in bytes
+     */
+    public synchronized long getBytesUsed() {
+        return bytesUsed;
+    }
+
+    /**
+     * Gets the number of sprites created since the cache was created, for measuring cache hits
+     * @return The number of sprites created
+     */
+    public synchronized int getSpritesCreated() {
+        return spritesCreated;
+    }
+
+    /**
+     * Drops all cached sprites
+     */
+    public synchronized void clear() {
+        sprites.clear();
+        bytesUsed = 0;
+    }
+
+    /**
+     * Picks the resolution of a sprite: the power of two at or above the zoom level, lowered
+     * for large items so that no sprite is larger than MAX_SPRITE_SIZE
+     */
+    private static double getBucket(double scale, int longerSide) {
+        double bucket = MIN_BUCKET;
+        while (bucket < scale && bucket < MAX_BUCKET) {
+            bucket *= 2;
+        }
+        while (bucket > MIN_BUCKET && longerSide * bucket > MAX_SPRITE_SIZE) {
+            bucket /= 2;
+        }
+        return bucket;
+    }
+
+    private BufferedImage createSprite(Key key) {
+        int width = key.width;
+        int height = key.length;
+        int imageWidth = Math.max(1, (int) Math.round(width * key.bucket));
+        int imageHeight = Math.max(1, (int) Math.round(height * key.bucket));
+
+        BufferedImage img = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = img.createGraphics();
+        g2d.scale(imageWidth / (double) width, imageHeight / (double) height);
+
+        String type = key.type != null ? key.type : "";
+        switch (type.toLowerCase()) {
+            case "chair":
+                g2d.setColor(new Color(150, 80, 50));
+                break;
+            case "table":
+                g2d.setColor(new Color(120, 100, 70));
+                break;
+            case "sofa":
+                g2d.setColor(new Color(70, 90, 140));
+                break;
+            default:
+                g2d.setColor(new Color(120, 120, 120));
+        }
+
+        g2d.fillRect(0, 0, width, height);
+        g2d.setColor(Color.BLACK);
+        g2d.drawRect(0, 0, width - 1, height - 1);
+
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(TYPE_FONT);
+        g2d.drawString(type, 5, height/2);
+
+        g2d.dispose();
+        spritesCreated++;
+        return img;
+    }
+
+    // Drops the least recently used sprites until the cache is within its memory budget
+    private void evict() {
+        Iterator<Map.Entry<Key, BufferedImage>> iterator = sprites.entrySet().iterator();
+        while (bytesUsed > MAX_BYTES && sprites.size() > 1 && iterator.hasNext()) {
+            bytesUsed -= getBytes(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long getBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+}
\ No newline at end of file
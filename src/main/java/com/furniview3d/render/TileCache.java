@@ -0,0 +1,283 @@
+package main.java.com.furniview3d.render;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches a rendered layer of the 2D view in square image tiles, one tile grid per zoom level.
+ * Tiles are laid out in scaled canvas pixels, before the pan is applied, so panning only moves
+ * the tiles and they are drawn again only when the content under them changes or the zoom
+ * level was evicted. Content is described in unscaled canvas pixels, the coordinates
+ * Renderer2D draws in after applying its zoom.
+ *
+ * At most MAX_TILES tiles are kept across MAX_LEVELS zoom levels; the least recently drawn
+ * tile is dropped first and its image reused for the next tile rendered.
+ */
+public class TileCache {
+    public static final int TILE_SIZE = 256; // pixels
+    private static final int MAX_TILES = 128;
+    private static final int MAX_LEVELS = 3;
+    private static final int MAX_TILES_PER_LEVEL = 1 << 16; // larger grids are drawn without caching
+
+    /**
+     * Draws the cached content of one tile
+     */
+    public interface TilePainter {
+        /**
+         * Draws everything that overlaps a tile
+         * @param g2d Graphics already translated and scaled to unscaled canvas pixels
+         * @param area The part of the canvas the tile covers, in unscaled canvas pixels
+         */
+        void paintTile(Graphics2D g2d, Rectangle2D area);
+    }
+
+    /**
+     * The tiles of one zoom level, covering the content bounds at that level
+     */
+    private static class Level {
+        private final double scale;
+        private final int firstColumn;
+        private final int firstRow;
+        private final int columns;
+        private final int rows;
+        private final BufferedImage[] tiles;
+        private final long[] lastUsed;
+        private long levelLastUsed;
+
+        Level(double scale, Rectangle2D contentBounds) {
+            this.scale = scale;
+            this.firstColumn = tileIndex(contentBounds.getMinX() * scale);
+            this.firstRow = tileIndex(contentBounds.getMinY() * scale);
+            this.columns = tileIndex(contentBounds.getMaxX() * scale) - firstColumn + 1;
+            this.rows = tileIndex(contentBounds.getMaxY() * scale) - firstRow + 1;
+            this.tiles = new BufferedImage[columns * rows];
+            this.lastUsed = new long[columns * rows];
+        }
+    }
+
+    private final List<Level> levels = new ArrayList<>(MAX_LEVELS);
+    private final ArrayDeque<BufferedImage> freeImages = new ArrayDeque<>();
+    private final Rectangle2D.Double tileArea = new Rectangle2D.Double();
+    private final Rectangle2D.Double contentBounds = new Rectangle2D.Double();
+    private int tileCount;
+    private long useCounter;
+    private int tilesRendered;
+
+    /**
+     * Sets the area that can hold cached content, dropping all tiles
+     * @param bounds The content bounds in unscaled canvas pixels
+     */
+    public void setContentBounds(Rectangle2D bounds) {
+        clear();
+        contentBounds.setRect(bounds);
+    }
+
+    /**
+     * Gets the area that can hold cached content
+     * @return The content bounds in unscaled canvas pixels
+     */
+    public Rectangle2D getContentBounds() {
+        return contentBounds;
+    }
+
+    /**
+     * Draws the tiles that intersect a part of the panel, rendering the missing ones
+     * @param g2d The panel's graphics, without pan or zoom applied
+     * @param clip The part of the panel to draw, in panel pixels
+     * @param panX The horizontal pan in panel pixels
+     * @param panY The vertical pan in panel pixels
+     * @param scale The zoom level
+     * @param background The color of tile pixels without content
+     * @param configuration Used to create tiles the screen can draw quickly, or null
+     * @param painter Draws the content of new tiles
+     */
+    public void paint(Graphics2D g2d, Rectangle clip, int panX, int panY, double scale, Color background,
+                      GraphicsConfiguration configuration, TilePainter painter) {
+        if (contentBounds.isEmpty()) {
+            return;
+        }
+        Level level = getLevel(scale);
+        if (level == null) {
+            paintUncached(g2d, clip, panX, panY, scale, painter);
+            return;
+        }
+        level.levelLastUsed = ++useCounter;
+
+        int minColumn = Math.max(level.firstColumn, tileIndex(clip.x - panX));
+        int maxColumn = Math.min(level.firstColumn + level.columns - 1, tileIndex(clip.x + clip.width - 1 - panX));
+        int minRow = Math.max(level.firstRow, tileIndex(clip.y - panY));
+        int maxRow = Math.min(level.firstRow + level.rows - 1, tileIndex(clip.y + clip.height - 1 - panY));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int index = (row - level.firstRow) * level.columns + (column - level.firstColumn);
+                BufferedImage tile = level.tiles[index];
+                if (tile == null) {
+                    tile = renderTile(level, column, row, background, configuration, painter);
+                    level.tiles[index] = tile;
+                    tileCount++;
+                }
+                level.lastUsed[index] = ++useCounter;
+                g2d.drawImage(tile, panX + column * TILE_SIZE, panY + row * TILE_SIZE, null);
+            }
+        }
+
+        while (tileCount > MAX_TILES) {
+            evictOldestTile();
+        }
+    }
+
+    /**
+     * Drops the tiles of every zoom level that overlap an area, so they are rendered again
+     * @param area The changed area in unscaled canvas pixels
+     */
+    public void invalidate(Rectangle2D area) {
+        for (int i = 0; i < levels.size(); i++) {
+            Level level = levels.get(i);
+            int minColumn = Math.max(level.firstColumn, tileIndex(area.getMinX() * level.scale));
+            int maxColumn = Math.min(level.firstColumn + level.columns - 1, tileIndex(area.getMaxX() * level.scale));
+            int minRow = Math.max(level.firstRow, tileIndex(area.getMinY() * level.scale));
+            int maxRow = Math.min(level.firstRow + level.rows - 1, tileIndex(area.getMaxY() * level.scale));
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    dropTile(level, (row - level.firstRow) * level.columns + (column - level.firstColumn));
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all tiles of all zoom levels
+     */
+    public void clear() {
+        for (Level level : levels) {
+            for (int i = 0; i < level.tiles.length; i++) {
+                dropTile(level, i);
+            }
+        }
+        levels.clear();
+    }
+
+    /**
+     * Gets the number of tiles currently cached
+     * @return The tile count
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Gets the number of tiles rendered since the cache was created, for measuring cache hits
+     * @return The number of tiles rendered
+     */
+    public int getTilesRendered() {
+        return tilesRendered;
+    }
+
+    private Level getLevel(double scale) {
+        for (int i = 0; i < levels.size(); i++) {
+            if (levels.get(i).scale == scale) {
+                return levels.get(i);
+            }
+        }
+
+        if (levels.size() == MAX_LEVELS) {
+            Level oldest = levels.get(0);
+            for (Level level : levels) {
+                if (level.levelLastUsed < oldest.levelLastUsed) {
+                    oldest = level;
+                }
+            }
+            for (int i = 0; i < oldest.tiles.length; i++) {
+                dropTile(oldest, i);
+            }
+            levels.remove(oldest);
+        }
+
+        long columns = tileIndex(contentBounds.getMaxX() * scale) - (long) tileIndex(contentBounds.getMinX() * scale) + 1;
+        long rows = tileIndex(contentBounds.getMaxY() * scale) - (long) tileIndex(contentBounds.getMinY() * scale) + 1;
+        if (columns * rows > MAX_TILES_PER_LEVEL) {
+            return null;
+        }
+
+        Level level = new Level(scale, contentBounds);
+        levels.add(level);
+        return level;
+    }
+
+    // For content spread so far apart that its tile grid would be too large to keep
+    private void paintUncached(Graphics2D g2d, Rectangle clip, int panX, int panY, double scale,
+                               TilePainter painter) {
+        Graphics2D content = (Graphics2D) g2d.create();
+        content.clipRect(clip.x, clip.y, clip.width, clip.height);
+        content.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        content.translate(panX, panY);
+        content.scale(scale, scale);
+        tileArea.setRect((clip.x - panX) / scale, (clip.y - panY) / scale, clip.width / scale, clip.height / scale);
+        painter.paintTile(content, tileArea);
+        content.dispose();
+    }
+
+    private BufferedImage renderTile(Level level, int column, int row, Color background,
+                                     GraphicsConfiguration configuration, TilePainter painter) {
+        BufferedImage tile = freeImages.poll();
+        if (tile == null) {
+            tile = configuration != null
+                    ? configuration.createCompatibleImage(TILE_SIZE, TILE_SIZE, Transparency.OPAQUE)
+                    : new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        }
+
+        Graphics2D g2d = tile.createGraphics();
+        g2d.setColor(background);
+        g2d.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+        g2d.scale(level.scale, level.scale);
+        tileArea.setRect(column * TILE_SIZE / level.scale, row * TILE_SIZE / level.scale,
+                TILE_SIZE / level.scale, TILE_SIZE / level.scale);
+        painter.paintTile(g2d, tileArea);
+        g2d.dispose();
+
+        tilesRendered++;
+        return tile;
+    }
+
+    private void evictOldestTile() {
+        Level oldestLevel = null;
+        int oldestIndex = -1;
+        long oldestUse = Long.MAX_VALUE;
+        for (Level level : levels) {
+            for (int i = 0; i < level.tiles.length; i++) {
+                if (level.tiles[i] != null && level.lastUsed[i] < oldestUse) {
+                    oldestLevel = level;
+                    oldestIndex = i;
+                    oldestUse = level.lastUsed[i];
+                }
+            }
+        }
+        if (oldestLevel == null) {
+            tileCount = 0;
+            return;
+        }
+        dropTile(oldestLevel, oldestIndex);
+    }
+
+    private void dropTile(Level level, int index) {
+        BufferedImage tile = level.tiles[index];
+        if (tile != null) {
+            level.tiles[index] = null;
+            tileCount--;
+            if (freeImages.size() < MAX_TILES / 4) {
+                freeImages.push(tile);
+            }
+        }
+    }
+
+    private static int tileIndex(double coordinate) {
+        return (int) Math.floor(coordinate / TILE_SIZE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package main.java.com.furniview3d.render;
+
+import javafx.geometry.Point3D;
+
+/**
+ * The part of a 3D scene a PerspectiveCamera can see, used to hide furniture outside the view
+ * and to estimate how large an item appears on screen. The frustum is built from the camera's
+ * field of view and clip planes plus the transform from scene content to camera coordinates,
+ * which callers append step by step in the same order JavaFX applies its transforms.
+ * Camera coordinates follow JavaFX: the camera looks along +Z and Y points down.
+ */
+public class ViewFrustum {
+    private final double tanHalfVertical;
+    private final double tanHalfHorizontal;
+    private final double nearClip;
+    private final double farClip;
+    private final double viewportHeight;
+    private final double verticalNorm;   // length of the normals of the side planes
+    private final double horizontalNorm;
+
+    // Content to camera transform as a row-major 3x4 matrix
+    private final double[] matrix = {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0};
+    private double maxScale = 1;
+
+    /**
+     * Creates a frustum whose content transform is still the identity
+     * @param fieldOfView The camera's field of view in degrees
+     * @param isVerticalFieldOfView true if the field of view is measured vertically
+     * @param viewportWidth The width of the scene in pixels
+     * @param viewportHeight The height of the scene in pixels
+     * @param nearClip The distance of the near clip plane
+     * @param farClip The distance of the far clip plane
+     */
+    public ViewFrustum(double fieldOfView, boolean isVerticalFieldOfView, double viewportWidth,
+                       double viewportHeight, double nearClip, double farClip) {
+        double aspectRatio = viewportWidth / viewportHeight;
+        double tanHalf = Math.tan(Math.toRadians(fieldOfView) / 2);
+        if (isVerticalFieldOfView) {
+            this.tanHalfVertical = tanHalf;
+            this.tanHalfHorizontal = tanHalf * aspectRatio;
+        } else {
+            this.tanHalfHorizontal = tanHalf;
+            this.tanHalfVertical = tanHalf / aspectRatio;
+        }
+        this.nearClip = nearClip;
+        this.farClip = farClip;
+        this.viewportHeight = viewportHeight;
+        this.verticalNorm = Math.sqrt(1 + tanHalfVertical * tanHalfVertical);
+        this.horizontalNorm = Math.sqrt(1 + tanHalfHorizontal * tanHalfHorizontal);
+    }
+
+    /**
+     * Appends a translation to the content transform
+     * @param x The X offset
+     * @param y The Y offset
+     * @param z The Z offset
+     * @return This frustum
+     */
+    public ViewFrustum translate(double x, double y, double z) {
+        return append(new double[] {1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z});
+    }
+
+    /**
+     * Appends a rotation about an axis through the origin, as done by a JavaFX Rotate
+     * @param angle The angle in degrees
+     * @param axis The rotation axis
+     * @return This frustum
+     */
+    public ViewFrustum rotate(double angle, Point3D axis) {
+        double length = Math.sqrt(axis.getX() * axis.getX() + axis.getY() * axis.getY() + axis.getZ() * axis.getZ());
+        if (length == 0 || angle == 0) {
+            return this;
+        }
+        double x = axis.getX() / length;
+        double y = axis.getY() / length;
+        double z = axis.getZ() / length;
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double t = 1 - cos;
+        return append(new double[] {
+                t * x * x + cos, t * x * y - sin * z, t * x * z + sin * y, 0,
+                t * x * y + sin * z, t * y * y + cos, t * y * z - sin * x, 0,
+                t * x * z - sin * y, t * y * z + sin * x, t * z * z + cos, 0
+        });
+    }
+
+    /**
+     * Appends a scale to the content transform
+     * @param x The X factor
+     * @param y The Y factor
+     * @param z The Z factor
+     * @return This frustum
+     */
+    public ViewFrustum scale(double x, double y, double z) {
+        maxScale *= Math.max(Math.abs(x), Math.max(Math.abs(y), Math.abs(z)));
+        return append(new double[] {x, 0, 0, 0, 0, y, 0, 0, 0, 0, z, 0});
+    }
+
+    /**
+     * Checks if any part of a sphere in content coordinates can be seen
+     * @param x The X coordinate of the center
+     * @param y The Y coordinate of the center
+     * @param z The Z coordinate of the center
+     * @param radius The radius
+     * @return false if the sphere lies completely outside the frustum
+     */
+    public boolean intersectsSphere(double x, double y, double z, double radius) {
+        double cameraX = matrix[0] * x + matrix[1] * y + matrix[2] * z + matrix[3];
+        double cameraY = matrix[4] * x + matrix[5] * y + matrix[6] * z + matrix[7];
+        double cameraZ = matrix[8] * x + matrix[9] * y + matrix[10] * z + matrix[11];
+        double r = radius * maxScale;
+
+        if (cameraZ + r < nearClip || cameraZ - r > farClip) {
+            return false;
+        }
+        // Signed distances to the four side planes, positive outside
+        if ((Math.abs(cameraX) - cameraZ * tanHalfHorizontal) / horizontalNorm > r) {
+            return false;
+        }
+        return (Math.abs(cameraY) - cameraZ * tanHalfVertical) / verticalNorm <= r;
+    }
+
+    /**
+     * Estimates the height in pixels a sphere in content coordinates covers on screen
+     * @param x The X coordinate of the center
+     * @param y The Y coordinate of the center
+     * @param z The Z coordinate of the center
+     * @param radius The radius
+     * @return The projected diameter, or positive infinity if the camera is inside the sphere
+     */
+    public double projectedSize(double x, double y, double z, double radius) {
+        double cameraZ = matrix[8] * x + matrix[9] * y + matrix[10] * z + matrix[11];
+        double r = radius * maxScale;
+        if (cameraZ <= r) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return r * viewportHeight / (cameraZ * tanHalfVertical);
+    }
+
+    // Multiplies the content transform by another affine transform on the right
+    private ViewFrustum append(double[] other) {
+        double[] result = new double[12];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 4; column++) {
+                double value = 0;
+                for (int k = 0; k < 3; k++) {
+                    value += matrix[row * 4 + k] * other[k * 4 + column];
+                }
+                if (column == 3) {
+                    value += matrix[row * 4 + 3];
+                }
+                result[row * 4 + column] = value;
+            }
+        }
+        System.arraycopy(result, 0, matrix, 0, 12);
+        return this;
+    }
+}
\ No newline at end of file
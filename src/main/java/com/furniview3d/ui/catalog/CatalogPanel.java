@@ -1,15 +1,31 @@
 package main.java.com.furniview3d.ui.catalog;
 
 import main.java.com.furniview3d.FurniView3DApp;
+import main.java.com.furniview3d.controller.CatalogIndex;
+import main.java.com.furniview3d.controller.DesignChange;
+import main.java.com.furniview3d.controller.DesignEventBus;
 import main.java.com.furniview3d.controller.FurnitureController;
+import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.util.CatalogTransfer;
 import main.java.com.furniview3d.util.SwingUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class CatalogPanel extends JPanel implements FurnitureController.FurnitureChangeListener {
     private static final long serialVersionUID = 1L;
@@ -17,11 +33,25 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
     private FurniView3DApp app;
     private FurnitureController furnitureController;
 
+    private static final String LIST_CARD = "list";
+    private static final String EMPTY_CARD = "empty";
+    private static final Color ROW_HIGHLIGHT = new Color(245, 245, 250);
+    private static final int SEARCH_DELAY_MS = 150; // typing pause before searching
+    private static final int MAX_SHOWN_IMPORT_ERRORS = 10;
+
     private JComboBox<String> categoryComboBox;
-    private JPanel furnitureDisplayPanel;
+    private JPanel furnitureDisplayPanel; // shows the furniture list or the empty message
+    private CardLayout catalogCards;
+    private JList<Furniture> furnitureList;
+    private CatalogListModel furnitureListModel;
+    private JLabel emptyLabel;
+    private int rolloverIndex = -1;
     private JPanel detailsPanel;
     private JTextField searchField;
     private JButton addNewButton;
+    private Timer searchTimer;
+    private CompletableFuture<CatalogIndex.SearchResult> pendingSearch; // the only search whose result is shown
+    private CatalogIndex.SearchResult lastResult; // shown search result, to narrow down while typing
 
     private Furniture selectedFurniture;
 
@@ -51,6 +81,26 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         searchField = new JTextField(20);
         searchField.addActionListener(e -> searchFurniture());
 
+        // Search as the user types, once they pause
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> searchFurniture());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes do not change the text
+            }
+        });
+
         JButton searchButton = SwingUtils.createPrimaryButton("Search", e -> searchFurniture());
 
         searchPanel.add(searchLabel, BorderLayout.WEST);
@@ -70,10 +120,7 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         System.arraycopy(types, 0, categories, 1, types.length);
 
         categoryComboBox = new JComboBox<>(categories);
-        categoryComboBox.addActionListener(e -> {
-            String selectedCategory = (String) categoryComboBox.getSelectedItem();
-            populateFurnitureItems(selectedCategory);
-        });
+        categoryComboBox.addActionListener(e -> searchFurniture());
 
         filterPanel.add(categoryLabel);
         filterPanel.add(categoryComboBox);
@@ -83,6 +130,10 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         filterPanel.add(Box.createHorizontalStrut(20));
         filterPanel.add(addNewButton);
 
+        // Bulk import and export buttons
+        filterPanel.add(SwingUtils.createSecondaryButton("Import...", e -> importCatalog()));
+        filterPanel.add(SwingUtils.createSecondaryButton("Export...", e -> exportCatalog()));
+
         topPanel.add(searchPanel, BorderLayout.CENTER);
         topPanel.add(filterPanel, BorderLayout.SOUTH);
 
@@ -92,16 +143,52 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         splitPane.setDividerLocation(600);
         splitPane.setDividerSize(5);
 
-        // Furniture items display
-        furnitureDisplayPanel = new JPanel();
-        furnitureDisplayPanel.setLayout(new BoxLayout(furnitureDisplayPanel, BoxLayout.Y_AXIS));
-        furnitureDisplayPanel.setBackground(Color.WHITE);
-        furnitureDisplayPanel.setBorder(new TitledBorder("Furniture Catalog"));
+        // Furniture items display. The list only renders the rows in view, one at a time with
+        // the same renderer, and reads them from the catalog index as they are scrolled to.
+        furnitureListModel = new CatalogListModel();
+        furnitureList = new JList<>(furnitureListModel);
+        furnitureList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        furnitureList.setCellRenderer(new FurnitureCellRenderer());
+        furnitureList.setPrototypeCellValue(new Furniture()); // Fixes the row size without measuring every row
+        furnitureList.addListSelectionListener(e -> {
+            Furniture furniture = furnitureList.getSelectedValue();
+            if (!e.getValueIsAdjusting() && furniture != null && furniture != selectedFurniture) {
+                showFurnitureDetails(furniture);
+            }
+        });
+        MouseAdapter rolloverListener = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int index = furnitureList.locationToIndex(e.getPoint());
+                if (index >= 0 && !furnitureList.getCellBounds(index, index).contains(e.getPoint())) {
+                    index = -1;
+                }
+                setRolloverIndex(index);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setRolloverIndex(-1);
+            }
+        };
+        furnitureList.addMouseListener(rolloverListener);
+        furnitureList.addMouseMotionListener(rolloverListener);
 
-        JScrollPane scrollPane = new JScrollPane(furnitureDisplayPanel);
+        JScrollPane scrollPane = new JScrollPane(furnitureList);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         scrollPane.setBorder(null);
 
+        emptyLabel = new JLabel("No furniture items found", JLabel.CENTER);
+        emptyLabel.setForeground(Color.GRAY);
+        emptyLabel.setVerticalAlignment(JLabel.TOP);
+
+        catalogCards = new CardLayout();
+        furnitureDisplayPanel = new JPanel(catalogCards);
+        furnitureDisplayPanel.setBackground(Color.WHITE);
+        furnitureDisplayPanel.setBorder(new TitledBorder("Furniture Catalog"));
+        furnitureDisplayPanel.add(scrollPane, LIST_CARD);
+        furnitureDisplayPanel.add(emptyLabel, EMPTY_CARD);
+
         // Details panel
         detailsPanel = new JPanel();
         detailsPanel.setLayout(new BorderLayout());
@@ -114,7 +201,7 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         detailsPanel.add(selectLabel, BorderLayout.CENTER);
 
         // Add components to split pane
-        splitPane.setLeftComponent(scrollPane);
+        splitPane.setLeftComponent(furnitureDisplayPanel);
         splitPane.setRightComponent(detailsPanel);
 
         // Add all components to main panel
@@ -123,7 +210,7 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
     }
 
     private void populateFurnitureItems(String category) {
-        furnitureDisplayPanel.removeAll();
+        cancelSearch();
 
         List<Furniture> furnitureList;
         if ("All".equals(category)) {
@@ -132,65 +219,85 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
             furnitureList = furnitureController.getFurnitureByType(category);
         }
 
-        if (furnitureList.isEmpty()) {
-            JLabel emptyLabel = new JLabel("No furniture items found", JLabel.CENTER);
-            emptyLabel.setForeground(Color.GRAY);
-            emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            furnitureDisplayPanel.add(emptyLabel);
-        } else {
-            for (Furniture furniture : furnitureList) {
-                FurnitureItemPanel itemPanel = new FurnitureItemPanel(furniture);
-                furnitureDisplayPanel.add(itemPanel);
-                furnitureDisplayPanel.add(Box.createVerticalStrut(5)); // Add spacing
-            }
-        }
-
-        furnitureDisplayPanel.revalidate();
-        furnitureDisplayPanel.repaint();
+        showFurnitureList(furnitureList, "No furniture items found");
     }
 
     private void searchFurniture() {
-        String searchText = searchField.getText().trim().toLowerCase();
+        searchTimer.stop();
+        String searchText = searchField.getText().trim();
         if (searchText.isEmpty()) {
             String selectedCategory = (String) categoryComboBox.getSelectedItem();
             populateFurnitureItems(selectedCategory);
             return;
         }
 
-        furnitureDisplayPanel.removeAll();
-
-        // Get furniture based on category
-        List<Furniture> furnitureList;
+        // Search the catalog index in the background, limited to the selected category. Only the
+        // latest search is shown; one that was typed over is skipped if it has not started yet.
         String selectedCategory = (String) categoryComboBox.getSelectedItem();
-        if ("All".equals(selectedCategory)) {
-            furnitureList = furnitureController.getFurnitureCatalog();
-        } else {
-            furnitureList = furnitureController.getFurnitureByType(selectedCategory);
+        String type = "All".equals(selectedCategory) ? null : selectedCategory;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
         }
+        CompletableFuture<CatalogIndex.SearchResult> search =
+                furnitureController.searchFurnitureAsync(searchText, type, null, lastResult);
+        pendingSearch = search;
 
-        // Filter by search text
-        boolean foundAny = false;
-        for (Furniture furniture : furnitureList) {
-            if (furniture.getName().toLowerCase().contains(searchText) ||
-                    furniture.getType().toLowerCase().contains(searchText) ||
-                    furniture.getMaterial().toLowerCase().contains(searchText)) {
-
-                FurnitureItemPanel itemPanel = new FurnitureItemPanel(furniture);
-                furnitureDisplayPanel.add(itemPanel);
-                furnitureDisplayPanel.add(Box.createVerticalStrut(5)); // Add spacing
-                foundAny = true;
+        search.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (search != pendingSearch) {
+                return; // Superseded by a newer search or by listing a category
             }
+            pendingSearch = null;
+            if (error != null) {
+                System.err.println("Error searching furniture catalog: " + error.getMessage());
+                return;
+            }
+            lastResult = result;
+            showFurnitureList(result, "No furniture items found matching '" + searchText + "'");
+        }));
+    }
+
+    // Drops the running search and forgets the shown one, before the list shows something else
+    private void cancelSearch() {
+        searchTimer.stop();
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
         }
+        lastResult = null;
+    }
 
-        if (!foundAny) {
-            JLabel emptyLabel = new JLabel("No furniture items found matching '" + searchText + "'", JLabel.CENTER);
-            emptyLabel.setForeground(Color.GRAY);
-            emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            furnitureDisplayPanel.add(emptyLabel);
+    /**
+     * Shows furniture in the catalog list, keeping the selected item selected if it is listed
+     * @param furniture The furniture to list, read as rows are scrolled into view
+     * @param emptyMessage The message shown instead of an empty list
+     */
+    private void showFurnitureList(List<Furniture> furniture, String emptyMessage) {
+        rolloverIndex = -1;
+        furnitureListModel.setFurniture(furniture);
+        if (selectedFurniture != null) {
+            int index = furniture.indexOf(selectedFurniture);
+            if (index >= 0) {
+                furnitureList.setSelectedIndex(index);
+            }
         }
 
-        furnitureDisplayPanel.revalidate();
-        furnitureDisplayPanel.repaint();
+        emptyLabel.setText(emptyMessage);
+        catalogCards.show(furnitureDisplayPanel, furniture.isEmpty() ? EMPTY_CARD : LIST_CARD);
+    }
+
+    private void setRolloverIndex(int index) {
+        if (index == rolloverIndex) {
+            return;
+        }
+        repaintRow(rolloverIndex);
+        rolloverIndex = index;
+        repaintRow(rolloverIndex);
+    }
+
+    private void repaintRow(int index) {
+        if (index >= 0 && index < furnitureListModel.getSize()) {
+            furnitureList.repaint(furnitureList.getCellBounds(index, index));
+        }
     }
 
     private void showFurnitureDetails(Furniture furniture) {
@@ -379,7 +486,6 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
                 );
 
                 furnitureController.addFurniture(newFurniture);
-                furnitureController.saveCatalog();
                 dialog.dispose();
 
                 // Refresh catalog view
@@ -402,6 +508,97 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         dialog.setVisible(true);
     }
 
+    private void importCatalog() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import Furniture");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Furniture Lists (*.csv, *.jsonl)", "csv", "jsonl"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = fileChooser.getSelectedFile().toPath();
+
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        CompletableFuture<CatalogTransfer.ImportResult> importing =
+                furnitureController.importCatalogAsync(file, progressBar::setValue);
+
+        // Not modal, so the catalog can be browsed while the batches arrive; the list is updated once they all have
+        JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Importing Furniture", false);
+        dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                importing.cancel(false);
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        panel.setBackground(Color.WHITE);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.setBackground(Color.WHITE);
+        buttonPanel.add(SwingUtils.createSecondaryButton("Cancel", e -> importing.cancel(false)));
+
+        panel.add(new JLabel("Importing " + file.getFileName() + "..."), BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        dialog.setContentPane(panel);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+
+        importing.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            dialog.dispose();
+            if (importing.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                SwingUtils.showErrorDialog(this, "Error importing furniture: " + error.getMessage());
+                return;
+            }
+
+            StringBuilder message = new StringBuilder("Imported " + result.getImportedCount() + " items.");
+            if (result.getRejectedCount() > 0) {
+                message.append("\nSkipped ").append(result.getRejectedCount()).append(" rows:");
+                List<String> errors = result.getErrors();
+                for (int i = 0; i < Math.min(errors.size(), MAX_SHOWN_IMPORT_ERRORS); i++) {
+                    message.append("\n").append(errors.get(i));
+                }
+                if (result.getRejectedCount() > MAX_SHOWN_IMPORT_ERRORS) {
+                    message.append("\n...");
+                }
+            }
+            SwingUtils.showInfoDialog(this, message.toString());
+        }));
+    }
+
+    private void exportCatalog() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Furniture");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Furniture Lists (*.csv, *.jsonl)", "csv", "jsonl"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        // Write CSV unless JSON Lines was asked for
+        File file = fileChooser.getSelectedFile();
+        String name = file.getName().toLowerCase();
+        if (!name.endsWith(".csv") && !name.endsWith(".jsonl")) {
+            file = new File(file.getParentFile(), file.getName() + ".csv");
+        }
+
+        furnitureController.exportCatalogAsync(file.toPath()).whenComplete((count, error) ->
+                SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        SwingUtils.showErrorDialog(this, "Error exporting furniture: " + error.getMessage());
+                    } else {
+                        SwingUtils.showInfoDialog(this, "Exported " + count + " items.");
+                    }
+                }));
+    }
+
     private void addToDesign() {
         if (selectedFurniture == null) {
             return;
@@ -411,8 +608,12 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
         Furniture copy = furnitureController.createFurnitureCopy(selectedFurniture);
 
         // Add to current design
-        if (app.getCurrentDesign() != null) {
-            app.getCurrentDesign().addFurniture(copy);
+        Design design = app.getCurrentDesign();
+        if (design != null) {
+            design.addFurniture(copy);
+
+            // Tell the views and autosave about the new item
+            DesignEventBus.getInstance().post(null, DesignChange.furnitureAdded(design, copy));
             JOptionPane.showMessageDialog(this,
                     "Added " + copy.getName() + " to the current design",
                     "Furniture Added",
@@ -579,53 +780,84 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
             populateFurnitureItems(selectedCategory);
 
             selectedFurniture = null;
+            furnitureList.clearSelection();
         }
     }
 
     @Override
     public void onFurnitureCatalogChanged() {
+        // List the catalog again as it is shown now, keeping the search text and the selection.
+        // The shown result cannot be narrowed down, since it may lack the new items.
         SwingUtilities.invokeLater(() -> {
-            String selectedCategory = (String) categoryComboBox.getSelectedItem();
-            populateFurnitureItems(selectedCategory);
+            lastResult = null;
+            searchFurniture();
         });
     }
 
-    // Inner class for furniture item display
-    private class FurnitureItemPanel extends JPanel {
+    // Lists furniture straight from a catalog or search result list, without copying it
+    private static class CatalogListModel extends AbstractListModel<Furniture> {
         private static final long serialVersionUID = 1L;
 
-        private Furniture furniture;
+        private List<Furniture> furniture = Collections.emptyList();
 
-        public FurnitureItemPanel(Furniture furniture) {
+        void setFurniture(List<Furniture> furniture) {
+            int oldSize = this.furniture.size();
             this.furniture = furniture;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!furniture.isEmpty()) {
+                fireIntervalAdded(this, 0, furniture.size() - 1);
+            }
+        }
+
+        @Override
+        public int getSize() {
+            return furniture.size();
+        }
+
+        @Override
+        public Furniture getElementAt(int index) {
+            return furniture.get(index);
+        }
+    }
 
+    // Paints every row of the furniture list, filled in with one item at a time
+    private class FurnitureCellRenderer extends JPanel implements ListCellRenderer<Furniture> {
+        private static final long serialVersionUID = 1L;
+
+        private final JPanel colorIndicator;
+        private final JLabel nameLabel;
+        private final JLabel typeLabel;
+        private final JLabel dimensionsLabel;
+
+        public FurnitureCellRenderer() {
             setLayout(new BorderLayout());
             setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
-                    BorderFactory.createEmptyBorder(10, 10, 10, 10)
+                    BorderFactory.createMatteBorder(0, 0, 5, 0, Color.WHITE), // Spacing between rows
+                    BorderFactory.createCompoundBorder(
+                            BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
+                            BorderFactory.createEmptyBorder(10, 10, 10, 10))
             ));
-            setBackground(Color.WHITE);
 
             // Color indicator
-            JPanel colorIndicator = new JPanel();
-            colorIndicator.setBackground(furniture.getColor());
+            colorIndicator = new JPanel();
             colorIndicator.setPreferredSize(new Dimension(40, 40));
             colorIndicator.setBorder(BorderFactory.createLineBorder(Color.BLACK));
 
             // Name and type
             JPanel infoPanel = new JPanel();
             infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-            infoPanel.setBackground(Color.WHITE);
+            infoPanel.setOpaque(false);
             infoPanel.setBorder(new EmptyBorder(0, 10, 0, 0));
 
-            JLabel nameLabel = new JLabel(furniture.getName());
+            nameLabel = new JLabel();
             nameLabel.setFont(new Font("Arial", Font.BOLD, 14));
 
-            JLabel typeLabel = new JLabel(furniture.getType());
+            typeLabel = new JLabel();
             typeLabel.setForeground(Color.GRAY);
 
-            JLabel dimensionsLabel = new JLabel(String.format("%.1fm × %.1fm × %.1fm",
-                    furniture.getWidth(), furniture.getLength(), furniture.getHeight()));
+            dimensionsLabel = new JLabel();
             dimensionsLabel.setForeground(Color.DARK_GRAY);
             dimensionsLabel.setFont(new Font("Arial", Font.PLAIN, 12));
 
@@ -635,34 +867,26 @@ public class CatalogPanel extends JPanel implements FurnitureController.Furnitur
             infoPanel.add(Box.createVerticalStrut(3));
             infoPanel.add(dimensionsLabel);
 
-            // Add button
-            JButton viewButton = SwingUtils.createPrimaryButton("View", e -> showFurnitureDetails(furniture));
+            // Only painted; clicking anywhere on the row shows the details
+            JButton viewButton = SwingUtils.createPrimaryButton("View", null);
             viewButton.setPreferredSize(new Dimension(80, 30));
 
             // Add components to panel
             add(colorIndicator, BorderLayout.WEST);
             add(infoPanel, BorderLayout.CENTER);
             add(viewButton, BorderLayout.EAST);
+        }
 
-            // Make the entire panel clickable
-            addMouseListener(new java.awt.event.MouseAdapter() {
-                @Override
-                public void mouseClicked(java.awt.event.MouseEvent evt) {
-                    showFurnitureDetails(furniture);
-                }
-
-                @Override
-                public void mouseEntered(java.awt.event.MouseEvent evt) {
-                    setBackground(new Color(245, 245, 250));
-                    infoPanel.setBackground(new Color(245, 245, 250));
-                }
-
-                @Override
-                public void mouseExited(java.awt.event.MouseEvent evt) {
-                    setBackground(Color.WHITE);
-                    infoPanel.setBackground(Color.WHITE);
-                }
-            });
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Furniture> list, Furniture furniture,
+                                                      int index, boolean isSelected, boolean cellHasFocus) {
+            colorIndicator.setBackground(furniture.getColor());
+            nameLabel.setText(furniture.getName());
+            typeLabel.setText(furniture.getType());
+            dimensionsLabel.setText(String.format("%.1fm × %.1fm × %.1fm",
+                    furniture.getWidth(), furniture.getLength(), furniture.getHeight()));
+            setBackground(isSelected || index == rolloverIndex ? ROW_HIGHLIGHT : Color.WHITE);
+            return this;
         }
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package main.java.com.furniview3d.ui.dashboard;
 import main.java.com.furniview3d.FurniView3DApp;
 import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Room;
+import main.java.com.furniview3d.util.DesignSummary;
 import main.java.com.furniview3d.util.FileManager;
 import main.java.com.furniview3d.util.SwingUtils;
 
@@ -13,7 +14,6 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -241,31 +241,7 @@ public class DashboardPanel extends JPanel {
         );
 
         if (selectedDesign != null) {
-            try {
-                Design design = FileManager.loadDesign(selectedDesign);
-
-                // Ensure room is properly initialized
-                if (design.getRoom() == null) {
-                    Room room = new Room();
-                    room.setName("Default Room");
-                    room.setWidth(5.0);
-                    room.setLength(5.0);
-                    room.setHeight(2.5);
-                    room.setShape("Rectangular");
-                    design.setRoom(room);
-                }
-
-                // Ensure furniture list is initialized
-                if (design.getFurnitureList() == null) {
-                    design.setFurnitureList(new java.util.ArrayList<>());
-                }
-
-                app.setCurrentDesign(design);
-                app.showPanel("design2D");
-            } catch (IOException | ClassNotFoundException e) {
-                SwingUtils.showErrorDialog(this, "Error loading design: " + e.getMessage());
-                e.printStackTrace();
-            }
+            app.openDesignAsync(selectedDesign);
         }
     }
 
@@ -348,9 +324,9 @@ public class DashboardPanel extends JPanel {
 
             JLabel dateLabel = new JLabel("Last modified: Recently");
             try {
-                Design design = FileManager.loadDesign(designName);
+                DesignSummary summary = FileManager.readDesignSummary(designName);
                 DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
-                String formattedDate = design.getLastModified().format(formatter);
+                String formattedDate = summary.getLastModified().format(formatter);
                 dateLabel.setText("Last modified: " + formattedDate);
             } catch (Exception e) {
                 // Do nothing, use default text
@@ -391,34 +367,7 @@ public class DashboardPanel extends JPanel {
         }
 
         private void openDesignItem(String designName) {
-            try {
-                // Load the design
-                Design design = FileManager.loadDesign(designName);
-
-                // Perform validations and ensure all properties are properly initialized
-                if (design.getRoom() == null) {
-                    Room room = new Room();
-                    room.setName("Default Room");
-                    room.setWidth(5.0);
-                    room.setLength(5.0);
-                    room.setHeight(2.5);
-                    room.setShape("Rectangular");
-                    design.setRoom(room);
-                }
-
-                if (design.getFurnitureList() == null) {
-                    design.setFurnitureList(new java.util.ArrayList<>());
-                }
-
-                // Set the current design in the application
-                app.setCurrentDesign(design);
-
-                // Navigate to the 2D design view
-                app.showPanel("design2D");
-            } catch (IOException | ClassNotFoundException e) {
-                SwingUtils.showErrorDialog(DashboardPanel.this, "Error loading design: " + e.getMessage());
-                e.printStackTrace();
-            }
+            app.openDesignAsync(designName);
         }
     }
 }
\ No newline at end of file
@@ -1,25 +1,33 @@
 package main.java.com.furniview3d.ui.design2d;
 
 import main.java.com.furniview3d.FurniView3DApp;
+import main.java.com.furniview3d.controller.AutoSaveManager;
 import main.java.com.furniview3d.controller.Design2DController;
+import main.java.com.furniview3d.controller.DesignChange;
+import main.java.com.furniview3d.controller.DesignEventBus;
 import main.java.com.furniview3d.controller.FurnitureController;
 import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Furniture;
 import main.java.com.furniview3d.model.Room;
 import main.java.com.furniview3d.render.Renderer2D;
+import main.java.com.furniview3d.util.CollisionDetector;
+import main.java.com.furniview3d.util.FurnitureBounds;
 import main.java.com.furniview3d.util.SwingUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class Design2DPanel extends JPanel implements
         Design2DController.Design2DListener,
-        FurniView3DApp.DesignChangeListener {
+        DesignEventBus.Listener {
 
     private static final long serialVersionUID = 1L;
+    private static final int MAX_OVERLAPS_SHOWN = 20;
     private FurniView3DApp app;
     private Renderer2D renderer;
     private Design2DController controller;
@@ -27,6 +35,7 @@ public class Design2DPanel extends JPanel implements
     private JPanel toolbarPanel;
     private JPanel propertiesPanel;
     private JPanel statusPanel;
+    private JLabel statusLabel;
     private JToggleButton selectButton;
     private JToggleButton moveButton;
     private JToggleButton rotateButton;
@@ -34,6 +43,7 @@ public class Design2DPanel extends JPanel implements
     private JButton zoomOutButton;
     private JButton resetViewButton;
     private JToggleButton gridButton;
+    private JButton checkOverlapsButton;
     private JButton view3DButton; // Button to switch to 3D view
     private JComboBox<String> furnitureTypeComboBox;
     private JList<String> furnitureList;
@@ -43,20 +53,21 @@ public class Design2DPanel extends JPanel implements
     private Point lastDragPoint;
     private String currentTool = "select";
     private JLabel roomInfoLabel;
+    private AutoSaveManager.AutoSaveListener autoSaveListener;
 
     public Design2DPanel(FurniView3DApp app) {
         this.app = app;
         this.furnitureController = new FurnitureController();
         setLayout(new BorderLayout());
 
-        // Register as a design change listener
-        app.addDesignChangeListener(this);
-
         // Create the renderer
         renderer = new Renderer2D();
         controller = new Design2DController(renderer);
         controller.addListener(this);
 
+        // Registered after the controller, so the plan is up to date when this is called
+        DesignEventBus.getInstance().subscribe(this, this);
+
         // Set current design
         if (app.getCurrentDesign() != null) {
             controller.setCurrentDesign(app.getCurrentDesign());
@@ -108,6 +119,9 @@ public class Design2DPanel extends JPanel implements
         gridButton.setSelected(true);
         gridButton.addActionListener(e -> controller.toggleGrid());
 
+        checkOverlapsButton = new JButton("Check Overlaps");
+        checkOverlapsButton.addActionListener(e -> showOverlaps());
+
         // 3D View Button
         view3DButton = SwingUtils.createPrimaryButton("Switch to 3D View", e -> switchTo3DView());
 
@@ -123,6 +137,7 @@ public class Design2DPanel extends JPanel implements
         toolbarPanel.add(zoomOutButton);
         toolbarPanel.add(resetViewButton);
         toolbarPanel.add(gridButton);
+        toolbarPanel.add(checkOverlapsButton);
         toolbarPanel.add(new JSeparator(SwingConstants.VERTICAL));
         toolbarPanel.add(view3DButton);
         toolbarPanel.add(Box.createHorizontalStrut(20));
@@ -194,9 +209,23 @@ public class Design2DPanel extends JPanel implements
     private void createStatusPanel() {
         statusPanel = new JPanel(new BorderLayout());
         statusPanel.setBorder(new EmptyBorder(5, 10, 5, 10));
-        JLabel statusLabel = new JLabel("Ready");
+        statusLabel = new JLabel("Ready");
         statusPanel.add(statusLabel, BorderLayout.WEST);
 
+        // Show when the design was last autosaved
+        autoSaveListener = new AutoSaveManager.AutoSaveListener() {
+            @Override
+            public void onAutoSaved(Design design, String fileName, LocalDateTime time) {
+                statusLabel.setText("Autosaved at " + time.format(DateTimeFormatter.ofPattern("h:mm:ss a")));
+            }
+
+            @Override
+            public void onAutoSaveFailed(Design design, String fileName, Exception error) {
+                statusLabel.setText("Autosave failed: " + error.getMessage());
+            }
+        };
+        AutoSaveManager.getInstance().addAutoSaveListener(autoSaveListener);
+
         // Add save button to status panel
         JButton saveButton = SwingUtils.createPrimaryButton("Save Design", e -> saveDesign());
         statusPanel.add(saveButton, BorderLayout.EAST);
@@ -204,6 +233,16 @@ public class Design2DPanel extends JPanel implements
         add(statusPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * Unregisters the panel from application-wide services, so it can be garbage collected
+     * once its window is gone. Called when the user logs out.
+     */
+    public void dispose() {
+        AutoSaveManager.getInstance().removeAutoSaveListener(autoSaveListener);
+        DesignEventBus.getInstance().unsubscribe(this);
+        controller.dispose();
+    }
+
     private void saveDesign() {
         if (app.getCurrentDesign() == null) {
             SwingUtils.showErrorDialog(this, "No design is currently open.");
@@ -222,6 +261,7 @@ public class Design2DPanel extends JPanel implements
                 return; // User cancelled or entered empty name
             }
             app.getCurrentDesign().setName(designName);
+            DesignEventBus.getInstance().post(null, DesignChange.detailsChanged(app.getCurrentDesign()));
         }
 
         try {
@@ -311,29 +351,62 @@ public class Design2DPanel extends JPanel implements
             // Update position
             controller.moveFurnitureRelative(selected.getId(), moveDeltaX, moveDeltaY);
             lastDragPoint = e.getPoint();
+            showCollisionStatus(selected);
         } else if (currentTool.equals("rotate")) {
             // Calculate center of furniture in screen coordinates
-            Room room = controller.getCurrentDesign().getRoom();
-            double roomWidth = room.getWidth() * 100;
-            double roomLength = room.getLength() * 100;
-            int screenCenterX = renderer.getWidth() / 2;
-            int screenCenterY = renderer.getHeight() / 2;
-            double furnitureX = selected.getPosX() * 100;
-            double furnitureY = selected.getPosY() * 100;
-            int furnitureCenterX = screenCenterX + (int)(furnitureX * controller.getScale());
-            int furnitureCenterY = screenCenterY + (int)(furnitureY * controller.getScale());
+            FurnitureBounds bounds = FurnitureBounds.of(selected);
+            Point furnitureCenter = renderer.roomToScreen(bounds.getCenterX(), bounds.getCenterY());
+            if (furnitureCenter == null) {
+                return;
+            }
 
             // Calculate angle
             double angle = Math.toDegrees(Math.atan2(
-                    e.getY() - furnitureCenterY,
-                    e.getX() - furnitureCenterX
+                    e.getY() - furnitureCenter.y,
+                    e.getX() - furnitureCenter.x
             ));
 
             // Update rotation
             controller.rotateFurniture(selected.getId(), angle);
+            showCollisionStatus(selected);
         }
     }
 
+    private void showCollisionStatus(Furniture furniture) {
+        List<Furniture> collisions = controller.findCollisions(furniture);
+        if (collisions.isEmpty()) {
+            statusLabel.setText("Ready");
+        } else if (collisions.size() == 1) {
+            statusLabel.setText(furniture.getName() + " overlaps " + collisions.get(0).getName());
+        } else {
+            statusLabel.setText(furniture.getName() + " overlaps " + collisions.size() + " items");
+        }
+    }
+
+    private void showOverlaps() {
+        if (controller.getCurrentDesign() == null) {
+            SwingUtils.showErrorDialog(this, "No design is currently open.");
+            return;
+        }
+
+        List<CollisionDetector.Overlap> overlaps = controller.findAllOverlaps();
+        if (overlaps.isEmpty()) {
+            SwingUtils.showInfoDialog(this, "No overlapping furniture found.");
+            return;
+        }
+
+        StringBuilder message = new StringBuilder();
+        message.append(overlaps.size()).append(overlaps.size() == 1 ? " overlap found:\n" : " overlaps found:\n");
+        int shown = Math.min(overlaps.size(), MAX_OVERLAPS_SHOWN);
+        for (int i = 0; i < shown; i++) {
+            message.append("\n").append(overlaps.get(i));
+        }
+        if (overlaps.size() > shown) {
+            message.append("\n... and ").append(overlaps.size() - shown).append(" more");
+        }
+        SwingUtils.showInfoDialog(this, message.toString());
+    }
+
     private void handleMouseReleased(MouseEvent e) {
         isDragging = false;
     }
@@ -389,9 +462,6 @@ public class Design2DPanel extends JPanel implements
 
         // Add to design
         controller.addFurniture(newFurniture);
-
-        // Update the app's current design to notify other panels
-        app.setCurrentDesign(app.getCurrentDesign());
     }
 
     private void updatePropertiesPanel(Furniture furniture) {
@@ -424,9 +494,6 @@ public class Design2DPanel extends JPanel implements
             posXField.addPropertyChangeListener("value", e -> {
                 double x = ((Number) posXField.getValue()).doubleValue();
                 controller.moveFurniture(furniture.getId(), x, furniture.getPosY());
-
-                // Notify app of design change
-                app.setCurrentDesign(app.getCurrentDesign());
             });
 
             JFormattedTextField posYField = new JFormattedTextField(furniture.getPosY());
@@ -434,9 +501,6 @@ public class Design2DPanel extends JPanel implements
             posYField.addPropertyChangeListener("value", e -> {
                 double y = ((Number) posYField.getValue()).doubleValue();
                 controller.moveFurniture(furniture.getId(), furniture.getPosX(), y);
-
-                // Notify app of design change
-                app.setCurrentDesign(app.getCurrentDesign());
             });
             posPanel.add(new JLabel("X:"));
             posPanel.add(posXField);
@@ -453,9 +517,6 @@ public class Design2DPanel extends JPanel implements
             rotField.addPropertyChangeListener("value", e -> {
                 double rotation = ((Number) rotField.getValue()).doubleValue();
                 controller.rotateFurniture(furniture.getId(), rotation);
-
-                // Notify app of design change
-                app.setCurrentDesign(app.getCurrentDesign());
             });
             rotPanel.add(rotField);
             rotPanel.add(new JLabel("degrees"));
@@ -477,9 +538,6 @@ public class Design2DPanel extends JPanel implements
                 if (newColor != null) {
                     controller.changeFurnitureColor(furniture.getId(), newColor);
                     colorButton.setBackground(newColor);
-
-                    // Notify app of design change
-                    app.setCurrentDesign(app.getCurrentDesign());
                 }
             });
             colorPanel.add(colorButton);
@@ -489,9 +547,6 @@ public class Design2DPanel extends JPanel implements
             // Delete button
             JButton deleteButton = SwingUtils.createSecondaryButton("Remove", e -> {
                 controller.removeFurniture(furniture.getId());
-
-                // Notify app of design change
-                app.setCurrentDesign(app.getCurrentDesign());
             });
             itemPropertiesPanel.add(deleteButton);
         }
@@ -538,24 +593,14 @@ public class Design2DPanel extends JPanel implements
     }
 
     @Override
-    public void onDesignChanged(Design design) {
-        // When design changes, update the controller and refresh the view
-        SwingUtilities.invokeLater(() -> {
-            controller.setCurrentDesign(design);
+    public void onDesignChange(DesignChange change) {
+        // The controller has already drawn the change; refresh what is shown beside the plan
+        Furniture selected = controller.getSelectedFurniture();
+        if (selected != null && change.affects(selected)) {
+            updatePropertiesPanel(selected);
+        }
+        if (change.isReplaced() || change.isRoomChanged()) {
             updateRoomInfoLabel();
-        });
-    }
-
-    @Override
-    public void addNotify() {
-        super.addNotify();
-
-        // When this panel becomes visible, make sure it has the latest design
-        SwingUtilities.invokeLater(() -> {
-            if (app.getCurrentDesign() != null) {
-                controller.setCurrentDesign(app.getCurrentDesign());
-                updateRoomInfoLabel();
-            }
-        });
+        }
     }
 }
\ No newline at end of file
@@ -18,9 +18,15 @@ import javafx.scene.transform.Scale;
 import javafx.scene.transform.Translate;
 
 import main.java.com.furniview3d.FurniView3DApp;
+import main.java.com.furniview3d.controller.DesignChange;
+import main.java.com.furniview3d.controller.DesignEventBus;
 import main.java.com.furniview3d.model.Design;
 import main.java.com.furniview3d.model.Furniture;
 import main.java.com.furniview3d.model.Room;
+import main.java.com.furniview3d.render.FurnitureBatcher;
+import main.java.com.furniview3d.render.FurnitureNode;
+import main.java.com.furniview3d.render.MaterialCache;
+import main.java.com.furniview3d.render.ViewFrustum;
 import main.java.com.furniview3d.util.SwingUtils;
 
 import javax.swing.*;
@@ -29,13 +35,18 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Improved 3D panel with mouse control and better interior view
  */
-public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChangeListener {
+public class Design3DPanel extends JPanel implements DesignEventBus.Listener {
     private static final long serialVersionUID = 1L;
 
     // App reference
@@ -57,6 +68,7 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
     private Rotate rotateX;
     private Rotate rotateY;
     private Scale scaleTransform;
+    private final Translate cameraTranslate = new Translate(0, 0, -800);
     private double zoomFactor = 1.0;
 
     // Mouse handling
@@ -68,6 +80,7 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
     private JLabel dimensionsLabel;
     private JLabel shapeLabel;
     private JLabel furnitureCountLabel;
+    private JLabel cullingLabel;
 
     // Special options
     private JCheckBox showAllWallsCheckbox;
@@ -78,7 +91,17 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
     private JCheckBox showRightWallCheckbox;
 
     // Furniture mapping for quick updates
-    private Map<String, Group> furnitureNodes = new HashMap<>();
+    private Map<String, FurnitureNode> furnitureNodes = new HashMap<>();
+
+    // Merged meshes used instead of one node per item for large designs
+    private final FurnitureBatcher batcher = new FurnitureBatcher(50, 0);
+    private int batchThreshold = FurnitureBatcher.DEFAULT_THRESHOLD;
+    private boolean isBatched = false;
+
+    // What the scene was last built from; the room is only rebuilt when these change
+    private Design renderedDesign;
+    private List<Object> renderedRoomState;
+    private final List<PhongMaterial> roomMaterials = new ArrayList<>(); // acquired from the MaterialCache
 
     /**
      * Constructor
@@ -88,8 +111,8 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        // Register as design change listener
-        app.addDesignChangeListener(this);
+        // Changes made while this panel is hidden are delivered when it is shown again
+        DesignEventBus.getInstance().subscribe(this, this);
 
         // Create navigation buttons
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
@@ -102,7 +125,7 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         jfxPanel = new JFXPanel();
 
         // Create information panel
-        JPanel infoPanel = new JPanel(new GridLayout(4, 1, 5, 5));
+        JPanel infoPanel = new JPanel(new GridLayout(5, 1, 5, 5));
         infoPanel.setBorder(BorderFactory.createTitledBorder("Current Design"));
         infoPanel.setBackground(java.awt.Color.WHITE);
 
@@ -110,11 +133,13 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         dimensionsLabel = new JLabel("Dimensions: ");
         shapeLabel = new JLabel("Shape: ");
         furnitureCountLabel = new JLabel("Furniture: ");
+        cullingLabel = new JLabel("Drawn: 0, culled: 0");
 
         infoPanel.add(nameLabel);
         infoPanel.add(dimensionsLabel);
         infoPanel.add(shapeLabel);
         infoPanel.add(furnitureCountLabel);
+        infoPanel.add(cullingLabel);
 
         // Create view options panel
         JPanel optionsPanel = new JPanel();
@@ -216,7 +241,7 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
             camera.setNearClip(0.1);
             camera.setFarClip(10000.0);
             camera.getTransforms().addAll(
-                    new Translate(0, 0, -800)
+                    cameraTranslate
             );
 
             // Create groups for room and furniture
@@ -263,6 +288,11 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
             scene.setFill(Color.rgb(240, 240, 240));  // Lighter background
             scene.setCamera(camera);
 
+            // The frustum and the level of detail depend on the size of the view, which is only
+            // known once the panel has been laid out
+            scene.widthProperty().addListener((observable, oldWidth, newWidth) -> updateCulling());
+            scene.heightProperty().addListener((observable, oldHeight, newHeight) -> updateCulling());
+
             // Add mouse rotation control
             scene.setOnMousePressed(this::handleMousePressed);
             scene.setOnMouseDragged(this::handleMouseDragged);
@@ -309,6 +339,7 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
 
             mouseOldX = mousePosX;
             mouseOldY = mousePosY;
+            updateCulling();
         }
     }
 
@@ -333,6 +364,7 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         scaleTransform.setX(zoomFactor);
         scaleTransform.setY(zoomFactor);
         scaleTransform.setZ(zoomFactor);
+        updateCulling();
     }
 
     /**
@@ -348,32 +380,32 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         }
 
         try {
-            // Clear existing content
-            roomGroup.getChildren().clear();
-            furnitureGroup.getChildren().clear();
-            furnitureNodes.clear();
-
             // Get current design
             Design design = app.getCurrentDesign();
-            if (design == null) return;
+            Room room = design != null ? design.getRoom() : null;
+            if (room == null) {
+                clearScene();
+                return;
+            }
 
-            // Get room
-            Room room = design.getRoom();
-            if (room == null) return;
+            // Rebuild everything only for another design or a changed room
+            List<Object> roomState = roomState(room);
+            if (design != renderedDesign || !roomState.equals(renderedRoomState)) {
+                clearScene();
 
-            // Create the 3D room
-            createRoom(room);
+                // Create the 3D room
+                createRoom(room);
 
-            // Update wall visibility
-            updateWallVisibility();
+                // Update wall visibility
+                updateWallVisibility();
+
+                renderedDesign = design;
+                renderedRoomState = roomState;
+            }
 
-            // Create furniture if available
+            // Update the furniture nodes, creating and removing them as needed
             if (design.getFurnitureList() != null) {
-                for (Furniture furniture : design.getFurnitureList()) {
-                    if (furniture != null) {
-                        createFurniture(furniture, room);
-                    }
-                }
+                syncFurniture(design.getFurnitureList(), room);
             }
 
             // FIXED: Properly center content in the viewport
@@ -389,6 +421,8 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
             root.setTranslateX(centerX);
             root.setTranslateY(centerY);
 
+            updateCulling();
+
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("Error updating 3D scene: " + e.getMessage());
@@ -439,69 +473,37 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         // Create floor with proper color
         Box floor = new Box(width, 10, depth);
         floor.setId("floor");
-        PhongMaterial floorMaterial = new PhongMaterial();
-        floorMaterial.setDiffuseColor(convertColor(room.getColorScheme().getFloorColor()));
-        floorMaterial.setSpecularColor(Color.WHITE);
-        floorMaterial.setSpecularPower(10);
-        floor.setMaterial(floorMaterial);
+        floor.setMaterial(acquireRoomMaterial(room.getColorScheme().getFloorColor(), java.awt.Color.WHITE, 10));
         floor.setTranslateY(height/2);
 
         // Create ceiling
         Box ceiling = new Box(width, 10, depth);
         ceiling.setId("ceiling");
-        PhongMaterial ceilingMaterial = new PhongMaterial();
-        ceilingMaterial.setDiffuseColor(convertColor(room.getColorScheme().getCeilingColor()));
-        ceilingMaterial.setSpecularPower(5);
-        ceiling.setMaterial(ceilingMaterial);
+        ceiling.setMaterial(acquireRoomMaterial(room.getColorScheme().getCeilingColor(), null, 5));
         ceiling.setTranslateY(-height/2);
 
-        // Get wall color from the room's color scheme
-        Color wallColor = convertColor(room.getColorScheme().getWallColor());
-
-        // Create walls with proper materials
-        // Left wall
-        PhongMaterial wallLeftMaterial = new PhongMaterial();
-        wallLeftMaterial.setDiffuseColor(wallColor);
-        wallLeftMaterial.setSpecularColor(Color.WHITE);
-        wallLeftMaterial.setSpecularPower(5);
-
-        // Right wall
-        PhongMaterial wallRightMaterial = new PhongMaterial();
-        wallRightMaterial.setDiffuseColor(wallColor);
-        wallRightMaterial.setSpecularColor(Color.WHITE);
-        wallRightMaterial.setSpecularPower(5);
-
-        // Front wall
-        PhongMaterial wallFrontMaterial = new PhongMaterial();
-        wallFrontMaterial.setDiffuseColor(wallColor);
-        wallFrontMaterial.setSpecularColor(Color.WHITE);
-        wallFrontMaterial.setSpecularPower(5);
-
-        // Back wall
-        PhongMaterial wallBackMaterial = new PhongMaterial();
-        wallBackMaterial.setDiffuseColor(wallColor);
-        wallBackMaterial.setSpecularColor(Color.WHITE);
-        wallBackMaterial.setSpecularPower(5);
+        // All four walls share one material from the room's color scheme
+        PhongMaterial wallMaterial = acquireRoomMaterial(room.getColorScheme().getWallColor(), java.awt.Color.WHITE, 5);
 
         // Create walls
         Box wallLeft = new Box(10, height, depth);
         wallLeft.setId("wall-left");
-        wallLeft.setMaterial(wallLeftMaterial);
+        wallLeft.setMaterial(wallMaterial);
         wallLeft.setTranslateX(-width/2);
 
         Box wallRight = new Box(10, height, depth);
         wallRight.setId("wall-right");
-        wallRight.setMaterial(wallRightMaterial);
+        wallRight.setMaterial(wallMaterial);
         wallRight.setTranslateX(width/2);
 
         Box wallFront = new Box(width, height, 10);
         wallFront.setId("wall-front");
-        wallFront.setMaterial(wallFrontMaterial);
+        wallFront.setMaterial(wallMaterial);
         wallFront.setTranslateZ(-depth/2);
 
         Box wallBack = new Box(width, height, 10);
         wallBack.setId("wall-back");
-        wallBack.setMaterial(wallBackMaterial);
+        wallBack.setMaterial(wallMaterial);
         wallBack.setTranslateZ(depth/2);
 
         // Add all parts to room group
@@ -509,74 +511,208 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
     }
 
     /**
-     * Create a piece of furniture in the 3D scene
+     * Bring the furniture nodes in line with the design. Only changed properties of existing
+     * nodes are touched; nodes are created for new items and dropped for removed ones.
+     */
+    private void syncFurniture(List<Furniture> furnitureList, Room room) {
+        // Switch between one node per item and merged meshes when crossing the threshold
+        boolean batched = furnitureList.size() >= batchThreshold;
+        if (batched != isBatched) {
+            clearFurniture();
+            isBatched = batched;
+            if (batched) {
+                furnitureGroup.getChildren().add(batcher.getGroup());
+            }
+        }
+
+        Set<String> present = new HashSet<>();
+        for (Furniture furniture : furnitureList) {
+            if (furniture == null) {
+                continue;
+            }
+            present.add(furniture.getId());
+            syncItem(furniture, room);
+        }
+
+        furnitureNodes.entrySet().removeIf(entry -> {
+            if (present.contains(entry.getKey())) {
+                return false;
+            }
+            furnitureGroup.getChildren().remove(entry.getValue().getGroup());
+            entry.getValue().dispose();
+            return true;
+        });
+        batcher.retainAll(present);
+        batcher.flush();
+    }
+
+    /**
+     * Bring the node of one item in line with the design, creating it if needed
      */
-    private void createFurniture(Furniture furniture, Room room) {
+    private void syncItem(Furniture furniture, Room room) {
         try {
-            // Convert dimensions to JavaFX units (1m = 100 units)
-            double width = furniture.getWidth() * 100;
-            double height = furniture.getHeight() * 100;
-            double length = furniture.getLength() * 100;
-
-            // Create furniture body
-            Box shape = new Box(width, height, length);
-
-            // Create material with furniture color
-            PhongMaterial material = new PhongMaterial();
-            material.setDiffuseColor(convertColor(furniture.getColor()));
-            material.setSpecularColor(Color.WHITE);
-            material.setSpecularPower(50);
-            shape.setMaterial(material);
-
-            // Calculate room dimensions
-            double roomWidth = room.getWidth() * 100;
-            double roomLength = room.getLength() * 100;
-            double roomHeight = room.getHeight() * 100;
-
-            // Calculate furniture position relative to room center
-            // Bottom-left corner of room is (0,0) in the design
-            // Center of room is (0,0,0) in 3D scene
-            double posX = (furniture.getPosX() + furniture.getWidth()/2) * 100 - roomWidth/2;
-            double posZ = (furniture.getPosY() + furniture.getLength()/2) * 100 - roomLength/2;
-
-            // Height position (y-coordinate) - place on floor with correct height
-            double posY = (roomHeight/2) - (height/2);
-
-            // Create group for this furniture piece
-            Group furnitureObj = new Group();
-
-            // Add shape to furniture object
-            furnitureObj.getChildren().add(shape);
-
-            // Position within the room
-            furnitureObj.setTranslateX(posX);
-            furnitureObj.setTranslateY(posY);
-            furnitureObj.setTranslateZ(posZ);
-
-            // Apply furniture rotation
-            Rotate furnitureRotation = new Rotate(furniture.getRotation(), Rotate.Y_AXIS);
-            furnitureObj.getTransforms().add(furnitureRotation);
-
-            // Store reference and add to scene
-            furnitureNodes.put(furniture.getId(), furnitureObj);
-            furnitureGroup.getChildren().add(furnitureObj);
+            if (isBatched) {
+                batcher.update(furniture, room);
+                return;
+            }
 
+            FurnitureNode node = furnitureNodes.get(furniture.getId());
+            if (node == null) {
+                node = new FurnitureNode(50, 0);
+                node.update(furniture, room);
+                furnitureNodes.put(furniture.getId(), node);
+                furnitureGroup.getChildren().add(node.getGroup());
+            } else {
+                node.update(furniture, room);
+            }
         } catch (Exception e) {
             System.err.println("Error creating furniture: " + e.getMessage());
         }
     }
 
     /**
-     * Convert AWT color to JavaFX color
+     * Update only the nodes of the items in a change, or everything if the scene was built
+     * from another design or the change crosses the batching threshold
+     */
+    private void updateFurniture3D(DesignChange change) {
+        if (!isInitialized) return;
+
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> updateFurniture3D(change));
+            return;
+        }
+
+        try {
+            Design design = app.getCurrentDesign();
+            List<Furniture> furnitureList = design != null ? design.getFurnitureList() : null;
+            if (design != renderedDesign || furnitureList == null
+                    || (furnitureList.size() >= batchThreshold) != isBatched) {
+                updateDesign3D();
+                return;
+            }
+
+            Room room = design.getRoom();
+            for (Furniture furniture : change.getRemoved()) {
+                FurnitureNode node = furnitureNodes.remove(furniture.getId());
+                if (node != null) {
+                    furnitureGroup.getChildren().remove(node.getGroup());
+                    node.dispose();
+                }
+                batcher.remove(furniture.getId());
+            }
+            for (Furniture furniture : change.getAdded()) {
+                syncItem(furniture, room);
+            }
+            for (Furniture furniture : change.getMoved()) {
+                syncItem(furniture, room);
+            }
+            for (Furniture furniture : change.getRestyled()) {
+                syncItem(furniture, room);
+            }
+            batcher.flush();
+            updateCulling();
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Error updating 3D furniture: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hide the furniture outside the camera view and pick each item's level of detail.
+     * Runs whenever the camera, zoom or furniture changes and shows the counts for the frame.
+     */
+    private void updateCulling() {
+        if (scene == null || scene.getWidth() <= 0 || scene.getHeight() <= 0) {
+            return;
+        }
+
+        // Furniture coordinates pass through the root translation and the content transforms
+        // (rotateX, rotateY, zoom), then into the camera, which only has a translation
+        ViewFrustum frustum = new ViewFrustum(camera.getFieldOfView(), camera.isVerticalFieldOfView(),
+                scene.getWidth(), scene.getHeight(), camera.getNearClip(), camera.getFarClip())
+                .translate(-cameraTranslate.getX(), -cameraTranslate.getY(), -cameraTranslate.getZ())
+                .translate(root.getTranslateX(), root.getTranslateY(), root.getTranslateZ())
+                .rotate(rotateX.getAngle(), rotateX.getAxis())
+                .rotate(rotateY.getAngle(), rotateY.getAxis())
+                .scale(scaleTransform.getX(), scaleTransform.getY(), scaleTransform.getZ());
+
+        int drawn = 0;
+        int total;
+        if (isBatched) {
+            drawn = batcher.applyView(frustum);
+            total = batcher.getBatchCount();
+        } else {
+            for (FurnitureNode node : furnitureNodes.values()) {
+                if (node.applyView(frustum)) {
+                    drawn++;
+                }
+            }
+            total = furnitureNodes.size();
+        }
+        showCullingCounts(drawn, total - drawn);
+    }
+
+    /**
+     * Show the drawn and culled furniture node counts of the current frame
+     */
+    private void showCullingCounts(int drawn, int culled) {
+        String text = "Drawn: " + drawn + ", culled: " + culled + (isBatched ? " (batches)" : "");
+        SwingUtilities.invokeLater(() -> cullingLabel.setText(text));
+    }
+
+    /**
+     * Set the number of items from which the furniture is merged into batched meshes
+     */
+    public void setBatchThreshold(int batchThreshold) {
+        this.batchThreshold = Math.max(0, batchThreshold);
+        updateDesign3D();
+    }
+
+    /**
+     * Get a shared material for a room surface, released again by clearScene
      */
-    private Color convertColor(java.awt.Color color) {
-        if (color == null) return Color.GRAY;
-        return Color.rgb(
-                color.getRed(),
-                color.getGreen(),
-                color.getBlue(),
-                color.getAlpha() / 255.0
-        );
+    private PhongMaterial acquireRoomMaterial(java.awt.Color color, java.awt.Color specular, double specularPower) {
+        PhongMaterial material = MaterialCache.getInstance().acquire(color, specular, specularPower);
+        roomMaterials.add(material);
+        return material;
+    }
+
+    /**
+     * Remove the furniture nodes or batches, keeping the room
+     */
+    private void clearFurniture() {
+        furnitureGroup.getChildren().clear();
+        for (FurnitureNode node : furnitureNodes.values()) {
+            node.dispose();
+        }
+        furnitureNodes.clear();
+        batcher.clear();
+        showCullingCounts(0, 0);
+    }
+
+    /**
+     * Remove all room and furniture nodes
+     */
+    private void clearScene() {
+        roomGroup.getChildren().clear();
+        clearFurniture();
+        isBatched = false;
+        for (PhongMaterial material : roomMaterials) {
+            MaterialCache.getInstance().release(material);
+        }
+        roomMaterials.clear();
+        renderedDesign = null;
+        renderedRoomState = null;
+    }
+
+    /**
+     * The room properties that the room nodes are built from
+     */
+    private static List<Object> roomState(Room room) {
+        return Arrays.asList(room, room.getWidth(), room.getLength(), room.getHeight(),
+                room.getColorScheme() != null ? room.getColorScheme().getFloorColor() : null,
+                room.getColorScheme() != null ? room.getColorScheme().getWallColor() : null,
+                room.getColorScheme() != null ? room.getColorScheme().getCeilingColor() : null);
     }
 
     /**
@@ -642,16 +778,35 @@ public class Design3DPanel extends JPanel implements FurniView3DApp.DesignChange
         }
     }
 
-    @Override
-    public void addNotify() {
-        super.addNotify();
-        // Update when panel becomes visible
-        SwingUtilities.invokeLater(this::updateDesignInfo);
+    /**
+     * Unregisters the panel from the DesignEventBus and releases its scene and the materials
+     * it holds in the MaterialCache. Called when the user logs out.
+     */
+    public void dispose() {
+        DesignEventBus.getInstance().unsubscribe(this);
+        Platform.runLater(() -> {
+            if (isInitialized) {
+                clearScene();
+                isInitialized = false;
+            }
+            jfxPanel.setScene(null);
+            scene = null;
+        });
     }
 
     @Override
-    public void onDesignChanged(Design design) {
-        // Update when design changes
-        updateDesignInfo();
+    public void onDesignChange(DesignChange change) {
+        if (change.isReplaced() || change.isRoomChanged() || change.isDetailsChanged()) {
+            updateDesignInfo();
+            return;
+        }
+
+        // Only furniture changed, so the room and the other items are left alone
+        if (change.isFurnitureListChanged()) {
+            Design design = app.getCurrentDesign();
+            int count = (design != null && design.getFurnitureList() != null) ? design.getFurnitureList().size() : 0;
+            furnitureCountLabel.setText("Furniture Count: " + count);
+        }
+        updateFurniture3D(change);
     }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package main.java.com.furniview3d.ui.management;
 
 import main.java.com.furniview3d.FurniView3DApp;
+import main.java.com.furniview3d.controller.DesignChange;
 import main.java.com.furniview3d.controller.DesignController;
+import main.java.com.furniview3d.controller.DesignEventBus;
 import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.util.DesignIndex;
 import main.java.com.furniview3d.util.FileManager;
 import main.java.com.furniview3d.util.SwingUtils;
 
@@ -30,6 +33,7 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
     private JLabel createdDateLabel;
     private JLabel modifiedDateLabel;
     private JLabel designerLabel;
+    private String selectedFileName; // design whose details are shown, loaded only to open or update it
 
     public ManagementPanel(FurniView3DApp app) {
         this.app = app;
@@ -162,67 +166,42 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
         // Clear existing rows
         tableModel.setRowCount(0);
 
-        // Get all saved designs
-        List<String> designNames = FileManager.getDesignList();
+        // Get all saved designs from the index
+        List<DesignIndex.Entry> entries = DesignIndex.getInstance().getEntries();
 
         // Add to table
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
-        for (String designName : designNames) {
-            try {
-                Design design = FileManager.loadDesign(designName);
-                String formattedDate = design.getLastModified().format(formatter);
-                tableModel.addRow(new Object[]{
-                        design.getName(),
-                        formattedDate,
-                        design.getDesignerId()
-                });
-            } catch (Exception e) {
-                // Skip files that can't be loaded
-                System.err.println("Error loading design: " + designName);
-            }
+        for (DesignIndex.Entry entry : entries) {
+            String formattedDate = entry.getLastModified() != null
+                    ? entry.getLastModified().format(formatter)
+                    : "";
+            tableModel.addRow(new Object[]{
+                    entry.getName(),
+                    formattedDate,
+                    entry.getDesignerId()
+            });
         }
     }
 
     private void loadDesignDetails(String designName) {
-        try {
-            // Find the design file name from the display name
-            List<String> designFiles = FileManager.getDesignList();
-            String fileName = null;
-
-            for (String file : designFiles) {
-                try {
-                    Design design = FileManager.loadDesign(file);
-                    if (design.getName().equals(designName)) {
-                        fileName = file;
-                        break;
-                    }
-                } catch (Exception e) {
-                    // Skip files that can't be loaded
-                }
-            }
+        // Find the design file name from the display name
+        String fileName = DesignIndex.getInstance().findFileByName(designName);
+        DesignIndex.Entry entry = fileName != null ? DesignIndex.getInstance().getEntry(fileName) : null;
 
-            if (fileName == null) {
-                SwingUtils.showErrorDialog(this, "Could not find design file for " + designName);
-                return;
-            }
-
-            Design design = FileManager.loadDesign(fileName);
-
-            // Update UI
-            nameField.setText(design.getName());
-            descriptionArea.setText(design.getDescription());
-
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
-            createdDateLabel.setText("Created: " + design.getCreatedAt().format(formatter));
-            modifiedDateLabel.setText("Modified: " + design.getLastModified().format(formatter));
-            designerLabel.setText("Designer: " + design.getDesignerId());
+        if (entry == null) {
+            SwingUtils.showErrorDialog(this, "Could not find design file for " + designName);
+            return;
+        }
 
-            // Update current design controller
-            designController.setCurrentDesign(design);
+        // Shown from the index, so selecting a row does not read the design file
+        selectedFileName = fileName;
+        nameField.setText(entry.getName());
+        descriptionArea.setText(entry.getDescription());
 
-        } catch (Exception e) {
-            SwingUtils.showErrorDialog(this, "Error loading design details: " + e.getMessage());
-        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
+        createdDateLabel.setText("Created: " + (entry.getCreatedAt() != null ? entry.getCreatedAt().format(formatter) : ""));
+        modifiedDateLabel.setText("Modified: " + (entry.getLastModified() != null ? entry.getLastModified().format(formatter) : ""));
+        designerLabel.setText("Designer: " + entry.getDesignerId());
     }
 
     private void createNewDesign() {
@@ -245,31 +224,15 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
 
         try {
             // Find the design file name from the display name
-            List<String> designFiles = FileManager.getDesignList();
-            String fileName = null;
-
-            for (String file : designFiles) {
-                try {
-                    Design design = FileManager.loadDesign(file);
-                    if (design.getName().equals(designName)) {
-                        fileName = file;
-                        break;
-                    }
-                } catch (Exception e) {
-                    // Skip files that can't be loaded
-                }
-            }
+            String fileName = DesignIndex.getInstance().findFileByName(designName);
 
             if (fileName == null) {
                 SwingUtils.showErrorDialog(this, "Could not find design file for " + designName);
                 return;
             }
 
-            Design design = FileManager.loadDesign(fileName);
-            app.setCurrentDesign(design);
-
-            // Navigate to design2D panel
-            app.showPanel("design2D");
+            // Loads in the background and navigates to the design2D panel when done
+            app.openDesignAsync(fileName);
 
         } catch (Exception e) {
             SwingUtils.showErrorDialog(this, "Error opening design: " + e.getMessage());
@@ -277,15 +240,25 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
     }
 
     private void updateDesignDetails() {
+        // Read before loading the design, which shows its stored details
+        String name = nameField.getText().trim();
+        String description = descriptionArea.getText().trim();
+
+        if (selectedFileName != null) {
+            // The selected design is only loaded now that it is about to be rewritten
+            try {
+                designController.setCurrentDesign(FileManager.loadDesign(selectedFileName));
+            } catch (Exception e) {
+                SwingUtils.showErrorDialog(this, "Error loading design: " + e.getMessage());
+                return;
+            }
+        }
         if (designController.getCurrentDesign() == null) {
             SwingUtils.showErrorDialog(this, "No design is currently selected.");
             return;
         }
 
         // Update design properties
-        String name = nameField.getText().trim();
-        String description = descriptionArea.getText().trim();
-
         if (name.isEmpty()) {
             SwingUtils.showErrorDialog(this, "Design name cannot be empty.");
             return;
@@ -293,6 +266,10 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
 
         designController.updateDesignName(name);
         designController.updateDesignDescription(description);
+        if (designController.getCurrentDesign() == app.getCurrentDesign()) {
+            // The open design was edited, so the other panels need the new details
+            DesignEventBus.getInstance().post(null, DesignChange.detailsChanged(app.getCurrentDesign()));
+        }
 
         try {
             // Save the updated design
@@ -329,20 +306,7 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
         if (result == JOptionPane.YES_OPTION) {
             try {
                 // Find the design file name from the display name
-                List<String> designFiles = FileManager.getDesignList();
-                String fileName = null;
-
-                for (String file : designFiles) {
-                    try {
-                        Design design = FileManager.loadDesign(file);
-                        if (design.getName().equals(designName)) {
-                            fileName = file;
-                            break;
-                        }
-                    } catch (Exception e) {
-                        // Skip files that can't be loaded
-                    }
-                }
+                String fileName = DesignIndex.getInstance().findFileByName(designName);
 
                 if (fileName == null) {
                     SwingUtils.showErrorDialog(this, "Could not find design file for " + designName);
@@ -354,6 +318,9 @@ public class ManagementPanel extends JPanel implements DesignController.DesignCh
 
                 if (deleted) {
                     SwingUtils.showInfoDialog(this, "Design deleted successfully.");
+                    if (fileName.equals(selectedFileName)) {
+                        selectedFileName = null;
+                    }
 
                     // Clear design details panel
                     nameField.setText("");
@@ -219,9 +219,6 @@ public class RoomSetupPanel extends JPanel implements RoomController.RoomChangeL
         updateRoomName();
         updateRoomDimensions();
 
-        // Make sure the app has the updated design
-        app.setCurrentDesign(app.getCurrentDesign());
-
         // Proceed to the design 2D panel
         app.showPanel("design2D");
     }
@@ -0,0 +1,202 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Furniture;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the furniture catalog as a snapshot file and a log of the changes made since.
+ *
+ * The snapshot holds the serialized catalog list, as written by earlier versions. Adding,
+ * changing or removing items appends records to the log instead of rewriting the snapshot:
+ * <ul>
+ *   <li>PUT_FURNITURE - the full state of one item, added or replaced</li>
+ *   <li>REMOVE_FURNITURE - the ID of a removed item</li>
+ * </ul>
+ * Both are idempotent, so a log left behind by a crash while writing a new snapshot can be
+ * replayed over the snapshot that already contains it. Once the log has grown past half the
+ * snapshot, the owner should write a new snapshot, which replaces the log.
+ *
+ * A snapshot can be written on a background thread while changes are logged on the event
+ * dispatch thread; see beginSnapshot. The store is only locked to log a change or to swap
+ * in the new log, never while the snapshot itself is written.
+ */
+public class CatalogStore {
+    private static final int RECORD_PUT_FURNITURE = 1;
+    private static final int RECORD_REMOVE_FURNITURE = 2;
+
+    // Compact once the log has grown to this size or half the snapshot, whichever is larger
+    private static final long MIN_COMPACTION_BYTES = 256 * 1024;
+
+    private final Path snapshotPath;
+    private final JournalFile log;
+    private long snapshotSize;
+    private long logSize;
+    private List<JournalFile.Record> laterRecords; // logged since beginSnapshot, or null
+    private final Object snapshotLock = new Object(); // one snapshot is written at a time
+
+    /**
+     * Creates a store; nothing is read until the catalog is loaded
+     * @param snapshotPath The snapshot file
+     * @param logPath The log file
+     */
+    public CatalogStore(Path snapshotPath, Path logPath) {
+        this.snapshotPath = snapshotPath;
+        this.log = new JournalFile(logPath);
+    }
+
+    /**
+     * Checks if a catalog has been stored
+     * @return true if there is a snapshot or a log
+     */
+    public synchronized boolean exists() {
+        return Files.exists(snapshotPath) || log.exists();
+    }
+
+    /**
+     * Reads the snapshot and replays the log over it
+     * @return The catalog in order, with added items after those in the snapshot
+     * @throws IOException If an I/O error occurs
+     * @throws ClassNotFoundException If the snapshot references an unknown class
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<Furniture> load() throws IOException, ClassNotFoundException {
+        Map<String, Furniture> catalog = new LinkedHashMap<>();
+        snapshotSize = 0;
+        if (Files.exists(snapshotPath)) {
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+                for (Furniture furniture : (List<Furniture>) in.readObject()) {
+                    catalog.put(furniture.getId(), furniture);
+                }
+            }
+            snapshotSize = Files.size(snapshotPath);
+        }
+
+        log.replay((type, payload) -> {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            switch (type) {
+                case RECORD_PUT_FURNITURE:
+                    Furniture furniture = DesignJournal.readFurniture(in);
+                    catalog.put(furniture.getId(), furniture);
+                    break;
+                case RECORD_REMOVE_FURNITURE:
+                    catalog.remove(DesignCodec.readString(in));
+                    break;
+                default:
+                    throw new IOException("Unknown catalog log record type " + type);
+            }
+        });
+        logSize = log.size();
+
+        return new ArrayList<>(catalog.values());
+    }
+
+    /**
+     * Logs an added or changed item
+     * @param furniture The item in its current state
+     * @throws IOException If an I/O error occurs
+     */
+    public synchronized void put(Furniture furniture) throws IOException {
+        putAll(Collections.singletonList(furniture));
+    }
+
+    /**
+     * Logs many added or changed items in a single write
+     * @param furnitureList The items in their current state
+     * @throws IOException If an I/O error occurs
+     */
+    public synchronized void putAll(Collection<Furniture> furnitureList) throws IOException {
+        if (furnitureList.isEmpty()) {
+            return;
+        }
+
+        List<JournalFile.Record> records = new ArrayList<>(furnitureList.size());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Furniture furniture : furnitureList) {
+            bytes.reset();
+            DesignJournal.writeFurniture(out, furniture);
+            records.add(new JournalFile.Record(RECORD_PUT_FURNITURE, bytes.toByteArray()));
+        }
+        append(records);
+    }
+
+    /**
+     * Logs a removed item
+     * @param furnitureId The ID of the item
+     * @throws IOException If an I/O error occurs
+     */
+    public synchronized void remove(String furnitureId) throws IOException {
+        append(Collections.singletonList(
+                new JournalFile.Record(RECORD_REMOVE_FURNITURE, DesignJournal.encodeId(furnitureId))));
+    }
+
+    /**
+     * Checks if the log has grown large enough that a new snapshot would be cheaper to load
+     * @return true if the catalog should be written as a snapshot, false if it should not or
+     *         one is already being written
+     */
+    public synchronized boolean needsCompaction() {
+        return laterRecords == null && logSize > Math.max(MIN_COMPACTION_BYTES, snapshotSize / 2);
+    }
+
+    /**
+     * Starts a snapshot that is written on another thread. Call it while copying the catalog,
+     * on the thread that changes it, and pass the copy to the next writeSnapshot; changes
+     * logged in between are kept in the new log. The items must be copied as well, since
+     * they are serialized on the other thread.
+     */
+    public synchronized void beginSnapshot() {
+        laterRecords = new ArrayList<>();
+    }
+
+    /**
+     * Writes the whole catalog as a new snapshot and replaces the log with the changes
+     * logged since beginSnapshot, if it was called
+     * @param catalog The catalog in order, not changed while it is written
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeSnapshot(List<Furniture> catalog) throws IOException {
+        synchronized (snapshotLock) {
+            // Changes logged meanwhile go to the old log, which is still replayed over the
+            // new snapshot if the application stops before the log is replaced
+            ArrayList<Furniture> snapshot = new ArrayList<>(catalog);
+            FileManager.writeAtomically(snapshotPath, out -> {
+                ObjectOutputStream objectOut = new ObjectOutputStream(new BufferedOutputStream(out));
+                objectOut.writeObject(snapshot);
+                objectOut.flush();
+            });
+            long size = Files.size(snapshotPath);
+
+            synchronized (this) {
+                // Changes made after the catalog was copied are not in the snapshot
+                List<JournalFile.Record> later = laterRecords != null ? laterRecords : Collections.emptyList();
+                laterRecords = null;
+                log.replaceWith(later);
+                snapshotSize = size;
+                logSize = 0;
+                for (JournalFile.Record record : later) {
+                    logSize += record.getFramedSize();
+                }
+            }
+        }
+    }
+
+    private void append(List<JournalFile.Record> records) throws IOException {
+        log.append(records);
+        for (JournalFile.Record record : records) {
+            logSize += record.getFramedSize();
+        }
+        if (laterRecords != null) {
+            laterRecords.addAll(records);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,631 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Furniture;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads and writes the furniture catalog as CSV or JSON Lines, one item per row, so supplier
+ * catalogs can be imported in bulk and the catalog edited elsewhere.
+ *
+ * Both formats use the same columns: id, name, type, width, length and height (in meters),
+ * color (#RRGGBB), material, imagePath and modelPath. A CSV file starts with a header row
+ * naming its columns in any order; a JSON Lines file holds one flat object per line. Only the
+ * name, type and dimensions are required, and unknown columns are ignored. Rows are parsed one
+ * at a time and handed over in batches, so only one batch is held in memory however large the
+ * file is. Rows that fail to parse or validate are skipped and reported by line number.
+ */
+public class CatalogTransfer {
+    public static final int BATCH_SIZE = 1000;
+    public static final double MAX_DIMENSION = 100.0; // meters; larger values are usually in the wrong unit
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_FIELD_LENGTH = 64 * 1024; // characters, so an unclosed quote cannot read the whole file
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] COLUMNS = {
+            "id", "name", "type", "width", "length", "height", "color", "material", "imagePath", "modelPath"
+    };
+    private static final String[] REQUIRED_COLUMNS = {"name", "type", "width", "length", "height"};
+
+    /**
+     * The supported file formats, chosen by file extension
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        /**
+         * Gets the format of a file
+         * @param file The file
+         * @return CSV for .csv files, JSON Lines for anything else
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".csv") ? CSV : JSON_LINES;
+        }
+    }
+
+    /**
+     * Interface for receiving imported items
+     */
+    public interface BatchListener {
+        /**
+         * Called on the reading thread for every BATCH_SIZE valid rows, and for the rest at the end
+         * @param batch The items, in file order; the list is not used again by the importer
+         * @throws IOException To abort the import
+         */
+        void batchRead(List<Furniture> batch) throws IOException;
+    }
+
+    /**
+     * The outcome of an import
+     */
+    public static class ImportResult {
+        private final int importedCount;
+        private final int rejectedCount;
+        private final List<String> errors;
+
+        ImportResult(int importedCount, int rejectedCount, List<String> errors) {
+            this.importedCount = importedCount;
+            this.rejectedCount = rejectedCount;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        public int getRejectedCount() {
+            return rejectedCount;
+        }
+
+        /**
+         * Gets why rows were rejected, for the first MAX_REPORTED_ERRORS rejected rows
+         * @return Messages starting with the line number
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private CatalogTransfer() {
+    }
+
+    /**
+     * Imports furniture from a CSV or JSON Lines file
+     * @param file The file to read
+     * @param batchListener Receives the valid rows in batches
+     * @param progressListener Receives read progress in bytes (may be null)
+     * @return The number of items imported and the rows rejected
+     * @throws IOException If the file cannot be read, is not a catalog, or a listener aborts
+     */
+    public static ImportResult importCatalog(Path file, BatchListener batchListener,
+                                             ProgressInputStream.ProgressListener progressListener) throws IOException {
+        ProgressInputStream.ProgressListener progress = progressListener != null
+                ? progressListener : (bytesRead, totalBytes) -> { };
+        int imported = 0;
+        int rejected = 0;
+        List<String> errors = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ProgressInputStream(Files.newInputStream(file), Files.size(file), progress),
+                StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            RowReader rows = Format.forFile(file) == Format.CSV ? new CsvRowReader(reader) : new JsonLinesRowReader(reader);
+
+            List<Furniture> batch = new ArrayList<>(BATCH_SIZE);
+            while (true) {
+                Furniture furniture;
+                try {
+                    Map<String, String> row = rows.next();
+                    if (row == null) {
+                        break;
+                    }
+                    furniture = toFurniture(row);
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("Line " + rows.getRowLineNumber() + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+
+                batch.add(furniture);
+                if (batch.size() == BATCH_SIZE) {
+                    batchListener.batchRead(batch);
+                    imported += batch.size();
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchListener.batchRead(batch);
+                imported += batch.size();
+            }
+        }
+
+        return new ImportResult(imported, rejected, errors);
+    }
+
+    /**
+     * Exports furniture to a CSV or JSON Lines file, replacing it atomically
+     * @param file The file to write; .csv files are written as CSV, anything else as JSON Lines
+     * @param catalog The items to export
+     * @throws IOException If an I/O error occurs
+     */
+    public static void exportCatalog(Path file, List<Furniture> catalog) throws IOException {
+        boolean csv = Format.forFile(file) == Format.CSV;
+        FileManager.writeAtomically(file, out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (csv) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write("\r\n");
+            }
+            for (Furniture furniture : catalog) {
+                String[] values = toValues(furniture);
+                if (csv) {
+                    writeCsvRow(writer, values);
+                } else {
+                    writeJsonLine(writer, values);
+                }
+            }
+            writer.flush();
+        });
+    }
+
+    private static Furniture toFurniture(Map<String, String> row) {
+        String name = requiredText(row, "name");
+        String type = requiredText(row, "type");
+        double width = dimension(row, "width");
+        double length = dimension(row, "length");
+        double height = dimension(row, "height");
+        String colorText = optionalText(row, "color", null);
+        Color color = colorText != null ? parseColor(colorText) : Color.GRAY;
+        String material = optionalText(row, "material", "wood");
+        String imagePath = optionalText(row, "imagePath", "resources/images/furniture/" + type.toLowerCase() + ".png");
+        String modelPath = optionalText(row, "modelPath", "resources/models/" + type.toLowerCase() + ".obj");
+
+        String id = optionalText(row, "id", null);
+        if (id == null) {
+            return new Furniture(name, type, width, length, height, color, material, imagePath, modelPath);
+        }
+        return new Furniture(id, name, type, width, length, height, color, material, imagePath, modelPath,
+                0.0, 0.0, 0.0);
+    }
+
+    private static String[] toValues(Furniture furniture) {
+        Color color = furniture.getColor();
+        return new String[]{
+                furniture.getId(),
+                furniture.getName(),
+                furniture.getType(),
+                Double.toString(furniture.getWidth()),
+                Double.toString(furniture.getLength()),
+                Double.toString(furniture.getHeight()),
+                color != null ? String.format("#%06X", color.getRGB() & 0xFFFFFF) : null,
+                furniture.getMaterial(),
+                furniture.getImagePath(),
+                furniture.getModelPath()
+        };
+    }
+
+    private static String requiredText(Map<String, String> row, String column) {
+        String value = optionalText(row, column, null);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is missing");
+        }
+        return value;
+    }
+
+    private static String optionalText(Map<String, String> row, String column, String defaultValue) {
+        String value = row.get(column);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    private static double dimension(Map<String, String> row, String column) {
+        String text = requiredText(row, column);
+        double value;
+        try {
+            value = Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + text);
+        }
+        if (!(value > 0 && value <= MAX_DIMENSION)) {
+            throw new IllegalArgumentException(column + " must be more than 0 and at most "
+                    + MAX_DIMENSION + " m, not " + text);
+        }
+        return value;
+    }
+
+    private static Color parseColor(String text) {
+        String hex = text.trim();
+        if (hex.startsWith("#")) {
+            hex = hex.substring(1);
+        }
+        if (hex.length() != 6) {
+            throw new IllegalArgumentException("color must be #RRGGBB, not " + text);
+        }
+        try {
+            return new Color(Integer.parseInt(hex, 16));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("color must be #RRGGBB, not " + text);
+        }
+    }
+
+    // Maps a column name in the file to the one used here, ignoring case
+    private static String canonicalColumn(String name) {
+        String trimmed = name.trim();
+        for (String column : COLUMNS) {
+            if (column.equalsIgnoreCase(trimmed)) {
+                return column;
+            }
+        }
+        return trimmed;
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            boolean quote = !value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+            for (int j = 0; j < value.length() && !quote; j++) {
+                char c = value.charAt(j);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (quote) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeJsonLine(Writer writer, String[] values) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJsonString(writer, COLUMNS[i]);
+            writer.write(':');
+            String value = values[i];
+            if (value == null) {
+                writer.write("null");
+            } else if (i >= 3 && i <= 5) {
+                // Dimensions are numbers; values that JSON cannot represent are left out
+                double number = Double.parseDouble(value);
+                writer.write(Double.isFinite(number) ? value : "null");
+            } else {
+                writeJsonString(writer, value);
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Reads one row at a time as column name to text value
+     */
+    private interface RowReader {
+        /**
+         * Reads the next row
+         * @return The values by column name, or null at the end of the file
+         * @throws IllegalArgumentException If the row cannot be parsed; the next row can still be read
+         * @throws IOException If the file cannot be read any further
+         */
+        Map<String, String> next() throws IOException;
+
+        /**
+         * Gets the line the last row read started on, for error messages
+         * @return The line number, starting at 1
+         */
+        int getRowLineNumber();
+    }
+
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final String[] header;
+        private int lineNumber;
+        private int rowLineNumber;
+
+        CsvRowReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                throw new IOException("The file is empty");
+            }
+
+            header = new String[fields.size()];
+            for (int i = 0; i < header.length; i++) {
+                String name = fields.get(i);
+                if (i == 0 && name.startsWith("\uFEFF")) {
+                    name = name.substring(1); // Byte order mark written by spreadsheet programs
+                }
+                header[i] = canonicalColumn(name);
+            }
+
+            List<String> missing = new ArrayList<>();
+            for (String column : REQUIRED_COLUMNS) {
+                boolean found = false;
+                for (String name : header) {
+                    found |= name.equals(column);
+                }
+                if (!found) {
+                    missing.add(column);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IOException("The CSV header has no " + String.join(", ", missing) + " column");
+            }
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).trim().isEmpty()); // Blank line
+
+            if (fields.size() > header.length) {
+                throw new IllegalArgumentException("has " + fields.size() + " fields but the header has " + header.length);
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(header[i], fields.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public int getRowLineNumber() {
+            return rowLineNumber;
+        }
+
+        // Splits one record into fields; quoted fields may contain commas, quotes and line breaks
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            rowLineNumber = lineNumber;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    line = reader.readLine();
+                    if (line == null || field.length() > MAX_FIELD_LENGTH) {
+                        throw new IOException("Line " + rowLineNumber + ": a quoted field is not closed");
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static class JsonLinesRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        JsonLinesRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.trim().isEmpty());
+
+            return new FlatJsonParser(line).parseObject();
+        }
+
+        @Override
+        public int getRowLineNumber() {
+            return lineNumber;
+        }
+    }
+
+    /**
+     * Parses a JSON object whose values are strings, numbers, booleans or null. Numbers and
+     * booleans are kept as their text; null values are left out.
+     */
+    private static class FlatJsonParser {
+        private final String text;
+        private int pos;
+
+        FlatJsonParser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> parseObject() {
+            Map<String, String> values = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    String name = parseString();
+                    expect(':');
+                    String value = parseValue(name);
+                    if (value != null) {
+                        values.put(canonicalColumn(name), value);
+                    }
+                    char c = next();
+                    if (c == '}') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw error("expected , or } at column " + pos);
+                    }
+                }
+            }
+            if (peek() != 0) {
+                throw error("unexpected text after the object at column " + (pos + 1));
+            }
+            return values;
+        }
+
+        private String parseValue(String name) {
+            char c = peek();
+            if (c == '"') {
+                return parseString();
+            }
+            if (c == '{' || c == '[') {
+                throw error(name + " must be a string or number");
+            }
+            int start = pos;
+            while (pos < text.length() && ",} \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("expected a value for " + name);
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("a string is not closed");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    throw error("a string is not closed");
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("bad \\u escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("bad \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped); // \" \\ \/
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("expected " + expected + " at column " + pos);
+            }
+        }
+
+        // Skips whitespace and returns the next character, or 0 at the end of the line
+        private char peek() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        private char next() {
+            char c = peek();
+            if (c != 0) {
+                pos++;
+            }
+            return c;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("not a valid JSON object: " + message);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Furniture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds overlapping furniture in a layout.
+ * The broad phase sorts the items by the left edge of their bounding boxes and sweeps across
+ * the room, so only items whose boxes overlap along X are compared. Candidate pairs are then
+ * checked exactly with the separating axis test on the rotated footprints.
+ */
+public class CollisionDetector {
+
+    /**
+     * Two furniture items whose footprints overlap
+     */
+    public static class Overlap {
+        private final Furniture first;
+        private final Furniture second;
+
+        public Overlap(Furniture first, Furniture second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Furniture getFirst() {
+            return first;
+        }
+
+        public Furniture getSecond() {
+            return second;
+        }
+
+        @Override
+        public String toString() {
+            return first.getName() + " and " + second.getName();
+        }
+    }
+
+    // Utility class
+    private CollisionDetector() {
+    }
+
+    /**
+     * Finds every pair of overlapping items
+     * @param furnitureList The furniture of a design
+     * @return The overlapping pairs, each reported once with the earlier item of the list first
+     */
+    public static List<Overlap> findOverlaps(List<Furniture> furnitureList) {
+        int count = furnitureList.size();
+        FurnitureBounds[] bounds = new FurnitureBounds[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            bounds[i] = FurnitureBounds.of(furnitureList.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> bounds[i].getMinX()));
+
+        List<Overlap> overlaps = new ArrayList<>();
+        for (int a = 0; a < count; a++) {
+            int i = order[a];
+            FurnitureBounds current = bounds[i];
+            for (int b = a + 1; b < count; b++) {
+                int j = order[b];
+                FurnitureBounds candidate = bounds[j];
+                if (candidate.getMinX() >= current.getMaxX()) {
+                    break; // Every later item starts further right
+                }
+                if (candidate.getMinY() >= current.getMaxY() || current.getMinY() >= candidate.getMaxY()) {
+                    continue;
+                }
+                if (current.intersects(candidate)) {
+                    overlaps.add(i < j
+                            ? new Overlap(furnitureList.get(i), furnitureList.get(j))
+                            : new Overlap(furnitureList.get(j), furnitureList.get(i)));
+                }
+            }
+        }
+        return overlaps;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,642 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.ColorScheme;
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+
+import java.awt.Color;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads and writes the binary FurniView Design (.fvd) format.
+ *
+ * Layout of a version 3 file:
+ * <pre>
+ *   magic "FVD" 0x1A, unsigned short version
+ *   summary header: fixed size, see {@link #readSummary(InputStream)}, ending with the
+ *                   journal generation as the last 8 bytes
+ *   string table: varint count, then varint byte length + UTF-8 bytes per string
+ *   design: id, name, description, designer, created, modified
+ *   room: id, name, width, length, height, shape, color scheme
+ *   furniture: varint count, then one fixed-order record per item
+ * </pre>
+ * Strings are written once in the table and referenced by varint index (0 means null),
+ * UUIDs are packed into two longs and colors into one ARGB int.
+ * Version 2 files (no summary header) and files written with Java serialization
+ * are still accepted by {@link #read(InputStream)}.
+ */
+public class DesignCodec {
+    static final int MAGIC = 0x4656441A; // "FVD" followed by the DOS end-of-file marker
+    static final int FORMAT_VERSION = 3;
+    static final int FIRST_VERSION_WITH_SUMMARY = 3;
+
+    // Magic, version and summary header together; the body always starts at this offset
+    static final int SUMMARY_HEADER_SIZE = 512;
+    private static final int MAX_HEADER_NAME_BYTES = 240;
+    private static final int MAX_HEADER_DESIGNER_BYTES = 120;
+    private static final int GENERATION_OFFSET = SUMMARY_HEADER_SIZE - 8;
+
+    // Header string lengths that do not carry text
+    private static final int HEADER_STRING_NULL = 0xFFFF;
+    private static final int HEADER_STRING_TOO_LONG = 0xFFFE; // written by earlier versions instead of long text
+    private static final int HEADER_STRING_TRUNCATED = 0x8000; // flag on the length of text cut to fit
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Identifier encodings
+    private static final int ID_NULL = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_STRING = 2;
+
+    // Furniture record flags
+    private static final int FLAG_HAS_COLOR = 1;
+
+    /**
+     * Writes a design in the current binary format
+     * @param design The design to write
+     * @param stream The stream to write to (not closed)
+     * @throws IOException If an I/O error occurs
+     */
+    public static void write(Design design, OutputStream stream) throws IOException {
+        write(design, stream, 0);
+    }
+
+    /**
+     * Writes a design in the current binary format
+     * @param design The design to write
+     * @param stream The stream to write to (not closed)
+     * @param generation Identifies this version of the file to its journal (0 for none)
+     * @throws IOException If an I/O error occurs
+     */
+    static void write(Design design, OutputStream stream, long generation) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+
+        StringTable strings = new StringTable();
+        collectStrings(design, strings);
+
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        writeSummaryHeader(out, DesignSummary.of(design), generation);
+
+        // String table
+        writeVarInt(out, strings.values.size());
+        for (String value : strings.values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        // Design properties
+        writeId(out, design.getId(), strings);
+        writeVarInt(out, strings.indexOf(design.getName()));
+        writeVarInt(out, strings.indexOf(design.getDescription()));
+        writeVarInt(out, strings.indexOf(design.getDesignerId()));
+        writeTimestamp(out, design.getCreatedAt());
+        writeTimestamp(out, design.getLastModified());
+
+        // Room
+        Room room = design.getRoom();
+        out.writeBoolean(room != null);
+        if (room != null) {
+            writeId(out, room.getId(), strings);
+            writeVarInt(out, strings.indexOf(room.getName()));
+            out.writeDouble(room.getWidth());
+            out.writeDouble(room.getLength());
+            out.writeDouble(room.getHeight());
+            writeVarInt(out, strings.indexOf(room.getShape()));
+
+            ColorScheme scheme = room.getColorScheme();
+            out.writeBoolean(scheme != null);
+            if (scheme != null) {
+                writeId(out, scheme.getId(), strings);
+                writeVarInt(out, strings.indexOf(scheme.getName()));
+                writeColor(out, scheme.getWallColor());
+                writeColor(out, scheme.getFloorColor());
+                writeColor(out, scheme.getCeilingColor());
+                writeColor(out, scheme.getAccentColor());
+            }
+        }
+
+        // Furniture records
+        List<Furniture> furnitureList = design.getFurnitureList();
+        int count = furnitureList != null ? furnitureList.size() : 0;
+        writeVarInt(out, count);
+        for (int i = 0; i < count; i++) {
+            Furniture furniture = furnitureList.get(i);
+            writeId(out, furniture.getId(), strings);
+            writeVarInt(out, strings.indexOf(furniture.getName()));
+            writeVarInt(out, strings.indexOf(furniture.getType()));
+            writeVarInt(out, strings.indexOf(furniture.getMaterial()));
+            writeVarInt(out, strings.indexOf(furniture.getImagePath()));
+            writeVarInt(out, strings.indexOf(furniture.getModelPath()));
+
+            Color color = furniture.getColor();
+            out.writeByte(color != null ? FLAG_HAS_COLOR : 0);
+            out.writeInt(color != null ? color.getRGB() : 0);
+
+            out.writeDouble(furniture.getWidth());
+            out.writeDouble(furniture.getLength());
+            out.writeDouble(furniture.getHeight());
+            out.writeDouble(furniture.getPosX());
+            out.writeDouble(furniture.getPosY());
+            out.writeDouble(furniture.getRotation());
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Reads a design written in the binary format or with Java serialization
+     * @param stream The stream to read from (not closed)
+     * @return The design
+     * @throws IOException If an I/O error occurs or the file is not a design
+     * @throws ClassNotFoundException If a legacy serialized file references an unknown class
+     */
+    public static Design read(InputStream stream) throws IOException, ClassNotFoundException {
+        return read(stream, new long[1]);
+    }
+
+    /**
+     * Reads a design together with the journal generation from the header that was decoded
+     * @param stream The stream to read from (not closed)
+     * @param generation Receives the generation in its first element, 0 if the file has none
+     * @return The design
+     * @throws IOException If an I/O error occurs or the file is not a design
+     * @throws ClassNotFoundException If a legacy serialized file references an unknown class
+     */
+    static Design read(InputStream stream, long[] generation) throws IOException, ClassNotFoundException {
+        generation[0] = 0;
+        BufferedInputStream buffered = new BufferedInputStream(stream, BUFFER_SIZE);
+        DataInputStream in = new DataInputStream(buffered);
+
+        buffered.mark(4);
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            // Legacy design written with ObjectOutputStream
+            buffered.reset();
+            Object object = new ObjectInputStream(buffered).readObject();
+            if (!(object instanceof Design)) {
+                throw new IOException("File does not contain a design");
+            }
+            return (Design) object;
+        }
+
+        int version = in.readUnsignedShort();
+        if (version < 2 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported design file version: " + version);
+        }
+        if (version >= FIRST_VERSION_WITH_SUMMARY) {
+            // Everything but the generation is repeated in the body
+            in.readFully(new byte[GENERATION_OFFSET - 6]);
+            generation[0] = in.readLong();
+        }
+
+        String[] strings = readStringTable(in);
+
+        // Design properties
+        String id = readId(in, strings);
+        String name = strings[readVarInt(in)];
+        String description = strings[readVarInt(in)];
+        String designerId = strings[readVarInt(in)];
+        LocalDateTime createdAt = readTimestamp(in);
+        LocalDateTime lastModified = readTimestamp(in);
+
+        // Room
+        Room room = null;
+        if (in.readBoolean()) {
+            String roomId = readId(in, strings);
+            String roomName = strings[readVarInt(in)];
+            double width = in.readDouble();
+            double length = in.readDouble();
+            double height = in.readDouble();
+            String shape = strings[readVarInt(in)];
+
+            ColorScheme scheme = null;
+            if (in.readBoolean()) {
+                String schemeId = readId(in, strings);
+                String schemeName = strings[readVarInt(in)];
+                Color wallColor = readColor(in);
+                Color floorColor = readColor(in);
+                Color ceilingColor = readColor(in);
+                Color accentColor = readColor(in);
+                scheme = new ColorScheme(schemeId, schemeName, wallColor, floorColor, ceilingColor, accentColor);
+            }
+            room = new Room(roomId, roomName, width, length, height, shape, scheme);
+        }
+
+        // Furniture records
+        int count = readVarInt(in);
+        List<Furniture> furnitureList = new ArrayList<>(count);
+        Map<Integer, Color> colors = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String furnitureId = readId(in, strings);
+            String furnitureName = strings[readVarInt(in)];
+            String type = strings[readVarInt(in)];
+            String material = strings[readVarInt(in)];
+            String imagePath = strings[readVarInt(in)];
+            String modelPath = strings[readVarInt(in)];
+
+            int flags = in.readUnsignedByte();
+            int argb = in.readInt();
+            Color color = null;
+            if ((flags & FLAG_HAS_COLOR) != 0) {
+                // Items of the same color share one Color instance
+                color = colors.computeIfAbsent(argb, value -> new Color(value, true));
+            }
+
+            double width = in.readDouble();
+            double length = in.readDouble();
+            double height = in.readDouble();
+            double posX = in.readDouble();
+            double posY = in.readDouble();
+            double rotation = in.readDouble();
+
+            furnitureList.add(new Furniture(furnitureId, furnitureName, type, width, length, height,
+                    color, material, imagePath, modelPath, posX, posY, rotation));
+        }
+
+        return new Design(id, name, description, room, furnitureList, createdAt, lastModified, designerId);
+    }
+
+    /**
+     * Reads only the summary header at the start of a design file.
+     * At most {@link #SUMMARY_HEADER_SIZE} bytes are consumed.
+     * @param stream The stream to read from (not closed)
+     * @return The summary, or null if the file has no usable header (legacy and version 2
+     *         files, or a name too long for the header of a file from an earlier version).
+     *         A name or designer too long for the header comes back cut short, see
+     *         {@link DesignSummary#isTruncated()}.
+     * @throws IOException If an I/O error occurs
+     */
+    public static DesignSummary readSummary(InputStream stream) throws IOException {
+        return readSummary(stream, new long[1]);
+    }
+
+    /**
+     * Reads only the summary header, together with the journal generation stored in it
+     * @param stream The stream to read from (not closed)
+     * @param generation Receives the generation in its first element, 0 if the file has no header
+     * @return The summary, or null if the file has no usable header
+     * @throws IOException If an I/O error occurs
+     */
+    static DesignSummary readSummary(InputStream stream, long[] generation) throws IOException {
+        generation[0] = 0;
+        byte[] header = readHeader(stream);
+        if (header == null) {
+            return null;
+        }
+        generation[0] = readGeneration(header);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(header));
+        in.readInt();
+        in.readUnsignedShort();
+
+        int nameLength = in.readUnsignedShort();
+        if (nameLength == HEADER_STRING_TOO_LONG) {
+            return null;
+        }
+        String name = readHeaderString(in, nameLength);
+        int designerLength = in.readUnsignedShort();
+        if (designerLength == HEADER_STRING_TOO_LONG) {
+            return null;
+        }
+        String designerId = readHeaderString(in, designerLength);
+        boolean truncated = isTruncated(nameLength) || isTruncated(designerLength);
+        LocalDateTime createdAt = readTimestamp(in);
+        LocalDateTime lastModified = readTimestamp(in);
+        double roomWidth = in.readDouble();
+        double roomLength = in.readDouble();
+        double roomHeight = in.readDouble();
+        int furnitureCount = in.readInt();
+
+        return new DesignSummary(name, designerId, createdAt, lastModified,
+                roomWidth, roomLength, roomHeight, furnitureCount, truncated);
+    }
+
+    /**
+     * Reads the description of a design, which is not in the summary header, without reading
+     * the room or the furniture
+     * @param stream The stream to read from, at the start of the file (not closed)
+     * @return The description, which may be null
+     * @throws IOException If an I/O error occurs or the file has no summary header
+     */
+    public static String readDescription(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, BUFFER_SIZE));
+        if (readHeader(in) == null) {
+            throw new IOException("Design file has no summary header");
+        }
+        String[] strings = readStringTable(in);
+        readId(in, strings);
+        readVarInt(in); // Name
+        return strings[readVarInt(in)];
+    }
+
+    /**
+     * Reads the journal generation stored at the end of the summary header
+     * @param stream The stream to read from (not closed)
+     * @return The generation, or 0 if the file has no header or was not written for a journal
+     * @throws IOException If an I/O error occurs
+     */
+    static long readGeneration(InputStream stream) throws IOException {
+        byte[] header = readHeader(stream);
+        return header != null ? readGeneration(header) : 0;
+    }
+
+    private static long readGeneration(byte[] header) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(header, GENERATION_OFFSET, header.length - GENERATION_OFFSET));
+        return in.readLong();
+    }
+
+    /**
+     * Reads the fixed-size block at the start of a file
+     * @return The block, or null if the file is not a design with a summary header
+     */
+    private static byte[] readHeader(InputStream stream) throws IOException {
+        byte[] header = new byte[SUMMARY_HEADER_SIZE];
+        int length = 0;
+        while (length < header.length) {
+            int read = stream.read(header, length, header.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        if (length < 6) {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(header, 0, length));
+        if (in.readInt() != MAGIC || in.readUnsignedShort() < FIRST_VERSION_WITH_SUMMARY) {
+            return null;
+        }
+        if (length < SUMMARY_HEADER_SIZE) {
+            throw new EOFException("Truncated design file header");
+        }
+        return header;
+    }
+
+    /**
+     * Writes the summary header, padded so that the body starts at {@link #SUMMARY_HEADER_SIZE}
+     */
+    private static void writeSummaryHeader(DataOutputStream out, DesignSummary summary, long generation)
+            throws IOException {
+        int start = out.size();
+
+        writeHeaderString(out, summary.getName(), MAX_HEADER_NAME_BYTES);
+        writeHeaderString(out, summary.getDesignerId(), MAX_HEADER_DESIGNER_BYTES);
+        writeTimestamp(out, summary.getCreatedAt());
+        writeTimestamp(out, summary.getLastModified());
+        out.writeDouble(summary.getRoomWidth());
+        out.writeDouble(summary.getRoomLength());
+        out.writeDouble(summary.getRoomHeight());
+        out.writeInt(summary.getFurnitureCount());
+
+        int padding = GENERATION_OFFSET - 6 - (out.size() - start);
+        out.write(new byte[padding]);
+        out.writeLong(generation);
+    }
+
+    private static void writeHeaderString(DataOutputStream out, String value, int maxBytes) throws IOException {
+        if (value == null) {
+            out.writeShort(HEADER_STRING_NULL);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        int flags = 0;
+        if (length > maxBytes) {
+            // Cut at a character boundary; readers that need the whole text load the design
+            length = maxBytes;
+            while ((bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            flags = HEADER_STRING_TRUNCATED;
+        }
+        out.writeShort(flags | length);
+        out.write(bytes, 0, length);
+    }
+
+    private static String readHeaderString(DataInputStream in, int length) throws IOException {
+        if (length == HEADER_STRING_NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length & ~HEADER_STRING_TRUNCATED];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isTruncated(int length) {
+        return length != HEADER_STRING_NULL && (length & HEADER_STRING_TRUNCATED) != 0;
+    }
+
+    /**
+     * Reads the string table that follows the summary header
+     * @return The strings by index; index 0 is null
+     */
+    private static String[] readStringTable(DataInputStream in) throws IOException {
+        int stringCount = readVarInt(in);
+        String[] strings = new String[stringCount + 1];
+        byte[] buffer = new byte[256];
+        for (int i = 1; i <= stringCount; i++) {
+            int length = readVarInt(in);
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static void collectStrings(Design design, StringTable strings) {
+        collectId(design.getId(), strings);
+        strings.add(design.getName());
+        strings.add(design.getDescription());
+        strings.add(design.getDesignerId());
+
+        Room room = design.getRoom();
+        if (room != null) {
+            collectId(room.getId(), strings);
+            strings.add(room.getName());
+            strings.add(room.getShape());
+            if (room.getColorScheme() != null) {
+                collectId(room.getColorScheme().getId(), strings);
+                strings.add(room.getColorScheme().getName());
+            }
+        }
+
+        if (design.getFurnitureList() != null) {
+            for (Furniture furniture : design.getFurnitureList()) {
+                collectId(furniture.getId(), strings);
+                strings.add(furniture.getName());
+                strings.add(furniture.getType());
+                strings.add(furniture.getMaterial());
+                strings.add(furniture.getImagePath());
+                strings.add(furniture.getModelPath());
+            }
+        }
+    }
+
+    // IDs that are not UUIDs are written as strings, so they must be in the table
+    private static void collectId(String id, StringTable strings) {
+        if (id != null && parseUuid(id) == null) {
+            strings.add(id);
+        }
+    }
+
+    /**
+     * Writes an ID as a packed UUID when possible, otherwise as an index into the string table
+     */
+    private static void writeId(DataOutputStream out, String id, StringTable strings) throws IOException {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+
+        UUID uuid = parseUuid(id);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_STRING);
+            writeVarInt(out, strings.indexOf(id));
+        }
+    }
+
+    private static String readId(DataInputStream in, String[] strings) throws IOException {
+        int encoding = in.readUnsignedByte();
+        switch (encoding) {
+            case ID_NULL:
+                return null;
+            case ID_UUID:
+                return new UUID(in.readLong(), in.readLong()).toString();
+            case ID_STRING:
+                return strings[readVarInt(in)];
+            default:
+                throw new IOException("Corrupt design file: unknown ID encoding " + encoding);
+        }
+    }
+
+    /**
+     * Parses a UUID only if it converts back to exactly the same string
+     */
+    private static UUID parseUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static void writeColor(DataOutputStream out, Color color) throws IOException {
+        out.writeBoolean(color != null);
+        if (color != null) {
+            out.writeInt(color.getRGB());
+        }
+    }
+
+    static Color readColor(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Color(in.readInt(), true) : null;
+    }
+
+    static void writeTimestamp(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes a string inline, for records that have no string table
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt design file: malformed varint");
+    }
+
+    /**
+     * Assigns each distinct string a 1-based index in first-use order
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int add(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                values.add(value);
+                index = values.size();
+                indexes.put(value, index);
+            }
+            return index;
+        }
+
+        int indexOf(String value) {
+            return value == null ? 0 : indexes.get(value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,367 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Design;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Persistent index of saved design metadata for the FurniView3D application.
+ * Listing and name lookups are answered from the index; the summary header of a design
+ * file is only read again when its size or modification time no longer matches its entry.
+ */
+public class DesignIndex {
+    private static final String INDEX_FILE = "designs.idx";
+
+    private static DesignIndex instance;
+
+    private final Map<String, Entry> entriesByFile; // file key -> entry
+    private final Map<String, String> fileByName;   // display name -> file key
+    private boolean dirty;
+
+    // Private constructor for singleton pattern
+    private DesignIndex() {
+        entriesByFile = new HashMap<>();
+        fileByName = new HashMap<>();
+        dirty = false;
+        loadIndex();
+    }
+
+    // Singleton instance getter
+    public static synchronized DesignIndex getInstance() {
+        if (instance == null) {
+            instance = new DesignIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the entries for all saved designs, revalidating them against the designs directory
+     * @return List of index entries sorted by file key
+     */
+    public synchronized List<Entry> getEntries() {
+        refresh();
+
+        List<Entry> entries = new ArrayList<>(entriesByFile.values());
+        entries.sort(Comparator.comparing(Entry::getFileKey));
+        return entries;
+    }
+
+    /**
+     * Gets the entry for a design file
+     * @param fileKey The filename (without extension)
+     * @return The entry, or null if the file does not exist or cannot be read
+     */
+    public synchronized Entry getEntry(String fileKey) {
+        Entry entry = entriesByFile.get(fileKey);
+        if (entry == null || !isCurrent(entry)) {
+            entry = reindex(fileKey);
+            saveIfDirty();
+        }
+        return entry;
+    }
+
+    /**
+     * Finds the file key of a design by its display name
+     * @param designName The design name as shown to the user
+     * @return The file key (without extension), or null if no saved design has that name
+     */
+    public synchronized String findFileByName(String designName) {
+        String fileKey = fileByName.get(designName);
+        if (fileKey != null) {
+            Entry entry = getEntry(fileKey);
+            if (entry != null && entry.getName().equals(designName)) {
+                return fileKey;
+            }
+        }
+
+        // The name is unknown or its entry went stale, so bring the whole index up to date once
+        refresh();
+        return fileByName.get(designName);
+    }
+
+    /**
+     * Records a design that has just been written to disk
+     * @param fileKey The filename (without extension)
+     * @param design The design that was saved
+     */
+    public synchronized void update(String fileKey, Design design) {
+        update(fileKey, DesignSummary.of(design));
+    }
+
+    /**
+     * Records a design that has just been written to disk
+     * @param fileKey The filename (without extension)
+     * @param summary The summary of the design that was saved
+     */
+    public synchronized void update(String fileKey, DesignSummary summary) {
+        BasicFileAttributes attributes = readAttributes(fileKey);
+        if (attributes == null) {
+            removeEntry(fileKey);
+        } else {
+            put(new Entry(fileKey, summary, attributes, readJournalAttributes(fileKey)));
+        }
+        saveIfDirty();
+    }
+
+    /**
+     * Removes a design from the index
+     * @param fileKey The filename (without extension)
+     */
+    public synchronized void remove(String fileKey) {
+        removeEntry(fileKey);
+        saveIfDirty();
+    }
+
+    /**
+     * Brings the index in line with the designs directory, reading only new or changed files
+     */
+    private void refresh() {
+        Set<String> fileKeys = new HashSet<>(FileManager.getDesignList());
+
+        // Drop entries whose files are gone
+        for (String fileKey : new ArrayList<>(entriesByFile.keySet())) {
+            if (!fileKeys.contains(fileKey)) {
+                removeEntry(fileKey);
+            }
+        }
+
+        for (String fileKey : fileKeys) {
+            Entry entry = entriesByFile.get(fileKey);
+            if (entry == null || !isCurrent(entry)) {
+                reindex(fileKey);
+            }
+        }
+
+        saveIfDirty();
+    }
+
+    /**
+     * Re-reads the summary header of a single design file
+     * @return The new entry, or null if the file is missing or unreadable
+     */
+    private Entry reindex(String fileKey) {
+        try {
+            DesignSummary summary = FileManager.readDesignSummary(fileKey);
+            if (summary.isTruncated()) {
+                // Names are looked up in full; the entry is kept until the file changes
+                summary = DesignSummary.of(FileManager.loadDesign(fileKey));
+            } else if (summary.getDescription() == null) {
+                // Not in the header, but shown with the details of a selected design
+                summary = summary.withDescription(FileManager.readDesignDescription(fileKey));
+            }
+
+            // Read after the summary, which may have rewritten a legacy file
+            BasicFileAttributes attributes = readAttributes(fileKey);
+            if (attributes == null) {
+                removeEntry(fileKey);
+                return null;
+            }
+
+            Entry entry = new Entry(fileKey, summary, attributes, readJournalAttributes(fileKey));
+            put(entry);
+            return entry;
+        } catch (Exception e) {
+            // Skip files that can't be loaded
+            System.err.println("Error indexing design: " + fileKey);
+            removeEntry(fileKey);
+            return null;
+        }
+    }
+
+    private void put(Entry entry) {
+        Entry previous = entriesByFile.put(entry.getFileKey(), entry);
+        if (previous != null) {
+            fileByName.remove(previous.getName(), previous.getFileKey());
+        }
+        fileByName.put(entry.getName(), entry.getFileKey());
+        dirty = true;
+    }
+
+    private void removeEntry(String fileKey) {
+        Entry removed = entriesByFile.remove(fileKey);
+        if (removed != null) {
+            fileByName.remove(removed.getName(), fileKey);
+            dirty = true;
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        BasicFileAttributes attributes = readAttributes(entry.getFileKey());
+        if (attributes == null
+                || attributes.size() != entry.getFileSize()
+                || attributes.lastModifiedTime().toMillis() != entry.getFileModifiedTime()) {
+            return false;
+        }
+
+        // Changes appended to the journal since the last full save also change the summary
+        BasicFileAttributes journal = readJournalAttributes(entry.getFileKey());
+        long journalSize = journal != null ? journal.size() : 0;
+        long journalModifiedTime = journal != null ? journal.lastModifiedTime().toMillis() : 0;
+        return journalSize == entry.getJournalSize() && journalModifiedTime == entry.getJournalModifiedTime();
+    }
+
+    private BasicFileAttributes readAttributes(String fileKey) {
+        try {
+            return Files.readAttributes(FileManager.getDesignPath(fileKey), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private BasicFileAttributes readJournalAttributes(String fileKey) {
+        try {
+            return Files.readAttributes(FileManager.getJournal(fileKey).getPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the index to file if it has changed
+     */
+    private void saveIfDirty() {
+        if (!dirty) {
+            return;
+        }
+
+        // Replaced atomically, so a crash while saving leaves the previous index rather than a damaged one
+        Path indexPath = FileManager.getDesignsDirectory().resolve(INDEX_FILE);
+        ArrayList<Entry> entries = new ArrayList<>(entriesByFile.values());
+        try {
+            FileManager.writeAtomically(indexPath, out -> {
+                ObjectOutputStream objectOut = new ObjectOutputStream(new BufferedOutputStream(out));
+                objectOut.writeObject(entries);
+                objectOut.flush();
+            });
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Error saving design index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the index from file
+     */
+    @SuppressWarnings("unchecked")
+    private void loadIndex() {
+        Path indexPath = FileManager.getDesignsDirectory().resolve(INDEX_FILE);
+        if (!Files.exists(indexPath)) {
+            return; // Built on first use
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(FileManager.openForReading(indexPath)))) {
+            for (Entry entry : (List<Entry>) in.readObject()) {
+                entriesByFile.put(entry.getFileKey(), entry);
+                fileByName.put(entry.getName(), entry.getFileKey());
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // A damaged index is rebuilt from the design files
+            System.err.println("Error loading design index: " + e.getMessage());
+            entriesByFile.clear();
+            fileByName.clear();
+        }
+    }
+
+    /**
+     * Metadata of one saved design
+     */
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = 3L;
+
+        private final String fileKey;
+        private final String name;
+        private final String description;
+        private final String designerId;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime lastModified;
+        private final int furnitureCount;
+        private final long fileSize;
+        private final long fileModifiedTime; // in milliseconds
+        private final long journalSize;
+        private final long journalModifiedTime; // in milliseconds, 0 if there is no journal
+
+        public Entry(String fileKey, String name, String description, String designerId, LocalDateTime createdAt,
+                     LocalDateTime lastModified, int furnitureCount, long fileSize, long fileModifiedTime,
+                     long journalSize, long journalModifiedTime) {
+            this.fileKey = fileKey;
+            this.name = name != null ? name : fileKey;
+            this.description = description != null ? description : "";
+            this.designerId = designerId != null ? designerId : "";
+            this.createdAt = createdAt;
+            this.lastModified = lastModified;
+            this.furnitureCount = furnitureCount;
+            this.fileSize = fileSize;
+            this.fileModifiedTime = fileModifiedTime;
+            this.journalSize = journalSize;
+            this.journalModifiedTime = journalModifiedTime;
+        }
+
+        private Entry(String fileKey, DesignSummary summary, BasicFileAttributes file, BasicFileAttributes journal) {
+            this(fileKey, summary.getName(), summary.getDescription(), summary.getDesignerId(), summary.getCreatedAt(),
+                    summary.getLastModified(), summary.getFurnitureCount(),
+                    file.size(), file.lastModifiedTime().toMillis(),
+                    journal != null ? journal.size() : 0,
+                    journal != null ? journal.lastModifiedTime().toMillis() : 0);
+        }
+
+        public String getFileKey() {
+            return fileKey;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getDesignerId() {
+            return designerId;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getLastModified() {
+            return lastModified;
+        }
+
+        public int getFurnitureCount() {
+            return furnitureCount;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+
+        public long getFileModifiedTime() {
+            return fileModifiedTime;
+        }
+
+        public long getJournalSize() {
+            return journalSize;
+        }
+
+        public long getJournalModifiedTime() {
+            return journalModifiedTime;
+        }
+
+        @Override
+        public String toString() {
+            return "DesignIndex.Entry{" +
+                    "fileKey='" + fileKey + '\'' +
+                    ", name='" + name + '\'' +
+                    ", designerId='" + designerId + '\'' +
+                    ", lastModified=" + lastModified +
+                    ", furnitureCount=" + furnitureCount +
+                    '}';
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,416 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.ColorScheme;
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+
+import java.awt.Color;
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Records changes to a saved design as small journal records between full saves.
+ *
+ * The journal of a design file starts with a BASE record naming the generation of the
+ * .fvd file it applies to, followed by idempotent records:
+ * <ul>
+ *   <li>DESIGN - the design properties, room and summary fields</li>
+ *   <li>PUT_FURNITURE - the full state of one furniture item, added or replaced</li>
+ *   <li>REMOVE_FURNITURE - the ID of a removed furniture item</li>
+ * </ul>
+ * An instance tracks what has been written for one design so that the next
+ * change can be expressed as a {@link Delta}.
+ */
+public class DesignJournal {
+    private static final int RECORD_BASE = 1;
+    private static final int RECORD_DESIGN = 2;
+    private static final int RECORD_PUT_FURNITURE = 3;
+    private static final int RECORD_REMOVE_FURNITURE = 4;
+
+    // Compact once the journal has grown to this size or half the design file, whichever is larger
+    private static final long MIN_COMPACTION_BYTES = 256 * 1024;
+
+    private final String fileName;
+    private final long generation;
+    private final long baseSize;
+    private Map<String, byte[]> furnitureRecords; // furniture ID -> last written record
+    private byte[] designRecord;
+    private long appendedBytes;
+
+    /**
+     * Starts tracking a design that has just been written in full
+     * @param fileName The filename (without extension)
+     * @param snapshot The snapshot that was written, taken from the design in its current state
+     * @param design The design
+     * @throws IOException If the design cannot be encoded
+     */
+    public DesignJournal(String fileName, DesignSnapshot snapshot, Design design) throws IOException {
+        this.fileName = fileName;
+        this.generation = snapshot.getGeneration();
+        this.baseSize = snapshot.getSize();
+        this.furnitureRecords = encodeFurniture(design);
+        this.designRecord = encodeDesign(design);
+        this.appendedBytes = 0;
+        if (furnitureRecords == null) {
+            throw new IOException("Design contains duplicate furniture IDs");
+        }
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks if the journal has grown large enough that a full save would be cheaper to load
+     * @return true if the next save should be a full save
+     */
+    public boolean needsCompaction() {
+        return appendedBytes > Math.max(MIN_COMPACTION_BYTES, baseSize / 2);
+    }
+
+    /**
+     * Works out the records needed to bring the saved design up to date
+     * @param design The design in its current state
+     * @return The delta, or null if the changes cannot be expressed as journal records
+     * @throws IOException If the design cannot be encoded
+     */
+    public Delta diff(Design design) throws IOException {
+        Map<String, byte[]> current = encodeFurniture(design);
+        if (current == null) {
+            return null;
+        }
+
+        List<JournalFile.Record> records = new ArrayList<>();
+        for (String id : furnitureRecords.keySet()) {
+            if (!current.containsKey(id)) {
+                records.add(new JournalFile.Record(RECORD_REMOVE_FURNITURE, encodeId(id)));
+            }
+        }
+        for (Map.Entry<String, byte[]> entry : current.entrySet()) {
+            byte[] previous = furnitureRecords.get(entry.getKey());
+            if (previous == null || !Arrays.equals(previous, entry.getValue())) {
+                records.add(new JournalFile.Record(RECORD_PUT_FURNITURE, entry.getValue()));
+            }
+        }
+
+        byte[] currentDesign = encodeDesign(design);
+        if (!records.isEmpty() || !Arrays.equals(designRecord, currentDesign)) {
+            // Always included so the summary can be read from the last DESIGN record
+            records.add(new JournalFile.Record(RECORD_DESIGN, currentDesign));
+        }
+
+        return new Delta(generation, records, current, currentDesign, DesignSummary.of(design),
+                design.getRevision());
+    }
+
+    /**
+     * Records that a delta has been appended to the journal
+     * @param delta The delta that was written
+     */
+    public void apply(Delta delta) {
+        furnitureRecords = delta.furnitureRecords;
+        designRecord = delta.designRecord;
+        appendedBytes += delta.getSize();
+    }
+
+    /**
+     * Creates the record that starts a new journal
+     */
+    static JournalFile.Record createBaseRecord(long generation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8);
+        new DataOutputStream(bytes).writeLong(generation);
+        return new JournalFile.Record(RECORD_BASE, bytes.toByteArray());
+    }
+
+    /**
+     * Reads the generation of the design file a journal applies to
+     * @return The generation, or 0 if the journal has no BASE record
+     */
+    static long readBaseGeneration(JournalFile journal) throws IOException {
+        long[] generation = new long[1];
+        journal.readFirst((type, payload) -> {
+            if (type == RECORD_BASE) {
+                generation[0] = new DataInputStream(new ByteArrayInputStream(payload)).readLong();
+            }
+        });
+        return generation[0];
+    }
+
+    /**
+     * Applies a journal to a design loaded from its file
+     * @param design The design as stored in the .fvd file
+     * @param journal The journal of that file
+     * @param generation The generation of the .fvd file
+     * @return The design with the journal applied, or the same design if the journal belongs
+     *         to another version of the file
+     * @throws IOException If the journal cannot be read
+     */
+    static Design replay(Design design, JournalFile journal, long generation) throws IOException {
+        if (generation == 0 || readBaseGeneration(journal) != generation) {
+            return design;
+        }
+
+        Map<String, Furniture> furniture = new LinkedHashMap<>();
+        for (Furniture item : design.getFurnitureList()) {
+            furniture.put(item.getId(), item);
+        }
+        Design[] properties = {design};
+
+        journal.replay((type, payload) -> {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            switch (type) {
+                case RECORD_BASE:
+                    break;
+                case RECORD_PUT_FURNITURE:
+                    Furniture item = readFurniture(in);
+                    furniture.put(item.getId(), item);
+                    break;
+                case RECORD_REMOVE_FURNITURE:
+                    furniture.remove(DesignCodec.readString(in));
+                    break;
+                case RECORD_DESIGN:
+                    properties[0] = readDesign(in);
+                    break;
+                default:
+                    throw new IOException("Unknown journal record type " + type);
+            }
+        });
+
+        Design source = properties[0];
+        return new Design(source.getId(), source.getName(), source.getDescription(), source.getRoom(),
+                new ArrayList<>(furniture.values()), source.getCreatedAt(), source.getLastModified(),
+                source.getDesignerId());
+    }
+
+    /**
+     * Reads the summary recorded by the last DESIGN record of a journal
+     * @param journal The journal
+     * @param generation The generation of the .fvd file
+     * @return The summary, or null if the journal does not apply or holds no DESIGN record
+     * @throws IOException If the journal cannot be read
+     */
+    static DesignSummary readSummary(JournalFile journal, long generation) throws IOException {
+        if (generation == 0 || readBaseGeneration(journal) != generation) {
+            return null;
+        }
+
+        byte[][] last = new byte[1][];
+        journal.replay((type, payload) -> {
+            if (type == RECORD_DESIGN) {
+                last[0] = payload;
+            }
+        });
+        if (last[0] == null) {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(last[0]));
+        Design design = readDesign(in);
+        int furnitureCount = in.readInt();
+        Room room = design.getRoom();
+        return new DesignSummary(design.getName(), design.getDescription(), design.getDesignerId(),
+                design.getCreatedAt(), design.getLastModified(), room.getWidth(), room.getLength(),
+                room.getHeight(), furnitureCount, false);
+    }
+
+    /**
+     * Encodes each furniture item as a PUT_FURNITURE payload, in design order
+     * @return The records, or null if two items share an ID
+     */
+    private static Map<String, byte[]> encodeFurniture(Design design) throws IOException {
+        List<Furniture> furnitureList = design.getFurnitureList();
+        Map<String, byte[]> records = new LinkedHashMap<>(Math.max(16, furnitureList.size() * 4 / 3 + 1));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Furniture furniture : furnitureList) {
+            bytes.reset();
+            writeFurniture(out, furniture);
+            if (records.put(furniture.getId(), bytes.toByteArray()) != null) {
+                return null;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Writes the full state of a furniture item, as stored in PUT_FURNITURE records
+     */
+    static void writeFurniture(DataOutputStream out, Furniture furniture) throws IOException {
+        DesignCodec.writeString(out, furniture.getId());
+        DesignCodec.writeString(out, furniture.getName());
+        DesignCodec.writeString(out, furniture.getType());
+        DesignCodec.writeString(out, furniture.getMaterial());
+        DesignCodec.writeString(out, furniture.getImagePath());
+        DesignCodec.writeString(out, furniture.getModelPath());
+        DesignCodec.writeColor(out, furniture.getColor());
+        out.writeDouble(furniture.getWidth());
+        out.writeDouble(furniture.getLength());
+        out.writeDouble(furniture.getHeight());
+        out.writeDouble(furniture.getPosX());
+        out.writeDouble(furniture.getPosY());
+        out.writeDouble(furniture.getRotation());
+    }
+
+    static Furniture readFurniture(DataInputStream in) throws IOException {
+        String id = DesignCodec.readString(in);
+        String name = DesignCodec.readString(in);
+        String type = DesignCodec.readString(in);
+        String material = DesignCodec.readString(in);
+        String imagePath = DesignCodec.readString(in);
+        String modelPath = DesignCodec.readString(in);
+        Color color = DesignCodec.readColor(in);
+        double width = in.readDouble();
+        double length = in.readDouble();
+        double height = in.readDouble();
+        double posX = in.readDouble();
+        double posY = in.readDouble();
+        double rotation = in.readDouble();
+        return new Furniture(id, name, type, width, length, height, color, material, imagePath, modelPath,
+                posX, posY, rotation);
+    }
+
+    /**
+     * Encodes the design properties and room as a DESIGN payload, followed by the furniture count
+     */
+    private static byte[] encodeDesign(Design design) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        DesignCodec.writeString(out, design.getId());
+        DesignCodec.writeString(out, design.getName());
+        DesignCodec.writeString(out, design.getDescription());
+        DesignCodec.writeString(out, design.getDesignerId());
+        DesignCodec.writeTimestamp(out, design.getCreatedAt());
+        DesignCodec.writeTimestamp(out, design.getLastModified());
+
+        Room room = design.getRoom();
+        DesignCodec.writeString(out, room.getId());
+        DesignCodec.writeString(out, room.getName());
+        out.writeDouble(room.getWidth());
+        out.writeDouble(room.getLength());
+        out.writeDouble(room.getHeight());
+        DesignCodec.writeString(out, room.getShape());
+
+        ColorScheme scheme = room.getColorScheme();
+        out.writeBoolean(scheme != null);
+        if (scheme != null) {
+            DesignCodec.writeString(out, scheme.getId());
+            DesignCodec.writeString(out, scheme.getName());
+            DesignCodec.writeColor(out, scheme.getWallColor());
+            DesignCodec.writeColor(out, scheme.getFloorColor());
+            DesignCodec.writeColor(out, scheme.getCeilingColor());
+            DesignCodec.writeColor(out, scheme.getAccentColor());
+        }
+
+        out.writeInt(design.getFurnitureList().size());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a DESIGN payload into a design without furniture
+     */
+    private static Design readDesign(DataInputStream in) throws IOException {
+        String id = DesignCodec.readString(in);
+        String name = DesignCodec.readString(in);
+        String description = DesignCodec.readString(in);
+        String designerId = DesignCodec.readString(in);
+        LocalDateTime createdAt = DesignCodec.readTimestamp(in);
+        LocalDateTime lastModified = DesignCodec.readTimestamp(in);
+
+        String roomId = DesignCodec.readString(in);
+        String roomName = DesignCodec.readString(in);
+        double width = in.readDouble();
+        double length = in.readDouble();
+        double height = in.readDouble();
+        String shape = DesignCodec.readString(in);
+
+        ColorScheme scheme = null;
+        if (in.readBoolean()) {
+            String schemeId = DesignCodec.readString(in);
+            String schemeName = DesignCodec.readString(in);
+            Color wallColor = DesignCodec.readColor(in);
+            Color floorColor = DesignCodec.readColor(in);
+            Color ceilingColor = DesignCodec.readColor(in);
+            Color accentColor = DesignCodec.readColor(in);
+            scheme = new ColorScheme(schemeId, schemeName, wallColor, floorColor, ceilingColor, accentColor);
+        }
+
+        Room room = new Room(roomId, roomName, width, length, height, shape, scheme);
+        return new Design(id, name, description, room, new ArrayList<>(), createdAt, lastModified, designerId);
+    }
+
+    static byte[] encodeId(String id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(40);
+        DesignCodec.writeString(new DataOutputStream(bytes), id);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The records that bring a saved design up to date, together with the state they produce
+     */
+    public static class Delta {
+        private final long generation;
+        private final List<JournalFile.Record> records;
+        private final Map<String, byte[]> furnitureRecords;
+        private final byte[] designRecord;
+        private final DesignSummary summary;
+        private final long revision;
+
+        private Delta(long generation, List<JournalFile.Record> records, Map<String, byte[]> furnitureRecords,
+                      byte[] designRecord, DesignSummary summary, long revision) {
+            this.generation = generation;
+            this.records = records;
+            this.furnitureRecords = furnitureRecords;
+            this.designRecord = designRecord;
+            this.summary = summary;
+            this.revision = revision;
+        }
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+
+        /**
+         * Gets the revision of the design the delta was taken from
+         * @return The design revision
+         */
+        public long getRevision() {
+            return revision;
+        }
+
+        public int getRecordCount() {
+            return records.size();
+        }
+
+        /**
+         * Gets the number of bytes the delta adds to the journal
+         * @return The size in bytes
+         */
+        public long getSize() {
+            long size = 0;
+            for (JournalFile.Record record : records) {
+                size += record.getFramedSize();
+            }
+            return size;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+
+        List<JournalFile.Record> getRecords() {
+            return records;
+        }
+
+        DesignSummary getSummary() {
+            return summary;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Design;
+
+import javax.swing.SwingUtilities;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads designs on a background thread so that the Swing event dispatch thread stays responsive.
+ * Requests for a file that is already being loaded share the same read; the read itself is
+ * only aborted once every caller has cancelled.
+ */
+public class DesignLoadService {
+    private static final int LOADER_THREADS = 2;
+
+    private static DesignLoadService instance;
+
+    private final ExecutorService executor;
+    private final Map<String, SharedLoad> inFlight; // file key -> load in progress
+
+    /**
+     * Interface for receiving load progress, always called on the event dispatch thread
+     */
+    public interface ProgressListener {
+        void progressChanged(int percent);
+    }
+
+    // Private constructor for singleton pattern
+    private DesignLoadService() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "design-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        inFlight = new ConcurrentHashMap<>();
+    }
+
+    // Singleton instance getter
+    public static synchronized DesignLoadService getInstance() {
+        if (instance == null) {
+            instance = new DesignLoadService();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts loading a design in the background
+     * @param filename The filename (without extension)
+     * @param listener Receives progress on the event dispatch thread (may be null)
+     * @return A future completed with the design; cancel it to abandon the load
+     */
+    public CompletableFuture<Design> loadDesign(String filename, ProgressListener listener) {
+        CompletableFuture<Design> result = new CompletableFuture<>();
+
+        SharedLoad load;
+        while (true) {
+            load = inFlight.computeIfAbsent(filename, SharedLoad::new);
+            if (load.subscribe(result, listener)) {
+                break;
+            }
+            // The load just finished or was aborted, so start a new one
+            inFlight.remove(filename, load);
+        }
+        load.startOnce();
+
+        SharedLoad subscribed = load;
+        result.whenComplete((design, error) -> {
+            if (result.isCancelled()) {
+                subscribed.unsubscribe(result, listener);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Checks if a design file is currently being loaded
+     * @param filename The filename (without extension)
+     * @return true if a load is in progress
+     */
+    public boolean isLoading(String filename) {
+        return inFlight.containsKey(filename);
+    }
+
+    /**
+     * One read of a design file shared by all callers that asked for it
+     */
+    private class SharedLoad {
+        private final String filename;
+        private final List<CompletableFuture<Design>> subscribers = new CopyOnWriteArrayList<>();
+        private final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+        private boolean started;
+        private boolean closed;   // no new subscribers accepted
+        private volatile boolean cancelled;
+        private volatile int lastPercent = -1;
+
+        SharedLoad(String filename) {
+            this.filename = filename;
+        }
+
+        synchronized boolean subscribe(CompletableFuture<Design> future, ProgressListener listener) {
+            if (closed) {
+                return false;
+            }
+            subscribers.add(future);
+            if (listener != null) {
+                listeners.add(listener);
+            }
+            return true;
+        }
+
+        synchronized void unsubscribe(CompletableFuture<Design> future, ProgressListener listener) {
+            subscribers.remove(future);
+            if (listener != null) {
+                listeners.remove(listener);
+            }
+            if (subscribers.isEmpty() && !closed) {
+                // Nobody is waiting for this design any more
+                closed = true;
+                cancelled = true;
+                inFlight.remove(filename, this);
+            }
+        }
+
+        synchronized void startOnce() {
+            if (!started) {
+                started = true;
+                executor.execute(this::run);
+            }
+        }
+
+        private void run() {
+            Design design = null;
+            Throwable error = null;
+            try {
+                if (!cancelled) {
+                    design = FileManager.loadDesign(filename, (bytesRead, totalBytes) -> {
+                        if (cancelled) {
+                            throw new InterruptedIOException("Loading of " + filename + " was cancelled");
+                        }
+                        reportProgress(bytesRead, totalBytes);
+                    });
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+
+            synchronized (this) {
+                closed = true;
+                inFlight.remove(filename, this);
+            }
+
+            for (CompletableFuture<Design> subscriber : subscribers) {
+                if (error != null) {
+                    subscriber.completeExceptionally(error);
+                } else if (design != null) {
+                    subscriber.complete(design);
+                }
+            }
+        }
+
+        private void reportProgress(long bytesRead, long totalBytes) {
+            if (totalBytes <= 0 || listeners.isEmpty()) {
+                return;
+            }
+            int percent = (int) Math.min(100, bytesRead * 100 / totalBytes);
+            if (percent == lastPercent) {
+                return; // Only publish whole-percent steps
+            }
+            lastPercent = percent;
+            SwingUtilities.invokeLater(() -> {
+                for (ProgressListener listener : listeners) {
+                    listener.progressChanged(percent);
+                }
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package main.java.com.furniview3d.util;
+
+/**
+ * An encoded, immutable copy of a design taken at one point in time.
+ * Snapshots are created on the thread that changes the design, or from a copy of it on any
+ * other thread, and can be written from any thread.
+ */
+public class DesignSnapshot {
+    private final byte[] data;
+    private final DesignSummary summary;
+    private final long generation;
+    private final long revision;
+
+    DesignSnapshot(byte[] data, DesignSummary summary, long generation, long revision) {
+        this.data = data;
+        this.summary = summary;
+        this.generation = generation;
+        this.revision = revision;
+    }
+
+    /**
+     * Gets the encoded design file contents (must not be modified)
+     * @return The file contents
+     */
+    byte[] getData() {
+        return data;
+    }
+
+    public DesignSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Gets the generation written into the snapshot, which its journal records refer to
+     * @return The generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the revision of the design the snapshot was taken from
+     * @return The design revision
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public int getSize() {
+        return data.length;
+    }
+}
\ No newline at end of file
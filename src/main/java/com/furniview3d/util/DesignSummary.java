@@ -0,0 +1,136 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Room;
+
+import java.time.LocalDateTime;
+
+/**
+ * The listing details of a saved design, as stored in the header of its file.
+ * Reading a summary does not require loading the room or the furniture.
+ * The description is not in the header, so summaries read from it have none.
+ */
+public class DesignSummary {
+    private final String name;
+    private final String description; // null if not read
+    private final String designerId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastModified;
+    private final double roomWidth;
+    private final double roomLength;
+    private final double roomHeight;
+    private final int furnitureCount;
+    private final boolean truncated; // name or designer cut short to fit the file header
+
+    public DesignSummary(String name, String designerId, LocalDateTime createdAt, LocalDateTime lastModified,
+                         double roomWidth, double roomLength, double roomHeight, int furnitureCount) {
+        this(name, designerId, createdAt, lastModified, roomWidth, roomLength, roomHeight, furnitureCount, false);
+    }
+
+    public DesignSummary(String name, String designerId, LocalDateTime createdAt, LocalDateTime lastModified,
+                         double roomWidth, double roomLength, double roomHeight, int furnitureCount,
+                         boolean truncated) {
+        this(name, null, designerId, createdAt, lastModified, roomWidth, roomLength, roomHeight, furnitureCount,
+                truncated);
+    }
+
+    public DesignSummary(String name, String description, String designerId, LocalDateTime createdAt,
+                         LocalDateTime lastModified, double roomWidth, double roomLength, double roomHeight,
+                         int furnitureCount, boolean truncated) {
+        this.name = name;
+        this.description = description;
+        this.designerId = designerId;
+        this.createdAt = createdAt;
+        this.lastModified = lastModified;
+        this.roomWidth = roomWidth;
+        this.roomLength = roomLength;
+        this.roomHeight = roomHeight;
+        this.furnitureCount = furnitureCount;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Creates the summary of a design held in memory
+     * @param design The design
+     * @return The summary
+     */
+    public static DesignSummary of(Design design) {
+        Room room = design.getRoom();
+        return new DesignSummary(design.getName(), design.getDescription(), design.getDesignerId(),
+                design.getCreatedAt(), design.getLastModified(),
+                room != null ? room.getWidth() : 0,
+                room != null ? room.getLength() : 0,
+                room != null ? room.getHeight() : 0,
+                design.getFurnitureList() != null ? design.getFurnitureList().size() : 0,
+                false);
+    }
+
+    /**
+     * Creates a copy of this summary with a description read separately
+     * @param description The description
+     * @return The new summary
+     */
+    public DesignSummary withDescription(String description) {
+        return new DesignSummary(name, description, designerId, createdAt, lastModified,
+                roomWidth, roomLength, roomHeight, furnitureCount, truncated);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the description, which summaries read from a file header do not have
+     * @return The description, or null if it was not read
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDesignerId() {
+        return designerId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public double getRoomWidth() {
+        return roomWidth;
+    }
+
+    public double getRoomLength() {
+        return roomLength;
+    }
+
+    public double getRoomHeight() {
+        return roomHeight;
+    }
+
+    public int getFurnitureCount() {
+        return furnitureCount;
+    }
+
+    /**
+     * Checks if the name or designer was too long for the file header and was cut short
+     * @return true if the full text has to be read from the design itself
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public String toString() {
+        return "DesignSummary{" +
+                "name='" + name + '\'' +
+                ", designerId='" + designerId + '\'' +
+                ", lastModified=" + lastModified +
+                ", room=" + roomWidth + "x" + roomLength + "x" + roomHeight +
+                ", furnitureCount=" + furnitureCount +
+                '}';
+    }
+}
\ No newline at end of file
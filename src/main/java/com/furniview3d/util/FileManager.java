@@ -6,9 +6,13 @@ import main.java.com.furniview3d.model.Furniture;
 import main.java.com.furniview3d.model.ColorScheme;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for file operations in the FurniView3D application
@@ -16,6 +20,14 @@ import java.util.List;
 public class FileManager {
     private static final String DESIGNS_DIRECTORY = "designs";
     private static final String DESIGN_EXTENSION = ".fvd"; // FurniView Design
+    private static final String JOURNAL_EXTENSION = ".fvj"; // FurniView Journal
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    // Serializes writes from the EDT and the autosave thread, and journal replays with appends
+    private static final Object WRITE_LOCK = new Object();
+
+    // Files opened for reading by the design storage, see getReadCount
+    private static final AtomicLong READ_COUNT = new AtomicLong();
 
     // Create directory if it doesn't exist
     static {
@@ -49,11 +61,86 @@ public class FileManager {
             Files.createDirectories(dirPath);
         }
 
-        String fullPath = DESIGNS_DIRECTORY + File.separator + filename + DESIGN_EXTENSION;
+        long revision = design.getRevision();
+        writeDesignFile(design, filename);
+        design.markSaved(revision);
+
+        DesignIndex.getInstance().update(filename, design);
+    }
 
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(fullPath))) {
-            out.writeObject(design);
+    /**
+     * Takes an encoded snapshot of a design so that it can be saved later from another thread
+     * @param design The design to snapshot
+     * @return The snapshot
+     * @throws IOException If the design cannot be encoded
+     */
+    public static DesignSnapshot createSnapshot(Design design) throws IOException {
+        if (design == null) {
+            throw new IllegalArgumentException("Design cannot be null");
         }
+
+        // Validate design contents before encoding
+        validateDesign(design);
+
+        long generation = newGeneration();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DesignCodec.write(design, out, generation);
+        return new DesignSnapshot(out.toByteArray(), DesignSummary.of(design), generation, design.getRevision());
+    }
+
+    /**
+     * Saves a previously taken design snapshot to a file
+     * @param snapshot The snapshot to save
+     * @param filename The filename (without extension)
+     * @throws IOException If an I/O error occurs
+     */
+    public static void saveSnapshot(DesignSnapshot snapshot, String filename) throws IOException {
+        synchronized (WRITE_LOCK) {
+            Files.createDirectories(getDesignsDirectory());
+            writeAtomically(getDesignPath(filename), out -> out.write(snapshot.getData()));
+            getJournal(filename).delete();
+        }
+
+        DesignIndex.getInstance().update(filename, snapshot.getSummary());
+    }
+
+    /**
+     * Appends the changes made since the last full save to the journal of a design
+     * @param delta The changes
+     * @param filename The filename (without extension)
+     * @return true if the delta was written; false if the design file has since been replaced
+     *         by a full save, in which case the caller must save in full
+     * @throws IOException If an I/O error occurs
+     */
+    public static boolean appendToJournal(DesignJournal.Delta delta, String filename) throws IOException {
+        synchronized (WRITE_LOCK) {
+            long generation = readGeneration(filename);
+            if (generation == 0 || generation != delta.getGeneration()) {
+                return false;
+            }
+
+            JournalFile journal = getJournal(filename);
+            List<JournalFile.Record> records = new ArrayList<>();
+            if (DesignJournal.readBaseGeneration(journal) != generation) {
+                // Left over from an earlier version of the file
+                journal.delete();
+                records.add(DesignJournal.createBaseRecord(generation));
+            }
+            records.addAll(delta.getRecords());
+            journal.append(records);
+        }
+
+        DesignIndex.getInstance().update(filename, delta.getSummary());
+        return true;
+    }
+
+    /**
+     * Gets the filename under which a design with the given name is saved
+     * @param designName The design name
+     * @return The filename (without extension)
+     */
+    public static String getFileNameForDesign(String designName) {
+        return designName.replaceAll("\\s+", "_").toLowerCase();
     }
 
     /**
@@ -61,23 +148,103 @@ public class FileManager {
      * @param filename The filename (without extension)
      * @return The loaded design, or null if loading fails
      * @throws IOException If an I/O error occurs
-     * @throws ClassNotFoundException If the class of the serialized object cannot be found
+     * @throws ClassNotFoundException If a legacy serialized design references an unknown class
      */
     public static Design loadDesign(String filename) throws IOException, ClassNotFoundException {
-        String fullPath = DESIGNS_DIRECTORY + File.separator + filename + DESIGN_EXTENSION;
+        return loadDesign(filename, null);
+    }
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(fullPath))) {
-            Design design = (Design) in.readObject();
+    /**
+     * Loads a design from a file, reporting how much of the file has been read
+     * @param filename The filename (without extension)
+     * @param listener Receives read progress on the calling thread (may be null)
+     * @return The loaded design
+     * @throws IOException If an I/O error occurs or the listener aborts the read
+     * @throws ClassNotFoundException If a legacy serialized design references an unknown class
+     */
+    public static Design loadDesign(String filename, ProgressInputStream.ProgressListener listener)
+            throws IOException, ClassNotFoundException {
+        Path path = getDesignPath(filename);
+
+        try (InputStream in = listener != null
+                ? new ProgressInputStream(openForReading(path), Files.size(path), listener)
+                : openForReading(path)) {
+            long[] generation = new long[1];
+            Design design = DesignCodec.read(in, generation);
+
+            // Apply changes saved to the journal since the last full save. The generation comes
+            // from the header that was decoded, since a full save may have replaced the file since.
+            JournalFile journal = getJournal(filename);
+            if (design != null && journal.exists()) {
+                synchronized (WRITE_LOCK) {
+                    design = DesignJournal.replay(design, journal, generation[0]);
+                }
+            }
 
             // Validate and fix any missing components
             if (design != null) {
                 validateAndFixDesign(design);
+                design.markSaved(design.getRevision());
             }
 
             return design;
         }
     }
 
+    /**
+     * Reads the summary of a saved design without loading its room or furniture.
+     * Files saved before summaries existed are loaded once and rewritten with a summary header.
+     * A name or designer too long for the header comes back cut short, see DesignSummary.isTruncated.
+     * @param filename The filename (without extension)
+     * @return The design summary
+     * @throws IOException If an I/O error occurs
+     * @throws ClassNotFoundException If a legacy serialized design references an unknown class
+     */
+    public static DesignSummary readDesignSummary(String filename) throws IOException, ClassNotFoundException {
+        DesignSummary summary;
+        long[] generation = new long[1];
+        try (InputStream in = openForReading(getDesignPath(filename))) {
+            summary = DesignCodec.readSummary(in, generation);
+        }
+
+        if (summary != null) {
+            // A journal records the latest summary with every change
+            JournalFile journal = getJournal(filename);
+            if (journal.exists()) {
+                DesignSummary journalSummary;
+                synchronized (WRITE_LOCK) {
+                    journalSummary = DesignJournal.readSummary(journal, generation[0]);
+                }
+                if (journalSummary != null) {
+                    return journalSummary;
+                }
+            }
+            return summary;
+        }
+
+        // No usable header, so read the whole design
+        Design design = loadDesign(filename);
+        try {
+            writeDesignFile(design, filename);
+        } catch (IOException e) {
+            System.err.println("Error adding summary header to design " + filename + ": " + e.getMessage());
+        }
+        return DesignSummary.of(design);
+    }
+
+    /**
+     * Reads the description of a saved design, which the summary header does not hold,
+     * without loading its room or furniture
+     * @param filename The filename (without extension)
+     * @return The description, which may be null
+     * @throws IOException If an I/O error occurs or the file has no summary header
+     */
+    public static String readDesignDescription(String filename) throws IOException {
+        try (InputStream in = openForReading(getDesignPath(filename))) {
+            return DesignCodec.readDescription(in);
+        }
+    }
+
     /**
      * Gets a list of all saved designs
      * @return List of design filenames (without extension)
@@ -117,7 +284,13 @@ public class FileManager {
         String fullPath = DESIGNS_DIRECTORY + File.separator + filename + DESIGN_EXTENSION;
 
         try {
-            return Files.deleteIfExists(Paths.get(fullPath));
+            boolean deleted;
+            synchronized (WRITE_LOCK) {
+                deleted = Files.deleteIfExists(Paths.get(fullPath));
+                getJournal(filename).delete();
+            }
+            DesignIndex.getInstance().remove(filename);
+            return deleted;
         } catch (IOException e) {
             System.err.println("Error deleting design: " + e.getMessage());
             return false;
@@ -138,9 +311,7 @@ public class FileManager {
         // Validate design contents before exporting
         validateDesign(design);
 
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(path))) {
-            out.writeObject(design);
-        }
+        writeAtomically(Paths.get(path), out -> DesignCodec.write(design, out));
     }
 
     /**
@@ -148,11 +319,11 @@ public class FileManager {
      * @param path The full path to import from
      * @return The imported design
      * @throws IOException If an I/O error occurs
-     * @throws ClassNotFoundException If the class of the serialized object cannot be found
+     * @throws ClassNotFoundException If a legacy serialized design references an unknown class
      */
     public static Design importDesign(String path) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(path))) {
-            Design design = (Design) in.readObject();
+        try (InputStream in = new FileInputStream(path)) {
+            Design design = DesignCodec.read(in);
 
             // Validate and fix any missing components
             if (design != null) {
@@ -173,6 +344,32 @@ public class FileManager {
         return Files.exists(Paths.get(fullPath));
     }
 
+    /**
+     * Gets the path of a design file
+     * @param filename The filename (without extension)
+     * @return The path of the design file
+     */
+    static Path getDesignPath(String filename) {
+        return Paths.get(DESIGNS_DIRECTORY, filename + DESIGN_EXTENSION);
+    }
+
+    /**
+     * Gets the journal of a design file
+     * @param filename The filename (without extension)
+     * @return The journal, which may not exist yet
+     */
+    static JournalFile getJournal(String filename) {
+        return new JournalFile(Paths.get(DESIGNS_DIRECTORY, filename + JOURNAL_EXTENSION));
+    }
+
+    /**
+     * Gets the directory that holds the design files
+     * @return The designs directory
+     */
+    static Path getDesignsDirectory() {
+        return Paths.get(DESIGNS_DIRECTORY);
+    }
+
     /**
      * Creates a backup of all designs
      * @param backupPath The path to save the backup to
@@ -190,7 +387,9 @@ public class FileManager {
             Files.createDirectories(backupDir);
         }
 
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(designsDir, "*" + DESIGN_EXTENSION)) {
+        // Journals hold changes made since the last full save, so they are copied too
+        String pattern = "*{" + DESIGN_EXTENSION + "," + JOURNAL_EXTENSION + "}";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(designsDir, pattern)) {
             for (Path path : stream) {
                 Path target = Paths.get(backupDir.toString(), path.getFileName().toString());
                 Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
@@ -198,6 +397,110 @@ public class FileManager {
         }
     }
 
+    /**
+     * Writes a design to its file in the designs directory
+     * @param design The design to write
+     * @param filename The filename (without extension)
+     * @throws IOException If an I/O error occurs
+     */
+    private static void writeDesignFile(Design design, String filename) throws IOException {
+        long generation = newGeneration();
+        synchronized (WRITE_LOCK) {
+            writeAtomically(getDesignPath(filename), out -> DesignCodec.write(design, out, generation));
+            getJournal(filename).delete();
+        }
+    }
+
+    /**
+     * Opens a file of the design storage for reading, counting the open
+     * @param path The file to open
+     * @return The stream
+     * @throws IOException If the file cannot be opened
+     */
+    static InputStream openForReading(Path path) throws IOException {
+        READ_COUNT.incrementAndGet();
+        return Files.newInputStream(path);
+    }
+
+    /**
+     * Gets the number of design, journal and index files opened for reading since startup
+     * @return The number of files opened
+     */
+    public static long getReadCount() {
+        return READ_COUNT.get();
+    }
+
+    /**
+     * Interface for writing the contents of a file
+     */
+    interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Replaces a file so that it holds either its old or its new contents, even after a crash.
+     * The contents are written to a temporary file and forced to disk before it is renamed.
+     * @param target The file to replace
+     * @param writer Writes the new contents
+     * @throws IOException If an I/O error occurs
+     */
+    static void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_EXTENSION);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                writer.write(out);
+                out.flush();
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // Make the rename itself durable where the platform allows it
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory != null) {
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException e) {
+                // Not supported on every platform
+            }
+        }
+    }
+
+    /**
+     * Reads the generation of a design file, which its journal refers to
+     * @param filename The filename (without extension)
+     * @return The generation, or 0 if the file has none
+     */
+    private static long readGeneration(String filename) throws IOException {
+        try (InputStream in = openForReading(getDesignPath(filename))) {
+            return DesignCodec.readGeneration(in);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Creates the generation for a new full save of a design file
+     * @return A random non-zero generation
+     */
+    private static long newGeneration() {
+        long generation;
+        do {
+            generation = ThreadLocalRandom.current().nextLong();
+        } while (generation == 0);
+        return generation;
+    }
+
     /**
      * Validates a design before saving
      * @param design The design to validate
@@ -0,0 +1,116 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Furniture;
+
+/**
+ * The footprint of a furniture item on the floor plan, in room meters.
+ * The item is a width x length rectangle whose top-left corner is at its position before
+ * rotation; it is rotated clockwise about its center, as drawn by Renderer2D.
+ */
+public class FurnitureBounds {
+    private static final double EPSILON = 1e-9; // meters, absorbs rounding for items that just touch
+
+    private final double centerX;
+    private final double centerY;
+    private final double halfWidth;
+    private final double halfLength;
+    private final double cos;
+    private final double sin;
+    private final double extentX; // half size of the axis-aligned box around the rotated rectangle
+    private final double extentY;
+
+    public FurnitureBounds(double posX, double posY, double width, double length, double rotation) {
+        this.halfWidth = Math.abs(width) / 2;
+        this.halfLength = Math.abs(length) / 2;
+        this.centerX = posX + width / 2;
+        this.centerY = posY + length / 2;
+
+        double radians = Math.toRadians(rotation);
+        this.cos = Math.cos(radians);
+        this.sin = Math.sin(radians);
+        this.extentX = halfWidth * Math.abs(cos) + halfLength * Math.abs(sin);
+        this.extentY = halfWidth * Math.abs(sin) + halfLength * Math.abs(cos);
+    }
+
+    /**
+     * Gets the footprint of a furniture item as currently placed
+     * @param furniture The furniture item
+     * @return The footprint
+     */
+    public static FurnitureBounds of(Furniture furniture) {
+        return new FurnitureBounds(furniture.getPosX(), furniture.getPosY(),
+                furniture.getWidth(), furniture.getLength(), furniture.getRotation());
+    }
+
+    /**
+     * Checks if a point lies on the rotated footprint
+     * @param x The X coordinate in meters
+     * @param y The Y coordinate in meters
+     * @return true if the point is inside or on the edge
+     */
+    public boolean contains(double x, double y) {
+        double dx = x - centerX;
+        double dy = y - centerY;
+        // Project onto the item's own axes
+        double along = dx * cos + dy * sin;
+        double across = -dx * sin + dy * cos;
+        return Math.abs(along) <= halfWidth && Math.abs(across) <= halfLength;
+    }
+
+    /**
+     * Checks if two footprints overlap, using the separating axis test on the edges of both
+     * rectangles. Footprints that only touch along an edge do not overlap.
+     * @param other The other footprint
+     * @return true if the footprints share some area
+     */
+    public boolean intersects(FurnitureBounds other) {
+        if (getMaxX() <= other.getMinX() || other.getMaxX() <= getMinX()
+                || getMaxY() <= other.getMinY() || other.getMaxY() <= getMinY()) {
+            return false;
+        }
+        if (cos == other.cos && sin == other.sin && (sin == 0 || cos == 0)) {
+            return true; // Both axis-aligned the same way, so the box test was exact
+        }
+
+        double dx = other.centerX - centerX;
+        double dy = other.centerY - centerY;
+        return !separatedAlong(cos, sin, dx, dy, other)
+                && !separatedAlong(-sin, cos, dx, dy, other)
+                && !separatedAlong(other.cos, other.sin, dx, dy, other)
+                && !separatedAlong(-other.sin, other.cos, dx, dy, other);
+    }
+
+    // Checks if the projections of both rectangles onto a unit axis are disjoint
+    private boolean separatedAlong(double axisX, double axisY, double dx, double dy, FurnitureBounds other) {
+        double distance = Math.abs(dx * axisX + dy * axisY);
+        double radius = halfWidth * Math.abs(cos * axisX + sin * axisY)
+                + halfLength * Math.abs(-sin * axisX + cos * axisY);
+        double otherRadius = other.halfWidth * Math.abs(other.cos * axisX + other.sin * axisY)
+                + other.halfLength * Math.abs(-other.sin * axisX + other.cos * axisY);
+        return distance >= radius + otherRadius - EPSILON;
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+
+    public double getMinX() {
+        return centerX - extentX;
+    }
+
+    public double getMinY() {
+        return centerY - extentY;
+    }
+
+    public double getMaxX() {
+        return centerX + extentX;
+    }
+
+    public double getMaxY() {
+        return centerY + extentY;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package main.java.com.furniview3d.util;
+
+import main.java.com.furniview3d.model.Furniture;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid over the floor plan that finds the furniture under a point without
+ * scanning the whole design. Each item is stored in every cell its rotated footprint
+ * overlaps and is kept up to date as it is added, moved, rotated or removed.
+ * Items also remember their drawing order so the topmost one wins a hit test and
+ * the items in a part of the plan can be drawn in the right order.
+ */
+public class FurnitureSpatialIndex {
+    private static final double MIN_CELL_SIZE = 0.1;  // meters
+    private static final double MAX_CELL_SIZE = 5.0;
+    private static final int MAX_CELLS_PER_ITEM = 256; // larger items go in a separate list
+    private static final Comparator<Entry> DRAWING_ORDER = Comparator.comparingLong(entry -> entry.order);
+
+    private final Map<Furniture, Entry> entries = new IdentityHashMap<>();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final List<Entry> oversized = new ArrayList<>();
+    private final List<Entry> found = new ArrayList<>(); // reused by findIntersecting
+    private double cellSize = 1.0;
+    private long nextOrder;
+    private int queryCount;
+
+    /**
+     * One indexed item with the footprint it was indexed under
+     */
+    private static class Entry {
+        private final Furniture furniture;
+        private final long order; // drawing order, later items are drawn on top
+        private FurnitureBounds bounds;
+        private int minColumn;
+        private int minRow;
+        private int maxColumn;
+        private int maxRow;
+        private boolean isOversized;
+        private int lastQuery; // the findIntersecting call that last found this entry
+
+        Entry(Furniture furniture, long order) {
+            this.furniture = furniture;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Replaces the contents of the index with the furniture of a design, in drawing order.
+     * The cell size is chosen from the average footprint of the items.
+     * @param furnitureList The furniture, first drawn first
+     */
+    public void rebuild(List<Furniture> furnitureList) {
+        clear();
+        if (furnitureList == null || furnitureList.isEmpty()) {
+            return;
+        }
+
+        List<FurnitureBounds> footprints = new ArrayList<>(furnitureList.size());
+        double totalSize = 0;
+        for (Furniture furniture : furnitureList) {
+            FurnitureBounds bounds = FurnitureBounds.of(furniture);
+            footprints.add(bounds);
+            totalSize += Math.max(bounds.getMaxX() - bounds.getMinX(), bounds.getMaxY() - bounds.getMinY());
+        }
+        double averageSize = totalSize / furnitureList.size();
+        cellSize = Double.isNaN(averageSize) ? 1.0 : Math.max(MIN_CELL_SIZE, Math.min(averageSize, MAX_CELL_SIZE));
+
+        for (int i = 0; i < furnitureList.size(); i++) {
+            Furniture furniture = furnitureList.get(i);
+            Entry entry = new Entry(furniture, nextOrder++);
+            entries.put(furniture, entry);
+            insert(entry, footprints.get(i));
+        }
+    }
+
+    /**
+     * Adds an item on top of everything already indexed
+     * @param furniture The furniture to add
+     */
+    public void add(Furniture furniture) {
+        if (entries.containsKey(furniture)) {
+            update(furniture);
+            return;
+        }
+        Entry entry = new Entry(furniture, nextOrder++);
+        entries.put(furniture, entry);
+        insert(entry, FurnitureBounds.of(furniture));
+    }
+
+    /**
+     * Re-indexes an item after it has been moved, rotated or resized, keeping its drawing order
+     * @param furniture The furniture that changed
+     */
+    public void update(Furniture furniture) {
+        Entry entry = entries.get(furniture);
+        if (entry == null) {
+            add(furniture);
+            return;
+        }
+        unlink(entry);
+        insert(entry, FurnitureBounds.of(furniture));
+    }
+
+    /**
+     * Removes an item from the index
+     * @param furniture The furniture to remove
+     */
+    public void remove(Furniture furniture) {
+        Entry entry = entries.remove(furniture);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        cells.clear();
+        oversized.clear();
+        nextOrder = 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds the topmost item whose rotated footprint contains a point
+     * @param x The X coordinate in room meters
+     * @param y The Y coordinate in room meters
+     * @return The item drawn last at that point, or null if there is none
+     */
+    public Furniture findTopmostAt(double x, double y) {
+        Entry best = topmostIn(cells.get(cellKey(column(x), row(y))), x, y, null);
+        best = topmostIn(oversized, x, y, best);
+        return best != null ? best.furniture : null;
+    }
+
+    /**
+     * Finds the items whose footprints overlap a given item, using the item's current position
+     * @param furniture The item to test; it is never included in the result
+     * @return The overlapping items in no particular order
+     */
+    public List<Furniture> findOverlapping(Furniture furniture) {
+        FurnitureBounds bounds = FurnitureBounds.of(furniture);
+        List<Furniture> result = new ArrayList<>();
+        Map<Entry, Boolean> seen = new IdentityHashMap<>();
+
+        int minColumn = column(bounds.getMinX());
+        int maxColumn = column(bounds.getMaxX());
+        int minRow = row(bounds.getMinY());
+        int maxRow = row(bounds.getMaxY());
+        long cellCount = ((long) maxColumn - minColumn + 1) * ((long) maxRow - minRow + 1);
+
+        if (cellCount > cells.size()) {
+            // Cheaper to look at the occupied cells than to walk the whole area
+            for (List<Entry> cell : cells.values()) {
+                collectOverlapping(cell, furniture, bounds, seen, result);
+            }
+        } else {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int row = minRow; row <= maxRow; row++) {
+                    collectOverlapping(cells.get(cellKey(column, row)), furniture, bounds, seen, result);
+                }
+            }
+        }
+        collectOverlapping(oversized, furniture, bounds, seen, result);
+        return result;
+    }
+
+    /**
+     * Finds the items whose footprints may overlap a rectangle, for drawing part of the plan.
+     * Items are matched by the axis-aligned box around their rotated footprint.
+     * @param minX The left edge in room meters
+     * @param minY The top edge in room meters
+     * @param maxX The right edge in room meters
+     * @param maxY The bottom edge in room meters
+     * @param result Receives the items in drawing order, first drawn first; it is cleared first
+     */
+    public void findIntersecting(double minX, double minY, double maxX, double maxY, List<Furniture> result) {
+        result.clear();
+        found.clear();
+        queryCount++;
+
+        int minColumn = column(minX);
+        int maxColumn = column(maxX);
+        int minRow = row(minY);
+        int maxRow = row(maxY);
+        long cellCount = ((long) maxColumn - minColumn + 1) * ((long) maxRow - minRow + 1);
+
+        if (cellCount > cells.size()) {
+            // Cheaper to look at the occupied cells than to walk the whole area
+            for (List<Entry> cell : cells.values()) {
+                collectIntersecting(cell, minX, minY, maxX, maxY);
+            }
+        } else {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int row = minRow; row <= maxRow; row++) {
+                    collectIntersecting(cells.get(cellKey(column, row)), minX, minY, maxX, maxY);
+                }
+            }
+        }
+        collectIntersecting(oversized, minX, minY, maxX, maxY);
+
+        found.sort(DRAWING_ORDER);
+        for (int i = 0; i < found.size(); i++) {
+            result.add(found.get(i).furniture);
+        }
+        found.clear();
+    }
+
+    private void collectIntersecting(List<Entry> candidates, double minX, double minY, double maxX, double maxY) {
+        if (candidates == null) {
+            return;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            Entry entry = candidates.get(i);
+            FurnitureBounds bounds = entry.bounds;
+            if (entry.lastQuery != queryCount
+                    && bounds.getMinX() <= maxX && bounds.getMaxX() >= minX
+                    && bounds.getMinY() <= maxY && bounds.getMaxY() >= minY) {
+                entry.lastQuery = queryCount;
+                found.add(entry);
+            }
+        }
+    }
+
+    private void collectOverlapping(List<Entry> candidates, Furniture furniture, FurnitureBounds bounds,
+                                    Map<Entry, Boolean> seen, List<Furniture> result) {
+        if (candidates == null) {
+            return;
+        }
+        for (Entry entry : candidates) {
+            if (entry.furniture != furniture && seen.put(entry, Boolean.TRUE) == null
+                    && bounds.intersects(entry.bounds)) {
+                result.add(entry.furniture);
+            }
+        }
+    }
+
+    private Entry topmostIn(List<Entry> candidates, double x, double y, Entry best) {
+        if (candidates == null) {
+            return best;
+        }
+        for (Entry entry : candidates) {
+            if (best != null && entry.order < best.order) {
+                continue;
+            }
+            FurnitureBounds bounds = entry.bounds;
+            if (x >= bounds.getMinX() && x <= bounds.getMaxX()
+                    && y >= bounds.getMinY() && y <= bounds.getMaxY()
+                    && bounds.contains(x, y)) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    private void insert(Entry entry, FurnitureBounds bounds) {
+        entry.bounds = bounds;
+        entry.minColumn = column(bounds.getMinX());
+        entry.minRow = row(bounds.getMinY());
+        entry.maxColumn = column(bounds.getMaxX());
+        entry.maxRow = row(bounds.getMaxY());
+
+        long cellCount = ((long) entry.maxColumn - entry.minColumn + 1) * ((long) entry.maxRow - entry.minRow + 1);
+        entry.isOversized = cellCount > MAX_CELLS_PER_ITEM || cellCount <= 0;
+        if (entry.isOversized) {
+            oversized.add(entry);
+            return;
+        }
+
+        for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+            for (int row = entry.minRow; row <= entry.maxRow; row++) {
+                cells.computeIfAbsent(cellKey(column, row), key -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.isOversized) {
+            oversized.remove(entry);
+            return;
+        }
+
+        for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+            for (int row = entry.minRow; row <= entry.maxRow; row++) {
+                long key = cellKey(column, row);
+                List<Entry> cell = cells.get(key);
+                if (cell != null) {
+                    cell.remove(entry);
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private int column(double x) {
+        return toCell(x);
+    }
+
+    private int row(double y) {
+        return toCell(y);
+    }
+
+    private int toCell(double coordinate) {
+        double cell = Math.floor(coordinate / cellSize);
+        if (Double.isNaN(cell)) {
+            return 0;
+        }
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, cell));
+    }
+
+    private static long cellKey(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package main.java.com.furniview3d.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of checksummed records.
+ *
+ * Each record is framed as
+ * <pre>
+ *   int payload length, byte type, payload, int CRC32 of type and payload
+ * </pre>
+ * Appends are forced to disk before returning. A record that was only partly written
+ * when the application stopped fails its length or checksum test; replay stops there
+ * and cuts the file back to the last complete record.
+ */
+public class JournalFile {
+    private static final int FRAME_OVERHEAD = 4 + 1 + 4;
+    private static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+    private final Path path;
+
+    /**
+     * Interface for receiving records during replay
+     */
+    public interface RecordHandler {
+        void onRecord(int type, byte[] payload) throws IOException;
+    }
+
+    /**
+     * One record to append
+     */
+    public static class Record {
+        private final int type;
+        private final byte[] payload;
+
+        public Record(int type, byte[] payload) {
+            if (type < 0 || type > 0xFF) {
+                throw new IllegalArgumentException("Record type must fit in one byte");
+            }
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public int getFramedSize() {
+            return payload.length + FRAME_OVERHEAD;
+        }
+    }
+
+    public JournalFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    /**
+     * Gets the current size of the journal
+     * @return The size in bytes, or 0 if the journal does not exist
+     */
+    public long size() {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Appends records in a single write and forces them to disk
+     * @param records The records to append
+     * @throws IOException If an I/O error occurs
+     */
+    public void append(List<Record> records) throws IOException {
+        ByteBuffer buffer = encode(records);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Replaces the journal with the given records. They are written to a new file that
+     * replaces the journal once it is on disk, so the old records stay readable until then.
+     * @param records The records of the new journal; the journal is deleted if there are none
+     * @throws IOException If an I/O error occurs
+     */
+    public void replaceWith(List<Record> records) throws IOException {
+        if (records.isEmpty()) {
+            delete();
+            return;
+        }
+        ByteBuffer buffer = encode(records);
+        FileManager.writeAtomically(path, out -> out.write(buffer.array(), 0, buffer.limit()));
+    }
+
+    /**
+     * Frames records for writing
+     */
+    private static ByteBuffer encode(List<Record> records) {
+        int size = 0;
+        for (Record record : records) {
+            size += record.getFramedSize();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (Record record : records) {
+            crc.reset();
+            crc.update(record.type);
+            crc.update(record.payload);
+
+            buffer.putInt(record.payload.length);
+            buffer.put((byte) record.type);
+            buffer.put(record.payload);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads all complete records in order. An incomplete or corrupt tail is cut off.
+     * @param handler Receives each record
+     * @return The number of records read
+     * @throws IOException If an I/O error occurs or the handler rejects a record
+     */
+    public int replay(RecordHandler handler) throws IOException {
+        if (!exists()) {
+            return 0;
+        }
+
+        long fileSize = Files.size(path);
+        long validLength = 0;
+        int count = 0;
+        CRC32 crc = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(FileManager.openForReading(path)))) {
+            while (validLength + FRAME_OVERHEAD <= fileSize) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_PAYLOAD_SIZE || validLength + FRAME_OVERHEAD + length > fileSize) {
+                    break;
+                }
+                int type = in.readUnsignedByte();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int checksum = in.readInt();
+
+                crc.reset();
+                crc.update(type);
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                handler.onRecord(type, payload);
+                validLength += FRAME_OVERHEAD + length;
+                count++;
+            }
+        }
+
+        if (validLength < fileSize) {
+            System.err.println("Discarding incomplete journal tail in " + path.getFileName()
+                    + " (" + (fileSize - validLength) + " bytes)");
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("Error truncating journal: " + e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads the first record only
+     * @param handler Receives the record if there is a complete one
+     * @return true if a record was read
+     * @throws IOException If an I/O error occurs
+     */
+    public boolean readFirst(RecordHandler handler) throws IOException {
+        if (!exists()) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(FileManager.openForReading(path)))) {
+            int length = in.readInt();
+            if (length < 0 || length > MAX_PAYLOAD_SIZE) {
+                return false;
+            }
+            int type = in.readUnsignedByte();
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            int checksum = in.readInt();
+
+            CRC32 crc = new CRC32();
+            crc.update(type);
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return false;
+            }
+            handler.onRecord(type, payload);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the journal if it exists
+     * @throws IOException If an I/O error occurs
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package main.java.com.furniview3d.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that reports how many bytes have been read so far.
+ * A listener can abort the read by throwing an IOException from its callback.
+ */
+public class ProgressInputStream extends FilterInputStream {
+    private final long totalBytes;
+    private final ProgressListener listener;
+    private long bytesRead;
+    private long mark;
+
+    /**
+     * Interface for receiving read progress
+     */
+    public interface ProgressListener {
+        /**
+         * Called on the reading thread after each read
+         * @param bytesRead Bytes read so far
+         * @param totalBytes Expected total, or -1 if unknown
+         * @throws IOException To abort the read
+         */
+        void progressChanged(long bytesRead, long totalBytes) throws IOException;
+    }
+
+    public ProgressInputStream(InputStream in, long totalBytes, ProgressListener listener) {
+        super(in);
+        this.totalBytes = totalBytes;
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int count = super.read(b, off, len);
+        if (count > 0) {
+            advance(count);
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        super.mark(readlimit);
+        mark = bytesRead;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        super.reset();
+        bytesRead = mark;
+    }
+
+    private void advance(long count) throws IOException {
+        bytesRead += count;
+        listener.progressChanged(bytesRead, totalBytes);
+    }
+}
\ No newline at end of file
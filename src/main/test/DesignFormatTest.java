@@ -0,0 +1,74 @@
+package main.test;
+
+import main.java.com.furniview3d.model.ColorScheme;
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+import main.java.com.furniview3d.util.FileManager;
+
+import java.awt.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Saves a design whose IDs are not UUIDs, as designs restored from other tools can have,
+ * and checks that it loads back unchanged. Exits with status 1 if it does not.
+ */
+public class DesignFormatTest {
+    private static final String FILE_NAME = "design-format-test";
+
+    public static void main(String[] args) throws Exception {
+        ColorScheme scheme = new ColorScheme("SCHEME-1", "Test scheme", Color.WHITE, Color.GRAY,
+                Color.LIGHT_GRAY, Color.BLUE);
+        Room room = new Room("ROOM-1", "Test room", 5, 4, 2.7, "rectangular", scheme);
+
+        List<Furniture> furnitureList = new ArrayList<>();
+        furnitureList.add(new Furniture("SKU-1", "Chair", "Chair", 0.5, 0.5, 0.9, Color.RED, "wood",
+                null, null, 1.0, 1.5, 45));
+        furnitureList.add(new Furniture("Chair", "Chair", "Chair", 0.5, 0.5, 0.9, Color.RED, "wood",
+                null, null, 2.0, 1.5, 0)); // an ID equal to another string in the design
+        furnitureList.add(new Furniture(java.util.UUID.randomUUID().toString(), "Table", "Table",
+                1.6, 0.9, 0.75, null, "wood", null, null, 2.5, 2.0, 90));
+
+        LocalDateTime now = LocalDateTime.now();
+        Design design = new Design("DESIGN-1", "Format test", "IDs that are not UUIDs", room,
+                furnitureList, now, now, "tester");
+
+        Design loaded;
+        try {
+            FileManager.saveDesign(design, FILE_NAME);
+            loaded = FileManager.loadDesign(FILE_NAME);
+        } finally {
+            FileManager.deleteDesign(FILE_NAME);
+        }
+
+        List<String> errors = new ArrayList<>();
+        check(errors, "design ID", design.getId(), loaded.getId());
+        check(errors, "room ID", room.getId(), loaded.getRoom().getId());
+        check(errors, "color scheme ID", scheme.getId(), loaded.getRoom().getColorScheme().getId());
+        check(errors, "furniture count", furnitureList.size(), loaded.getFurnitureList().size());
+        for (int i = 0; i < Math.min(furnitureList.size(), loaded.getFurnitureList().size()); i++) {
+            Furniture expected = furnitureList.get(i);
+            Furniture actual = loaded.getFurnitureList().get(i);
+            check(errors, "furniture ID " + i, expected.getId(), actual.getId());
+            check(errors, "furniture name " + i, expected.getName(), actual.getName());
+            check(errors, "furniture rotation " + i, expected.getRotation(), actual.getRotation());
+        }
+
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                System.err.println(error);
+            }
+            System.exit(1);
+        }
+        System.out.println("Designs with IDs that are not UUIDs load back unchanged");
+    }
+
+    private static void check(List<String> errors, String what, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            errors.add(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package main.test;
+
+import main.java.com.furniview3d.model.ColorScheme;
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+import main.java.com.furniview3d.render.Renderer2D;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Checks that repainting the 2D view allocates nothing once its tiles are drawn.
+ * Run with -Djava.awt.headless=true; exits with status 1 if a repaint allocates.
+ *
+ * Only Renderer2D.paintComponent is measured. JComponent.paint copies the Graphics
+ * before calling it, and that copy is the same for every panel.
+ */
+public class Renderer2DAllocationTest {
+    private static final int WIDTH = 1400;
+    private static final int HEIGHT = 900;
+    private static final int WARM_UP_PAINTS = 20000;
+    private static final int MEASURED_PAINTS = 1000;
+    private static final int ROUNDS = 10;
+
+    // Exposes the paint method of the renderer without the Graphics copy made by JComponent.paint
+    private static class MeasuredRenderer extends Renderer2D {
+        void paintOnce(Graphics g) {
+            paintComponent(g);
+        }
+    }
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        MeasuredRenderer renderer = new MeasuredRenderer();
+        renderer.setSize(WIDTH, HEIGHT);
+        renderer.setDesign(createDesign(500));
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+
+        String[] views = {"default", "zoomed and panned", "grid and labels off", "clipped"};
+        boolean failed = false;
+        for (String view : views) {
+            Graphics2D target = g2d;
+            switch (view) {
+                case "zoomed and panned":
+                    renderer.setScale(2.0);
+                    renderer.setPan(-300, -200);
+                    break;
+                case "grid and labels off":
+                    renderer.setScale(1.0);
+                    renderer.setPan(0, 0);
+                    renderer.toggleGrid();
+                    renderer.toggleLabels();
+                    break;
+                case "clipped":
+                    target = (Graphics2D) g2d.create();
+                    target.setClip(100, 100, 300, 200);
+                    break;
+                default:
+                    break;
+            }
+
+            // Warm up so tiles are drawn and the JIT has compiled the paint path
+            for (int i = 0; i < WARM_UP_PAINTS; i++) {
+                renderer.paintOnce(target);
+            }
+
+            // The smallest round is used, since other threads of the JVM can be charged to this one
+            long allocated = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long before = threadBean.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < MEASURED_PAINTS; i++) {
+                    renderer.paintOnce(target);
+                }
+                allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadId) - before);
+            }
+
+            System.out.println(view + ": " + allocated + " bytes over " + MEASURED_PAINTS + " repaints");
+            if (allocated != 0) {
+                failed = true;
+            }
+        }
+        g2d.dispose();
+
+        if (failed) {
+            System.err.println("Repainting the 2D view allocates");
+            System.exit(1);
+        }
+        System.out.println("Repainting the 2D view allocates nothing");
+    }
+
+    private static Design createDesign(int itemCount) {
+        Room room = new Room("Hall", 12, 8, 3, "rectangular", new ColorScheme());
+        Design design = new Design("Allocation test", "", room, "test");
+        Random random = new Random(1);
+        String[] types = {"Chair", "Table", "Sofa", "Lamp"};
+        for (int i = 0; i < itemCount; i++) {
+            Furniture furniture = new Furniture("Item " + i, types[i % types.length], 0.5, 0.5, 1,
+                    new Color(random.nextInt(0xFFFFFF)), "Wood", null, null);
+            furniture.setPosX(random.nextDouble() * 11);
+            furniture.setPosY(random.nextDouble() * 7);
+            furniture.setRotation(random.nextDouble() * 360);
+            design.addFurniture(furniture);
+        }
+        return design;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package main.test;
+
+import main.java.com.furniview3d.controller.DesignController;
+import main.java.com.furniview3d.model.ColorScheme;
+import main.java.com.furniview3d.model.Design;
+import main.java.com.furniview3d.model.Furniture;
+import main.java.com.furniview3d.model.Room;
+import main.java.com.furniview3d.util.DesignIndex;
+import main.java.com.furniview3d.util.FileManager;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that telling whether a design has unsaved changes, and saving it with Save or
+ * Save As, opens no files for reading. Exits with status 1 if any are opened or if the
+ * unsaved state is wrong.
+ */
+public class UnsavedChangesTest {
+    private static final String NAME = "Unsaved changes test";
+    private static final String NEW_NAME = "Unsaved changes test copy";
+    private static final int CHECKS = 10000;
+
+    public static void main(String[] args) throws Exception {
+        Room room = new Room("Hall", 6, 5, 2.7, "rectangular", new ColorScheme());
+        Design design = new Design(NAME, "", room, "tester");
+        Furniture chair = new Furniture("Chair", "Chair", 0.5, 0.5, 0.9, Color.RED, "wood", null, null);
+        design.addFurniture(chair);
+        DesignController controller = new DesignController(design);
+
+        String fileName = FileManager.getFileNameForDesign(NAME);
+        String newFileName = FileManager.getFileNameForDesign(NEW_NAME);
+        List<String> errors = new ArrayList<>();
+
+        // The index is read once when the application starts
+        DesignIndex.getInstance();
+        long readsBefore = FileManager.getReadCount();
+        try {
+            check(errors, "new design", controller, true);
+
+            // Save, as FurniView3DApp.saveDesign does
+            FileManager.saveDesign(design, fileName);
+            check(errors, "after Save", controller, false);
+
+            chair.setPosX(2.0);
+            check(errors, "after moving an item", controller, true);
+            room.getColorScheme().setWallColor(Color.YELLOW);
+            check(errors, "after changing the wall color", controller, true);
+
+            // Save As, as FurniView3DApp.saveDesignAs does
+            design.setName(NEW_NAME);
+            FileManager.saveDesign(design, newFileName);
+            check(errors, "after Save As", controller, false);
+        } finally {
+            FileManager.deleteDesign(fileName);
+            FileManager.deleteDesign(newFileName);
+        }
+
+        long reads = FileManager.getReadCount() - readsBefore;
+        System.out.println(reads + " files opened for reading during the checks and saves");
+        if (reads != 0) {
+            errors.add("Files were opened for reading: " + reads);
+        }
+
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                System.err.println(error);
+            }
+            System.exit(1);
+        }
+        System.out.println("Unsaved changes are tracked without reading from disk");
+    }
+
+    private static void check(List<String> errors, String when, DesignController controller, boolean expected) {
+        for (int i = 0; i < CHECKS; i++) {
+            if (controller.isDesignModified() != expected) {
+                errors.add(when + ": expected modified to be " + expected);
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file